@@ -0,0 +1,122 @@
+package com.folautech.restclient.benchmark;
+
+import com.folautech.restclient.config.RestClientProperties;
+import com.folautech.restclient.dto.Post;
+import com.folautech.restclient.load.StubUpstreamServer;
+import com.folautech.restclient.transport.BinaryFormat;
+import com.folautech.restclient.transport.ContentNegotiationInterceptor;
+import com.folautech.restclient.transport.HttpTransportFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestClient;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON vs Smile vs CBOR for a 100-post list: encode and decode cost, and a full GET of the list from
+ * {@link StubUpstreamServer} with the format negotiated by {@link ContentNegotiationInterceptor}. Scores are per
+ * Post; the encoded size per Post is printed at setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BinaryCodecBenchmark {
+
+    private static final int POSTS = 100;
+    private static final ParameterizedTypeReference<List<Post>> POST_LIST = new ParameterizedTypeReference<>() {};
+
+    @Param({"JSON", "SMILE", "CBOR"})
+    public String format;
+
+    private ObjectReader postListReader;
+    private ObjectWriter postListWriter;
+    private List<Post> posts;
+    private byte[] encoded;
+
+    private StubUpstreamServer stub;
+    private RestClient restClient;
+    private String postsUrl;
+
+    @Setup
+    public void setUp() throws IOException {
+        BinaryFormat binary = format.equals("JSON") ? null : BinaryFormat.valueOf(format);
+        ObjectMapper mapper = binary == null ? JsonMapper.builder().build() : binary.newMapper();
+        postListReader = mapper.readerFor(new TypeReference<List<Post>>() {});
+        postListWriter = mapper.writerFor(new TypeReference<List<Post>>() {});
+        posts = LoopbackServer.Fixtures.posts(POSTS);
+        encoded = postListWriter.writeValueAsBytes(posts);
+        System.out.printf("%n%s: %d bytes for %d posts, %.1f bytes per post%n", format, encoded.length, POSTS,
+                (double) encoded.length / POSTS);
+
+        RestClientProperties.Stub properties = new RestClientProperties.Stub();
+        properties.setPort(0);
+        properties.setLatency(Duration.ZERO);
+        properties.setLatencyJitter(Duration.ZERO);
+        properties.setSlowRate(0);
+        stub = new StubUpstreamServer(properties, JsonMapper.builder().build());
+        postsUrl = stub.baseUrl() + "/posts";
+
+        RestClientProperties.Transport transport = new RestClientProperties.Transport();
+        // h2 is negotiated through TLS ALPN; the stub is cleartext HTTP/1.1
+        transport.setHttpVersion(HttpClient.Version.HTTP_1_1);
+        RestClient.Builder builder = RestClient.builder().requestFactory(new HttpTransportFactory(transport).create());
+        if (binary != null) {
+            RestClientProperties.Codec codec = new RestClientProperties.Codec();
+            codec.setFormats(List.of(binary));
+            builder.requestInterceptor(new ContentNegotiationInterceptor(codec));
+        }
+        restClient = builder.build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        stub.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSTS)
+    public List<Post> decodePostList() {
+        return postListReader.readValue(encoded);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSTS)
+    public byte[] encodePostList() {
+        return postListWriter.writeValueAsBytes(posts);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POSTS)
+    public List<Post> fetchPostList() {
+        return restClient.get()
+                .uri(postsUrl)
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .body(POST_LIST);
+    }
+}
@@ -0,0 +1,120 @@
+package com.folautech.restclient.benchmark;
+
+import com.folautech.restclient.config.RestClientProperties;
+import com.folautech.restclient.dto.Post;
+import com.folautech.restclient.dto.User;
+import com.folautech.restclient.transport.HttpTransportFactory;
+import com.folautech.restclient.transport.TransportType;
+import com.folautech.restclient.utility.RestClientLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.BufferingClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full RestClient round trips against {@link LoopbackServer}, crossing transport and interceptor setup
+ * with and without BufferingClientHttpRequestFactory. Run with {@code -prof gc} to see allocation per call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClientHotPathBenchmark {
+
+    private static final ParameterizedTypeReference<List<Post>> POST_LIST = new ParameterizedTypeReference<>() {};
+
+    @Param({"none", "log-disabled", "log-enabled"})
+    public String interceptor;
+
+    @Param({"false", "true"})
+    public boolean buffering;
+
+    @Param({"JDK", "SIMPLE"})
+    public TransportType transport;
+
+    private LoopbackServer server;
+    private RestClientLog restClientLog;
+    private RestClient restClient;
+    private String baseUrl;
+    private Post post;
+
+    @Setup
+    public void setUp() throws IOException {
+        server = new LoopbackServer();
+        baseUrl = server.baseUrl();
+        post = LoopbackServer.Fixtures.post(1);
+
+        RestClientProperties properties = new RestClientProperties();
+        // h2 is negotiated through TLS ALPN; the loopback server is cleartext HTTP/1.1
+        properties.getTransport().setHttpVersion(HttpClient.Version.HTTP_1_1);
+        properties.getTransport().setType(transport);
+        ClientHttpRequestFactory requestFactory = new HttpTransportFactory(properties.getTransport()).create();
+        if (buffering) {
+            requestFactory = new BufferingClientHttpRequestFactory(requestFactory);
+        }
+
+        RestClient.Builder builder = RestClient.builder().requestFactory(requestFactory);
+        if (!interceptor.equals("none")) {
+            restClientLog = new RestClientLog(interceptor.equals("log-enabled"));
+            builder.requestInterceptor(restClientLog);
+        }
+        restClient = builder.build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (restClientLog != null) {
+            restClientLog.close();
+        }
+        server.close();
+    }
+
+    @Benchmark
+    public User getUser() {
+        return restClient.get()
+                .uri(baseUrl + "/users/{id}", 1)
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .body(User.class);
+    }
+
+    @Benchmark
+    public List<Post> getPosts() {
+        return restClient.get()
+                .uri(baseUrl + "/posts")
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .body(POST_LIST);
+    }
+
+    @Benchmark
+    public Post createPost() {
+        return restClient.post()
+                .uri(baseUrl + "/posts")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .body(post)
+                .retrieve()
+                .body(Post.class);
+    }
+}
@@ -0,0 +1,86 @@
+package com.folautech.restclient.benchmark;
+
+import com.folautech.restclient.dto.Post;
+import com.folautech.restclient.dto.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson encode/decode cost of the DTOs, without any HTTP.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonCodecBenchmark {
+
+    private ObjectReader userReader;
+    private ObjectWriter userWriter;
+    private ObjectReader postReader;
+    private ObjectWriter postWriter;
+    private ObjectReader postListReader;
+
+    private User user;
+    private Post post;
+    private byte[] userJson;
+    private byte[] postJson;
+    private byte[] postListJson;
+
+    @Setup
+    public void setUp() {
+        JsonMapper jsonMapper = JsonMapper.builder().build();
+        userReader = jsonMapper.readerFor(User.class);
+        userWriter = jsonMapper.writerFor(User.class);
+        postReader = jsonMapper.readerFor(Post.class);
+        postWriter = jsonMapper.writerFor(Post.class);
+        postListReader = jsonMapper.readerFor(new TypeReference<List<Post>>() {});
+
+        user = LoopbackServer.Fixtures.user(1);
+        post = LoopbackServer.Fixtures.post(1);
+        userJson = userWriter.writeValueAsBytes(user);
+        postJson = postWriter.writeValueAsBytes(post);
+        postListJson = jsonMapper.writeValueAsBytes(LoopbackServer.Fixtures.posts(100));
+    }
+
+    @Benchmark
+    public byte[] encodeUser() {
+        return userWriter.writeValueAsBytes(user);
+    }
+
+    @Benchmark
+    public User decodeUser() {
+        return userReader.readValue(userJson);
+    }
+
+    @Benchmark
+    public byte[] encodePost() {
+        return postWriter.writeValueAsBytes(post);
+    }
+
+    @Benchmark
+    public Post decodePost() {
+        return postReader.readValue(postJson);
+    }
+
+    @Benchmark
+    public List<Post> decodePostList100() {
+        return postListReader.readValue(postListJson);
+    }
+}
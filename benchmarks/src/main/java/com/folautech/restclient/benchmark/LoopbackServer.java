@@ -0,0 +1,110 @@
+package com.folautech.restclient.benchmark;
+
+import com.folautech.restclient.dto.Post;
+import com.folautech.restclient.dto.User;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-process HTTP server serving JSONPlaceholder-shaped payloads, so benchmarks measure the client and not the internet.
+ */
+public class LoopbackServer implements AutoCloseable {
+
+    private static final byte[] ACCEPTED = "{\"accepted\":true}".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    public LoopbackServer() throws IOException {
+        // without this the split header/body writes hit the 40ms delayed-ACK stall
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+
+        JsonMapper jsonMapper = JsonMapper.builder().build();
+        byte[] user = jsonMapper.writeValueAsBytes(Fixtures.user(1));
+        byte[] posts = jsonMapper.writeValueAsBytes(Fixtures.posts(100));
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        server.setExecutor(executor);
+        server.createContext("/users", exchange -> send(exchange, user));
+        server.createContext("/posts", exchange -> {
+            if ("GET".equals(exchange.getRequestMethod())) {
+                send(exchange, posts);
+            } else {
+                // echo POST/PUT bodies back like JSONPlaceholder does
+                try (InputStream in = exchange.getRequestBody()) {
+                    send(exchange, in.readAllBytes());
+                }
+            }
+        });
+        server.createContext("/uploads", exchange -> {
+            // drain uploads without holding them, so the client's allocation dominates -prof gc
+            try (InputStream in = exchange.getRequestBody()) {
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            send(exchange, ACCEPTED);
+        });
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private static void send(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    static class Fixtures {
+
+        static User user(long id) {
+            return User.builder()
+                    .id(id)
+                    .name("Leanne Graham")
+                    .username("Bret")
+                    .email("Sincere@april.biz")
+                    .phone("1-770-736-8031 x56442")
+                    .website("hildegard.org")
+                    .build();
+        }
+
+        static Post post(long id) {
+            return Post.builder()
+                    .id(id)
+                    .userId(1 + id / 10)
+                    .title("sunt aut facere repellat provident occaecati excepturi optio reprehenderit")
+                    .body("quia et suscipit\nsuscipit recusandae consequuntur expedita et cum\n"
+                            + "reprehenderit molestiae ut ut quas totam\nnostrum rerum est autem sunt rem eveniet architecto")
+                    .build();
+        }
+
+        static List<Post> posts(int count) {
+            List<Post> posts = new ArrayList<>(count);
+            for (int i = 1; i <= count; i++) {
+                posts.add(post(i));
+            }
+            return posts;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.folautech.restclient.benchmark;
+
+import com.folautech.restclient.dto.CompactPost;
+import com.folautech.restclient.dto.CompactUser;
+import com.folautech.restclient.dto.Post;
+import com.folautech.restclient.dto.User;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Retained heap of a decoded result set, {@link Post}/{@link User} against {@link CompactPost}/{@link CompactUser}.
+ * Not a JMH benchmark: it measures what stays live after decoding, not allocation rate or time.
+ * <p>
+ * Each sample decodes {@code count} elements and keeps them, and takes the difference in used heap after a full GC
+ * before and after. The users are 10 distinct users repeated, the shape of bulk fetches that see the same users
+ * again. Use a stop-the-world collector for stable numbers:
+ * <pre>
+ * java -XX:+UseSerialGC -cp target/benchmarks.jar com.folautech.restclient.benchmark.MemoryFootprintBenchmark 100000
+ * </pre>
+ */
+public class MemoryFootprintBenchmark {
+
+    private static final int SAMPLES = 5;
+
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        JsonMapper jsonMapper = JsonMapper.builder().build();
+
+        byte[] postsJson = jsonMapper.writeValueAsBytes(LoopbackServer.Fixtures.posts(count));
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = LoopbackServer.Fixtures.user(1 + i % 10);
+            user.setUsername("user" + (1 + i % 10));
+            user.setWebsite("site" + (1 + i % 10) + ".org");
+            users.add(user);
+        }
+        byte[] usersJson = jsonMapper.writeValueAsBytes(users);
+        users = null;
+
+        System.out.printf("%-14s %10s %16s %14s%n", "type", "elements", "retained bytes", "bytes/element");
+        report("Post", count, () -> jsonMapper.readValue(postsJson, new TypeReference<List<Post>>() {}));
+        report("CompactPost", count, () -> jsonMapper.readValue(postsJson, new TypeReference<List<CompactPost>>() {}));
+        report("User", count, () -> jsonMapper.readValue(usersJson, new TypeReference<List<User>>() {}));
+        report("CompactUser", count, () -> jsonMapper.readValue(usersJson, new TypeReference<List<CompactUser>>() {}));
+    }
+
+    private static void report(String type, int count, Supplier<List<?>> decode) {
+        // warm the decoder so its caches are not counted against the first sample
+        decode.get();
+        long[] retained = new long[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            long before = usedAfterGc();
+            List<?> kept = decode.get();
+            long after = usedAfterGc();
+            retained[i] = after - before;
+            if (kept.size() != count) {
+                throw new IllegalStateException("decoded " + kept.size() + " of " + count);
+            }
+        }
+        Arrays.sort(retained);
+        long median = retained[SAMPLES / 2];
+        System.out.printf("%-14s %10d %16d %14.1f%n", type, count, median, (double) median / count);
+    }
+
+    private static long usedAfterGc() {
+        long used = Long.MAX_VALUE;
+        // repeat until a collection frees nothing more
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            long now = MEMORY.getHeapMemoryUsage().getUsed();
+            if (now >= used) {
+                return now;
+            }
+            used = now;
+        }
+        return used;
+    }
+}
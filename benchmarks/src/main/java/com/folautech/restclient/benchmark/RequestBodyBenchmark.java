@@ -0,0 +1,124 @@
+package com.folautech.restclient.benchmark;
+
+import com.folautech.restclient.config.RestClientProperties;
+import com.folautech.restclient.dto.Post;
+import com.folautech.restclient.transport.FileRequestBody;
+import com.folautech.restclient.transport.HttpTransportFactory;
+import com.folautech.restclient.transport.StreamingInterceptingRequestFactory;
+import com.folautech.restclient.utility.BufferPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * POSTs to {@link LoopbackServer} through one pass-through interceptor: Spring's intercepting request, which copies
+ * every body into a byte[], vs {@link StreamingInterceptingRequestFactory} with pooled buffers. Bodies are a single
+ * Post, 2000 Posts (~0.5MB of JSON) and a 4MB file. Run with {@code -prof gc}: the difference is in
+ * gc.alloc.rate.norm.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequestBodyBenchmark {
+
+    private static final ClientHttpRequestInterceptor PASS_THROUGH =
+            (request, body, execution) -> execution.execute(request, body);
+
+    @Param({"false", "true"})
+    public boolean streaming;
+
+    private LoopbackServer server;
+    private RestClient restClient;
+    private String uploadsUrl;
+    private Post post;
+    private List<Post> posts;
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        server = new LoopbackServer();
+        uploadsUrl = server.baseUrl() + "/uploads";
+        post = LoopbackServer.Fixtures.post(1);
+        posts = LoopbackServer.Fixtures.posts(2000);
+        byte[] content = new byte[4 * 1024 * 1024];
+        new Random(1).nextBytes(content);
+        file = Files.createTempFile("request-body-benchmark", ".bin");
+        Files.write(file, content);
+
+        RestClientProperties properties = new RestClientProperties();
+        // h2 is negotiated through TLS ALPN; the loopback server is cleartext HTTP/1.1
+        properties.getTransport().setHttpVersion(HttpClient.Version.HTTP_1_1);
+        ClientHttpRequestFactory requestFactory = new HttpTransportFactory(properties.getTransport()).create();
+        RestClient.Builder builder = RestClient.builder();
+        if (streaming) {
+            RestClientProperties.Streaming pool = properties.getStreaming();
+            builder.requestFactory(new StreamingInterceptingRequestFactory(requestFactory, List.of(PASS_THROUGH),
+                    new BufferPool((int) pool.getBufferSize().toBytes(), pool.getMaxPooledBuffers())));
+        } else {
+            builder.requestFactory(requestFactory).requestInterceptor(PASS_THROUGH);
+        }
+        restClient = builder.build();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        server.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public ResponseEntity<Void> postOne() {
+        return upload(MediaType.APPLICATION_JSON, post);
+    }
+
+    @Benchmark
+    public ResponseEntity<Void> postMany() {
+        return upload(MediaType.APPLICATION_JSON, posts);
+    }
+
+    @Benchmark
+    public ResponseEntity<Void> uploadFile() throws IOException {
+        FileRequestBody body = new FileRequestBody(file);
+        return restClient.post()
+                .uri(uploadsUrl)
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(body.contentLength())
+                .body(body)
+                .retrieve()
+                .toBodilessEntity();
+    }
+
+    private ResponseEntity<Void> upload(MediaType contentType, Object body) {
+        return restClient.post()
+                .uri(uploadsUrl)
+                .contentType(contentType)
+                .body(body)
+                .retrieve()
+                .toBodilessEntity();
+    }
+}
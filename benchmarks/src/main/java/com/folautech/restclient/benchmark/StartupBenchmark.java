@@ -0,0 +1,108 @@
+package com.folautech.restclient.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Launches the application repeatedly in fresh JVMs and reports time to ready and time to the first successful
+ * {@code JsonPlaceholderService} call for each startup variant. Not a JMH benchmark: every sample is a cold start.
+ * <p>
+ * Needs the output of {@code ./mvnw -Pfast-startup package} (the extracted jar and its AppCDS archive):
+ * <pre>
+ * java -cp target/benchmarks.jar com.folautech.restclient.benchmark.StartupBenchmark ../target/fast-startup 10
+ * </pre>
+ * The application calls {@link LoopbackServer} and logs its own timings from JVM start via
+ * {@code restclient.startup.probe}; the harness also records wall-clock time from process launch to that line.
+ */
+public class StartupBenchmark {
+
+    private static final Pattern PROBE = Pattern.compile("Startup probe: ready=(\\d+) firstCall=(\\d+)");
+
+    public static void main(String[] args) throws Exception {
+        Path directory = Path.of(args.length > 0 ? args[0] : "../target/fast-startup").toAbsolutePath();
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        Path jar;
+        try (Stream<Path> files = Files.list(directory)) {
+            jar = files.filter(file -> file.getFileName().toString().endsWith("-exec.jar")).findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("no *-exec.jar in " + directory
+                            + "; run ./mvnw -Pfast-startup package first"));
+        }
+
+        Map<String, List<String>> variants = new LinkedHashMap<>();
+        variants.put("default", List.of());
+        variants.put("lazy", List.of("-Dspring.profiles.active=fast-startup"));
+        variants.put("lazy+aot", List.of("-Dspring.aot.enabled=true", "-Dspring.profiles.active=fast-startup"));
+        variants.put("lazy+aot+cds", List.of("-XX:SharedArchiveFile=application.jsa", "-Xlog:cds=off",
+                "-Dspring.aot.enabled=true", "-Dspring.profiles.active=fast-startup"));
+
+        Map<String, List<long[]>> samples = new LinkedHashMap<>();
+        variants.keySet().forEach(name -> samples.put(name, new ArrayList<>()));
+        try (LoopbackServer server = new LoopbackServer()) {
+            // interleave variants so drift on the machine affects them all alike
+            for (int run = 0; run < runs; run++) {
+                for (Map.Entry<String, List<String>> variant : variants.entrySet()) {
+                    samples.get(variant.getKey()).add(launch(directory, jar, variant.getValue(), server.baseUrl()));
+                }
+            }
+        }
+
+        System.out.printf("%-14s %6s %14s %14s %14s%n", "variant", "runs", "ready ms", "firstCall ms", "wall ms");
+        System.out.printf("%-14s %6s %14s %14s %14s%n", "", "", "median/min", "median/min", "median/min");
+        samples.forEach((name, measured) -> System.out.printf("%-14s %6d %14s %14s %14s%n", name, measured.size(),
+                summary(measured, 0), summary(measured, 1), summary(measured, 2)));
+    }
+
+    /**
+     * One cold start: {ready, firstCall} as the application measured them, and wall-clock time to the probe line.
+     */
+    private static long[] launch(Path directory, Path jar, List<String> jvmOptions, String baseUrl)
+            throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.addAll(Arrays.asList("-jar", jar.getFileName().toString(),
+                "--server.port=0",
+                "--restclient.base-url=" + baseUrl,
+                "--restclient.startup.probe=true",
+                "--restclient.startup.exit-after-probe=true"));
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).directory(directory.toFile()).redirectErrorStream(true).start();
+        long[] sample = null;
+        StringBuilder output = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                output.append(line).append('\n');
+                Matcher matcher = PROBE.matcher(line);
+                if (sample == null && matcher.find()) {
+                    sample = new long[]{Long.parseLong(matcher.group(1)), Long.parseLong(matcher.group(2)),
+                            (System.nanoTime() - start) / 1_000_000};
+                }
+            }
+        }
+        process.waitFor();
+        if (sample == null) {
+            throw new IllegalStateException("no startup probe line from " + command + "\n" + output);
+        }
+        return sample;
+    }
+
+    private static String summary(List<long[]> samples, int column) {
+        long[] values = samples.stream().mapToLong(sample -> sample[column]).sorted().toArray();
+        return values[values.length / 2] + "/" + values[0];
+    }
+}
@@ -0,0 +1,67 @@
+package com.folautech.restclient.benchmark;
+
+import com.folautech.restclient.utility.CompiledUriTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * URI building as JsonPlaceholderService does it (a {@link CompiledUriTemplate} parsed once) against
+ * concatenating the base URL and expanding the template per call, and the other alternatives.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UriTemplateBenchmark {
+
+    private static final String BASE_URL = "https://jsonplaceholder.typicode.com";
+
+    private final DefaultUriBuilderFactory uriBuilderFactory = new DefaultUriBuilderFactory();
+    private final DefaultUriBuilderFactory baseUrlFactory = new DefaultUriBuilderFactory(BASE_URL);
+    private final CompiledUriTemplate compiled = CompiledUriTemplate.of(BASE_URL, "/posts?userId={userId}");
+    private long id = 42;
+
+    @Benchmark
+    public URI precompiled() {
+        return compiled.expand(id);
+    }
+
+    @Benchmark
+    public URI concatAndExpand() {
+        // what RestClient.uri(BASE_URL + "/users/{id}", id) does on every call
+        return uriBuilderFactory.expand(BASE_URL + "/posts?userId={userId}", id);
+    }
+
+    @Benchmark
+    public URI baseUrlFactoryExpand() {
+        return baseUrlFactory.expand("/posts?userId={userId}", id);
+    }
+
+    @Benchmark
+    public URI uriComponentsBuilder() {
+        return UriComponentsBuilder.fromUriString(BASE_URL)
+                .path("/posts")
+                .queryParam("userId", id)
+                .build()
+                .toUri();
+    }
+
+    @Benchmark
+    public URI plainConcatenation() {
+        return URI.create(BASE_URL + "/posts?userId=" + id);
+    }
+}
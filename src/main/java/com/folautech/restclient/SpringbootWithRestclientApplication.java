@@ -1,15 +1,20 @@
 package com.folautech.restclient;
 
+import com.folautech.restclient.config.RestClientProperties;
 import com.folautech.restclient.dto.Post;
 import com.folautech.restclient.dto.User;
+import com.folautech.restclient.load.LoadDriver;
 import com.folautech.restclient.service.JsonPlaceholderService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.core.annotation.Order;
 import org.springframework.core.env.Environment;
 
@@ -30,6 +35,7 @@ public class SpringbootWithRestclientApplication {
 
 	@Order(1)
 	@Bean
+	@ConditionalOnProperty(prefix = "app.environment-info", name = "enabled", havingValue = "true", matchIfMissing = true)
 	public CommandLineRunner environmentInfoRunner(ApplicationContext ctx) {
 		return args -> {
 
@@ -74,8 +80,20 @@ public class SpringbootWithRestclientApplication {
 
 	@Order(2)
 	@Bean
-	public CommandLineRunner restClientDemoRunner(JsonPlaceholderService jsonPlaceholderService) {
+	public CommandLineRunner restClientDemoRunner(@Lazy JsonPlaceholderService jsonPlaceholderService,
+												  RestClientProperties properties, ObjectProvider<LoadDriver> loadDriver,
+												  ApplicationContext ctx) {
 		return args -> {
+			// load profile: drive the service instead of the demo (see application-load.properties)
+			LoadDriver driver = loadDriver.getIfAvailable();
+			if (driver != null) {
+				driver.run();
+				if (properties.getLoad().isExitWhenDone()) {
+					System.exit(SpringApplication.exit(ctx, () -> 0));
+				}
+				return;
+			}
+
 			System.out.println("\n");
 			System.out.println("==================== RestClient Demo ====================");
 
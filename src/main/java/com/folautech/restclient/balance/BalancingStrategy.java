@@ -0,0 +1,18 @@
+package com.folautech.restclient.balance;
+
+/**
+ * How {@link LoadBalancer} chooses a replica for the next call.
+ */
+public enum BalancingStrategy {
+
+    /**
+     * Fewest calls in flight, scanning every replica; ties go to a random one.
+     */
+    LEAST_OUTSTANDING,
+
+    /**
+     * Two random replicas, the one with the lower latency x (in flight + 1) wins. Prefers fast replicas
+     * without herding every caller onto the single best one.
+     */
+    POWER_OF_TWO_CHOICES
+}
@@ -0,0 +1,186 @@
+package com.folautech.restclient.balance;
+
+import com.folautech.restclient.config.RestClientProperties;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * Spreads calls across the replicas of one upstream.
+ * <p>
+ * With {@link BalancingStrategy#POWER_OF_TWO_CHOICES} each pick compares two random replicas by
+ * {@code (latency + 1ns) x (in flight + 1)}, the latency being a peak-weighted moving average of time to response
+ * headers; {@link BalancingStrategy#LEAST_OUTSTANDING} takes the replica with the fewest calls in flight.
+ * <p>
+ * Health is passive: {@code consecutiveFailures} I/O errors or 5xx responses in a row eject a replica for
+ * {@code baseEjectionTime}, longer for each repeated ejection, as long as no more than {@code maxEjectedPercent}
+ * of the replicas (and never all of them) are out. A replica coming back is on slow start: it gets only
+ * {@code weight} of the calls it wins, ramping from 10% to all of them over {@code slowStart}, so a replica that
+ * is still cold or only half recovered is not flooded with traffic.
+ */
+public class LoadBalancer {
+
+    private final Upstream[] upstreams;
+    private final BalancingStrategy strategy;
+    private final double decayNanos;
+    private final int consecutiveFailures;
+    private final long baseEjectionNanos;
+    private final long maxEjectionNanos;
+    private final long slowStartNanos;
+    private final int maxEjected;
+    private final LongSupplier clock;
+
+    public LoadBalancer(RestClientProperties.Balancer properties) {
+        this(properties, System::nanoTime);
+    }
+
+    LoadBalancer(RestClientProperties.Balancer properties, LongSupplier clock) {
+        List<String> urls = properties.getUpstreams();
+        if (urls.isEmpty()) {
+            throw new IllegalArgumentException("At least one upstream is required");
+        }
+        this.upstreams = urls.stream().map(LoadBalancer::trimSlash).map(Upstream::new).toArray(Upstream[]::new);
+        this.strategy = properties.getStrategy();
+        this.decayNanos = Math.max(1, properties.getLatencyDecay().toNanos());
+        this.consecutiveFailures = Math.max(1, properties.getConsecutiveFailures());
+        this.baseEjectionNanos = properties.getBaseEjectionTime().toNanos();
+        this.maxEjectionNanos = properties.getMaxEjectionTime().toNanos();
+        this.slowStartNanos = properties.getSlowStart().toNanos();
+        this.maxEjected = Math.min(upstreams.length - 1, upstreams.length * properties.getMaxEjectedPercent() / 100);
+        this.clock = clock;
+    }
+
+    /**
+     * Chooses the replica for the next call and counts it as in flight; every pick must be followed by one
+     * {@link #release}.
+     */
+    Upstream pick() {
+        long now = clock.getAsLong();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Upstream[] available = new Upstream[upstreams.length];
+        int count = 0;
+        for (Upstream upstream : upstreams) {
+            if (!upstream.ejected(now)) {
+                available[count++] = upstream;
+            }
+        }
+        if (count == 0) {
+            available = upstreams;
+            count = upstreams.length;
+        }
+
+        Upstream chosen;
+        Upstream other;
+        if (count == 1) {
+            chosen = available[0];
+            other = null;
+        } else if (strategy == BalancingStrategy.POWER_OF_TWO_CHOICES) {
+            int first = random.nextInt(count);
+            int second = random.nextInt(count - 1);
+            if (second >= first) {
+                second++;
+            }
+            boolean firstWins = cost(available[first], now) <= cost(available[second], now);
+            chosen = available[firstWins ? first : second];
+            other = available[firstWins ? second : first];
+        } else {
+            int start = random.nextInt(count);
+            chosen = available[start];
+            for (int i = 1; i < count; i++) {
+                Upstream candidate = available[(start + i) % count];
+                if (candidate.outstanding() < chosen.outstanding()) {
+                    chosen = candidate;
+                }
+            }
+            int skip = random.nextInt(count - 1);
+            other = available[skip >= indexOf(available, chosen) ? skip + 1 : skip];
+        }
+
+        if (other != null) {
+            double weight = chosen.weight(now, slowStartNanos);
+            if (weight < 1 && random.nextDouble() >= weight) {
+                chosen = other;
+            }
+        }
+        chosen.started();
+        return chosen;
+    }
+
+    /**
+     * The call got response headers without a server error after {@code rttNanos}.
+     */
+    void succeeded(Upstream upstream, long rttNanos) {
+        long now = clock.getAsLong();
+        upstream.sample(rttNanos, now, decayNanos);
+        upstream.succeeded(now, slowStartNanos);
+    }
+
+    /**
+     * The call failed with an I/O error or a 5xx response.
+     */
+    void failed(Upstream upstream) {
+        if (upstream.failed(consecutiveFailures)) {
+            eject(upstream);
+        }
+    }
+
+    /**
+     * The call is over (response closed or failed); it no longer counts as in flight.
+     */
+    void release(Upstream upstream) {
+        upstream.finished();
+    }
+
+    /**
+     * Balancer state per replica, in configuration order.
+     */
+    public Map<String, UpstreamStatistics> getStatistics() {
+        long now = clock.getAsLong();
+        Map<String, UpstreamStatistics> statistics = new LinkedHashMap<>();
+        for (Upstream upstream : upstreams) {
+            statistics.put(upstream.baseUrl(), upstream.statistics(now, decayNanos, slowStartNanos));
+        }
+        return statistics;
+    }
+
+    private synchronized void eject(Upstream upstream) {
+        long now = clock.getAsLong();
+        int ejected = 0;
+        for (Upstream candidate : upstreams) {
+            if (candidate.ejected(now)) {
+                ejected++;
+            }
+        }
+        if (ejected < maxEjected && !upstream.ejected(now)) {
+            upstream.eject(now, baseEjectionNanos, maxEjectionNanos);
+        }
+    }
+
+    private double cost(Upstream upstream, long now) {
+        return (upstream.latency(now, decayNanos) + 1) * (upstream.outstanding() + 1);
+    }
+
+    private static int indexOf(Upstream[] upstreams, Upstream upstream) {
+        for (int i = 0; i < upstreams.length; i++) {
+            if (upstreams[i] == upstream) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String trimSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    /**
+     * Point-in-time view of one replica. {@code requests} and {@code failures} are totals since startup;
+     * {@code ejections} counts the ejections in a row, reset once the replica is healthy again.
+     */
+    public record UpstreamStatistics(int outstanding, long requests, long failures, boolean ejected, int ejections,
+                                     double weight, double latencyMillis) {
+    }
+}
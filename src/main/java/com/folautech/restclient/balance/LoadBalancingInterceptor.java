@@ -0,0 +1,163 @@
+package com.folautech.restclient.balance;
+
+import com.folautech.restclient.limit.ConcurrencyLimitExceededException;
+import com.folautech.restclient.metrics.ClientStatisticsContributor;
+import com.folautech.restclient.transport.ConnectionUnavailableException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.support.HttpRequestWrapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sends calls addressed to the logical {@code restclient.base-url} to one of its replicas, chosen by a
+ * {@link LoadBalancer}. Everything above this interceptor (cache keys, metrics templates, logs of the
+ * request) sees the logical URL; everything below sees the replica, so the concurrency limit is per replica and a
+ * retry or hedge picks again. Other URLs, and every call when no replicas are configured, pass through.
+ * <p>
+ * A replica's call counts as in flight until the response is closed. Rejections by the local concurrency
+ * limiter or connection pool and abandoned (interrupted) calls say nothing about the replica and do not count as
+ * failures.
+ */
+public class LoadBalancingInterceptor implements ClientHttpRequestInterceptor, ClientStatisticsContributor {
+
+    private final String baseUrl;
+    private final LoadBalancer balancer;
+
+    /**
+     * @param balancer null to pass every call through
+     */
+    public LoadBalancingInterceptor(String baseUrl, LoadBalancer balancer) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.balancer = balancer;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String uri = request.getURI().toString();
+        if (balancer == null || !isBelowBaseUrl(uri)) {
+            return execution.execute(request, body);
+        }
+
+        Upstream upstream = balancer.pick();
+        URI target = URI.create(upstream.baseUrl() + uri.substring(baseUrl.length()));
+        long start = System.nanoTime();
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(new HttpRequestWrapper(request) {
+                @Override
+                public URI getURI() {
+                    return target;
+                }
+            }, body);
+        } catch (IOException | RuntimeException e) {
+            if (!isLocal(e)) {
+                balancer.failed(upstream);
+            }
+            balancer.release(upstream);
+            throw e;
+        }
+        ReleasingResponse releasing = new ReleasingResponse(response, balancer, upstream);
+        try {
+            if (response.getStatusCode().is5xxServerError()) {
+                balancer.failed(upstream);
+            } else {
+                balancer.succeeded(upstream, System.nanoTime() - start);
+            }
+        } catch (IOException e) {
+            // no readable status line: the replica answered with something unusable
+            balancer.failed(upstream);
+            releasing.close();
+            throw e;
+        }
+        return releasing;
+    }
+
+    @Override
+    public String getStatisticsSection() {
+        return "upstreams";
+    }
+
+    /**
+     * Balancer state per replica; empty when no replicas are configured.
+     */
+    @Override
+    public Map<String, LoadBalancer.UpstreamStatistics> getStatistics() {
+        return balancer == null ? Map.of() : balancer.getStatistics();
+    }
+
+    /**
+     * Whether the call failed on this side: turned away before it reached the replica, or abandoned by its
+     * caller. The JDK transport reports an interrupt as a plain IOException, so the thread's flag is checked too.
+     */
+    private static boolean isLocal(Exception e) {
+        return e instanceof ConcurrencyLimitExceededException || e instanceof ConnectionUnavailableException
+                || e instanceof InterruptedIOException || Thread.currentThread().isInterrupted();
+    }
+
+    private boolean isBelowBaseUrl(String uri) {
+        if (!uri.startsWith(baseUrl)) {
+            return false;
+        }
+        if (uri.length() == baseUrl.length()) {
+            return true;
+        }
+        char next = uri.charAt(baseUrl.length());
+        return next == '/' || next == '?' || next == '#';
+    }
+
+    private static class ReleasingResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final LoadBalancer balancer;
+        private final Upstream upstream;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ReleasingResponse(ClientHttpResponse delegate, LoadBalancer balancer, Upstream upstream) {
+            this.delegate = delegate;
+            this.balancer = balancer;
+            this.upstream = upstream;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    balancer.release(upstream);
+                }
+            }
+        }
+    }
+}
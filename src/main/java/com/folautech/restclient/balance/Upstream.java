@@ -0,0 +1,131 @@
+package com.folautech.restclient.balance;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Balancer state for one replica: calls in flight, a peak-weighted moving average of latency, and the
+ * ejection / slow-start bookkeeping. {@link LoadBalancer} owns all transitions.
+ */
+final class Upstream {
+
+    private final String baseUrl;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    // guarded by this
+    private double latencyNanos;
+    private long lastSampleNanos;
+    private boolean sampled;
+    private int consecutiveFailures;
+    private int ejections;
+    private long ejectedUntil;
+    private long recoveringSince;
+    private boolean ejected;
+    private boolean recovering;
+
+    Upstream(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    String baseUrl() {
+        return baseUrl;
+    }
+
+    int outstanding() {
+        return outstanding.get();
+    }
+
+    void started() {
+        outstanding.incrementAndGet();
+        requests.increment();
+    }
+
+    void finished() {
+        outstanding.decrementAndGet();
+    }
+
+    /**
+     * Peak EWMA: a slower sample replaces the average at once, faster ones pull it down with weight
+     * depending on the time since the previous sample, so a replica that turns slow is avoided immediately and
+     * one that recovers is trusted gradually.
+     */
+    synchronized void sample(long rttNanos, long now, double decayNanos) {
+        if (rttNanos >= latencyNanos || !sampled) {
+            latencyNanos = rttNanos;
+        } else {
+            double weight = Math.exp(-(now - lastSampleNanos) / decayNanos);
+            latencyNanos = latencyNanos * weight + rttNanos * (1 - weight);
+        }
+        lastSampleNanos = now;
+        sampled = true;
+    }
+
+    /**
+     * The average, decayed towards zero for the time without samples, so a replica that stopped getting
+     * traffic after one bad spell is eventually tried again.
+     */
+    synchronized double latency(long now, double decayNanos) {
+        if (!sampled) {
+            return 0;
+        }
+        return latencyNanos * Math.exp(-(now - lastSampleNanos) / decayNanos);
+    }
+
+    /**
+     * Records a failed call. Returns true once {@code threshold} failures have happened in a row.
+     */
+    synchronized boolean failed(int threshold) {
+        failures.increment();
+        return ++consecutiveFailures >= threshold;
+    }
+
+    synchronized void succeeded(long now, long slowStartNanos) {
+        consecutiveFailures = 0;
+        if (weight(now, slowStartNanos) >= 1) {
+            ejections = 0;
+        }
+    }
+
+    synchronized void eject(long now, long baseNanos, long maxNanos) {
+        ejections++;
+        ejected = true;
+        recovering = false;
+        consecutiveFailures = 0;
+        ejectedUntil = now + Math.min(baseNanos * ejections, maxNanos);
+    }
+
+    /**
+     * Whether the replica is out of rotation; an expired ejection ends here and starts the slow-start ramp.
+     */
+    synchronized boolean ejected(long now) {
+        if (ejected && now - ejectedUntil >= 0) {
+            ejected = false;
+            recovering = true;
+            recoveringSince = ejectedUntil;
+        }
+        return ejected;
+    }
+
+    /**
+     * Share of its normal traffic the replica should get: 1, or a ramp from 0.1 to 1 over {@code slowStartNanos}
+     * after returning from ejection.
+     */
+    synchronized double weight(long now, long slowStartNanos) {
+        if (!recovering) {
+            return 1;
+        }
+        long elapsed = now - recoveringSince;
+        if (elapsed >= slowStartNanos) {
+            recovering = false;
+            return 1;
+        }
+        return Math.max(0.1, (double) elapsed / slowStartNanos);
+    }
+
+    synchronized LoadBalancer.UpstreamStatistics statistics(long now, double decayNanos, long slowStartNanos) {
+        return new LoadBalancer.UpstreamStatistics(outstanding.get(), requests.sum(), failures.sum(),
+                ejected(now), ejections, weight(now, slowStartNanos), latency(now, decayNanos) / 1_000_000);
+    }
+}
@@ -0,0 +1,100 @@
+package com.folautech.restclient.bulkhead;
+
+import com.folautech.restclient.config.RestClientProperties;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed concurrency budget for one group of endpoints: {@code maxConcurrent} calls run, up to {@code maxQueue}
+ * more wait at most {@code maxWait} for a slot, and the rest are turned away at once. Calls in one bulkhead never
+ * wait on slots of another, so a slow endpoint only queues up its own callers.
+ */
+public class Bulkhead {
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+    private final int maxConnections;
+    private final Semaphore slots;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder queuedTotal = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final LongAdder rejectedQueueFull = new LongAdder();
+    private final LongAdder rejectedTimeout = new LongAdder();
+
+    public Bulkhead(String name, RestClientProperties.Compartment properties) {
+        if (properties.getMaxConcurrent() < 1) {
+            throw new IllegalArgumentException("Bulkhead " + name + ": maxConcurrent must be positive");
+        }
+        this.name = name;
+        this.maxConcurrent = properties.getMaxConcurrent();
+        this.maxQueue = Math.max(0, properties.getMaxQueue());
+        this.maxWaitNanos = properties.getMaxWait().toNanos();
+        this.maxConnections = properties.getMaxConnections();
+        this.slots = new Semaphore(maxConcurrent, true);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Takes a slot, waiting behind at most {@code maxQueue} other callers for up to {@code maxWait}; false if none
+     * was free in time or the queue was already full.
+     */
+    public boolean acquire() throws InterruptedException {
+        if (slots.tryAcquire()) {
+            admitted.increment();
+            return true;
+        }
+        if (queued.incrementAndGet() > maxQueue) {
+            queued.decrementAndGet();
+            rejectedQueueFull.increment();
+            return false;
+        }
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = slots.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } finally {
+            queued.decrementAndGet();
+            queuedTotal.increment();
+            queueWaitNanos.add(System.nanoTime() - start);
+        }
+        if (acquired) {
+            admitted.increment();
+        } else {
+            rejectedTimeout.increment();
+        }
+        return acquired;
+    }
+
+    public void release() {
+        slots.release();
+    }
+
+    public BulkheadStatistics getStatistics() {
+        int active = maxConcurrent - slots.availablePermits();
+        long waited = queuedTotal.sum();
+        return new BulkheadStatistics(maxConcurrent, active, (double) active / maxConcurrent, maxQueue, queued.get(),
+                maxConnections, admitted.sum(), waited,
+                waited == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(queueWaitNanos.sum() / waited),
+                rejectedQueueFull.sum(), rejectedTimeout.sum());
+    }
+
+    /**
+     * Configured limits, slots in use and callers waiting now ({@code utilization} = active / maxConcurrent), and since
+     * startup: calls admitted, calls that had to queue and their mean wait, and calls rejected because the queue was
+     * full or no slot freed up within {@code maxWait}. {@code maxConnections} 0 means the shared connection pool.
+     */
+    public record BulkheadStatistics(int maxConcurrent, int active, double utilization, int maxQueue, int queued,
+                                     int maxConnections, long admitted, long queuedCalls, long meanQueueWaitMicros,
+                                     long rejectedQueueFull, long rejectedTimeout) {
+    }
+}
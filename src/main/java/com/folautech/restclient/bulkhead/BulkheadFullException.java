@@ -0,0 +1,14 @@
+package com.folautech.restclient.bulkhead;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a call could not get a slot in its bulkhead within {@code maxWait}, or the bulkhead's wait queue
+ * was already full. RestClient surfaces it as a ResourceAccessException.
+ */
+public class BulkheadFullException extends IOException {
+
+    public BulkheadFullException(String bulkhead, int maxConcurrent) {
+        super("Bulkhead " + bulkhead + " is full (maxConcurrent=" + maxConcurrent + ")");
+    }
+}
@@ -0,0 +1,196 @@
+package com.folautech.restclient.bulkhead;
+
+import com.folautech.restclient.config.RestClientProperties;
+import com.folautech.restclient.metrics.ClientStatisticsContributor;
+import com.folautech.restclient.utility.CompiledUriTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.AntPathMatcher;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admits each call through the {@link Bulkhead} it belongs to. A call belongs to the bulkhead named in its
+ * {@link #ATTRIBUTE} request attribute, which service methods set explicitly; otherwise to the first bulkhead with a
+ * route matching its method and URI template (query excluded), e.g. {@code GET /users/*}. Calls matching no bulkhead
+ * pass straight through.
+ * <p>
+ * The slot is held until the response is closed, like a connection. The bulkhead's name is left under
+ * {@link #ATTRIBUTE} for the layers below: the concurrency limiter keeps a separate limit per bulkhead and
+ * {@link BulkheadRoutingRequestFactory} sends the call through the bulkhead's own connection pool.
+ */
+public class BulkheadInterceptor implements ClientHttpRequestInterceptor, ClientStatisticsContributor {
+
+    /**
+     * Request attribute holding the bulkhead name.
+     */
+    public static final String ATTRIBUTE = Bulkhead.class.getName();
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final Map<String, Bulkhead> bulkheads = new LinkedHashMap<>();
+    private final List<Route> routes = new ArrayList<>();
+
+    public BulkheadInterceptor(RestClientProperties.Bulkheads properties) {
+        properties.getInstances().forEach((name, compartment) -> {
+            bulkheads.put(name, new Bulkhead(name, compartment));
+            for (String route : compartment.getRoutes()) {
+                routes.add(Route.parse(route.trim(), name));
+            }
+        });
+    }
+
+    /**
+     * The bulkhead a request was admitted through, or null if it belongs to none.
+     */
+    public static String bulkheadOf(HttpRequest request) {
+        return request.getAttributes().get(ATTRIBUTE) instanceof String name ? name : null;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        Bulkhead bulkhead = resolve(request);
+        if (bulkhead == null) {
+            return execution.execute(request, body);
+        }
+        try {
+            if (!bulkhead.acquire()) {
+                throw new BulkheadFullException(bulkhead.getName(), bulkhead.getStatistics().maxConcurrent());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for a slot in bulkhead " + bulkhead.getName());
+        }
+        request.getAttributes().put(ATTRIBUTE, bulkhead.getName());
+
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException | RuntimeException e) {
+            bulkhead.release();
+            throw e;
+        }
+        return new SlotReleasingResponse(response, bulkhead);
+    }
+
+    Bulkhead resolve(HttpRequest request) {
+        String name = bulkheadOf(request);
+        if (name != null) {
+            Bulkhead named = bulkheads.get(name);
+            if (named != null) {
+                return named;
+            }
+        }
+        Object template = request.getAttributes().get(CompiledUriTemplate.ATTRIBUTE);
+        String path = template instanceof String uriTemplate ? pathOf(uriTemplate) : request.getURI().getRawPath();
+        for (Route route : routes) {
+            if (route.matches(request.getMethod(), path)) {
+                return bulkheads.get(route.bulkhead());
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String getStatisticsSection() {
+        return "bulkheads";
+    }
+
+    /**
+     * Saturation per bulkhead, in configuration order.
+     */
+    @Override
+    public Map<String, Bulkhead.BulkheadStatistics> getStatistics() {
+        Map<String, Bulkhead.BulkheadStatistics> statistics = new LinkedHashMap<>();
+        bulkheads.forEach((name, bulkhead) -> statistics.put(name, bulkhead.getStatistics()));
+        return statistics;
+    }
+
+    /**
+     * {@code https://host/posts?userId={userId}} -> {@code /posts}
+     */
+    static String pathOf(String template) {
+        int scheme = template.indexOf("://");
+        int start = scheme < 0 ? 0 : template.indexOf('/', scheme + 3);
+        if (start < 0) {
+            return "/";
+        }
+        int query = template.indexOf('?', start);
+        return template.substring(start, query < 0 ? template.length() : query);
+    }
+
+    /**
+     * {@code [METHOD ]pattern}; without a method the route matches every method.
+     */
+    private record Route(HttpMethod method, String pattern, String bulkhead) {
+
+        static Route parse(String route, String bulkhead) {
+            int space = route.indexOf(' ');
+            if (space < 0) {
+                return new Route(null, route, bulkhead);
+            }
+            return new Route(HttpMethod.valueOf(route.substring(0, space)), route.substring(space + 1).trim(),
+                    bulkhead);
+        }
+
+        boolean matches(HttpMethod requestMethod, String path) {
+            return (method == null || method.equals(requestMethod)) && PATH_MATCHER.match(pattern, path);
+        }
+    }
+
+    private static class SlotReleasingResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final Bulkhead bulkhead;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        SlotReleasingResponse(ClientHttpResponse delegate, Bulkhead bulkhead) {
+            this.delegate = delegate;
+            this.bulkhead = bulkhead;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    bulkhead.release();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.folautech.restclient.bulkhead;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.AbstractClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.FastByteArrayOutputStream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Map;
+
+/**
+ * Sends each call through the transport of the bulkhead {@link BulkheadInterceptor} admitted it to, so every
+ * bulkhead with a connection budget has a connection pool of its own and a heavy endpoint cannot hold the
+ * connections a fast one needs. Calls of other bulkheads, or of none, go through {@code defaultFactory}.
+ * <p>
+ * The bulkhead is only known from the request attributes, which RestClient fills in after creating the request, so
+ * the transport's request is created when the call executes; headers, attributes and body are handed over then.
+ */
+public class BulkheadRoutingRequestFactory implements ClientHttpRequestFactory {
+
+    private final ClientHttpRequestFactory defaultFactory;
+    private final Map<String, ClientHttpRequestFactory> factories;
+
+    public BulkheadRoutingRequestFactory(ClientHttpRequestFactory defaultFactory,
+                                         Map<String, ClientHttpRequestFactory> factories) {
+        this.defaultFactory = defaultFactory;
+        this.factories = Map.copyOf(factories);
+    }
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) {
+        return new RoutedRequest(uri, httpMethod);
+    }
+
+    private class RoutedRequest extends AbstractClientHttpRequest implements StreamingHttpOutputMessage {
+
+        private final URI uri;
+        private final HttpMethod method;
+        private FastByteArrayOutputStream buffered;
+        private Body body;
+
+        RoutedRequest(URI uri, HttpMethod method) {
+            this.uri = uri;
+            this.method = method;
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return method;
+        }
+
+        @Override
+        public URI getURI() {
+            return uri;
+        }
+
+        @Override
+        public void setBody(Body body) {
+            assertNotExecuted();
+            this.body = body;
+        }
+
+        @Override
+        protected OutputStream getBodyInternal(HttpHeaders headers) {
+            if (buffered == null) {
+                buffered = new FastByteArrayOutputStream(1024);
+            }
+            return buffered;
+        }
+
+        @Override
+        protected ClientHttpResponse executeInternal(HttpHeaders headers) throws IOException {
+            String bulkhead = getAttributes().get(BulkheadInterceptor.ATTRIBUTE) instanceof String name ? name : null;
+            ClientHttpRequestFactory factory = bulkhead == null ? defaultFactory
+                    : factories.getOrDefault(bulkhead, defaultFactory);
+            ClientHttpRequest delegate = factory.createRequest(uri, method);
+            delegate.getHeaders().putAll(headers);
+            delegate.getAttributes().putAll(getAttributes());
+            Body content = body != null ? body : buffered != null ? buffered::writeTo : null;
+            if (content != null) {
+                if (delegate instanceof StreamingHttpOutputMessage streaming) {
+                    streaming.setBody(content);
+                } else {
+                    content.writeTo(delegate.getBody());
+                }
+            }
+            return delegate.execute();
+        }
+    }
+}
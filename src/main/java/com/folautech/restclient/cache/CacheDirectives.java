@@ -0,0 +1,42 @@
+package com.folautech.restclient.cache;
+
+import org.springframework.util.StringUtils;
+
+import java.util.Locale;
+
+/**
+ * The parts of a Cache-Control header a private client cache acts on.
+ */
+record CacheDirectives(boolean noStore, boolean noCache, long maxAgeSeconds) {
+
+    static final long UNSET = -1;
+
+    static CacheDirectives parse(String cacheControl) {
+        boolean noStore = false;
+        boolean noCache = false;
+        long maxAge = UNSET;
+        if (!StringUtils.hasText(cacheControl)) {
+            return new CacheDirectives(false, false, UNSET);
+        }
+        for (String token : cacheControl.split(",")) {
+            String directive = token.trim().toLowerCase(Locale.ROOT);
+            if (directive.equals("no-store")) {
+                noStore = true;
+            } else if (directive.equals("no-cache") || directive.startsWith("no-cache=")) {
+                noCache = true;
+            } else if (directive.startsWith("max-age=")) {
+                maxAge = parseSeconds(directive.substring("max-age=".length()));
+            }
+        }
+        return new CacheDirectives(noStore, noCache, maxAge);
+    }
+
+    private static long parseSeconds(String value) {
+        try {
+            return Math.max(0, Long.parseLong(value.replace("\"", "").trim()));
+        } catch (NumberFormatException e) {
+            // RFC 9111: an invalid max-age makes the response stale
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.folautech.restclient.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+
+/**
+ * A stored response: status, headers and body bytes plus when it stops being fresh.
+ */
+class CachedResponse {
+
+    private final int status;
+    private final String statusText;
+    private final HttpHeaders headers;
+    private final byte[] body;
+    private final long expiresAt;
+    private final Map<String, String> varyValues;
+
+    CachedResponse(int status, String statusText, HttpHeaders headers, byte[] body, long expiresAt,
+                   Map<String, String> varyValues) {
+        this.status = status;
+        this.statusText = statusText;
+        this.headers = HttpHeaders.readOnlyHttpHeaders(HttpHeaders.copyOf(headers));
+        this.body = body;
+        this.expiresAt = expiresAt;
+        this.varyValues = varyValues;
+    }
+
+    boolean isFresh(long now) {
+        return now < expiresAt;
+    }
+
+    boolean isNotFound() {
+        return status == 404;
+    }
+
+    boolean hasValidators() {
+        return headers.getETag() != null || headers.getLastModified() != -1;
+    }
+
+    /**
+     * Adds If-None-Match / If-Modified-Since for this entry to an outgoing request's headers.
+     */
+    void addConditionalHeaders(HttpHeaders requestHeaders) {
+        String etag = headers.getETag();
+        if (etag != null) {
+            requestHeaders.setIfNoneMatch(etag);
+        }
+        long lastModified = headers.getLastModified();
+        if (lastModified != -1) {
+            requestHeaders.setIfModifiedSince(lastModified);
+        }
+    }
+
+    boolean matchesVary(HttpRequest request) {
+        for (Map.Entry<String, String> entry : varyValues.entrySet()) {
+            if (!Objects.equals(entry.getValue(), joined(request.getHeaders().get(entry.getKey())))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Applies the headers of a 304 to this entry (RFC 9111 4.3.4) and restarts its freshness.
+     */
+    CachedResponse refresh(HttpHeaders notModifiedHeaders, ToLongFunction<HttpHeaders> expiresAt) {
+        HttpHeaders merged = HttpHeaders.copyOf(headers);
+        notModifiedHeaders.forEach((name, values) -> {
+            if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                merged.put(name, values);
+            }
+        });
+        return new CachedResponse(status, statusText, merged, body, expiresAt.applyAsLong(merged), varyValues);
+    }
+
+    HttpHeaders getHeaders() {
+        return headers;
+    }
+
+    long getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * Binary form used by {@link ResponseStore}; the expiry time is written by the store itself.
+     */
+    void writeTo(DataOutput out) throws IOException {
+        out.writeShort(status);
+        out.writeUTF(statusText);
+        List<Map.Entry<String, List<String>>> entries = new ArrayList<>(headers.headerSet());
+        out.writeShort(entries.size());
+        for (Map.Entry<String, List<String>> entry : entries) {
+            out.writeUTF(entry.getKey());
+            out.writeShort(entry.getValue().size());
+            for (String value : entry.getValue()) {
+                out.writeUTF(value);
+            }
+        }
+        out.writeShort(varyValues.size());
+        for (Map.Entry<String, String> entry : varyValues.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeBoolean(entry.getValue() != null);
+            if (entry.getValue() != null) {
+                out.writeUTF(entry.getValue());
+            }
+        }
+        out.writeInt(body.length);
+        out.write(body);
+    }
+
+    static CachedResponse readFrom(DataInput in, long expiresAt) throws IOException {
+        int status = in.readUnsignedShort();
+        String statusText = in.readUTF();
+        HttpHeaders headers = new HttpHeaders();
+        for (int i = in.readUnsignedShort(); i > 0; i--) {
+            String name = in.readUTF();
+            List<String> values = new ArrayList<>();
+            for (int j = in.readUnsignedShort(); j > 0; j--) {
+                values.add(in.readUTF());
+            }
+            headers.put(name, values);
+        }
+        Map<String, String> varyValues = new LinkedHashMap<>();
+        for (int i = in.readUnsignedShort(); i > 0; i--) {
+            String name = in.readUTF();
+            varyValues.put(name, in.readBoolean() ? in.readUTF() : null);
+        }
+        byte[] body = new byte[in.readInt()];
+        in.readFully(body);
+        return new CachedResponse(status, statusText, headers, body, expiresAt, varyValues);
+    }
+
+    int weight() {
+        return body.length + 256;
+    }
+
+    ClientHttpResponse toResponse() {
+        return new ClientHttpResponse() {
+            @Override
+            public HttpStatusCode getStatusCode() {
+                return HttpStatusCode.valueOf(status);
+            }
+
+            @Override
+            public String getStatusText() {
+                return statusText;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+
+            @Override
+            public InputStream getBody() {
+                return new ByteArrayInputStream(body);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    static String joined(List<String> values) {
+        return values == null ? null : String.join(",", values);
+    }
+}
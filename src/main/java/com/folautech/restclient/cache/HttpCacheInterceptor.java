@@ -0,0 +1,329 @@
+package com.folautech.restclient.cache;
+
+import com.folautech.restclient.config.RestClientProperties;
+import com.folautech.restclient.metrics.ClientStatisticsContributor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.support.HttpRequestWrapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Private HTTP cache for idempotent GETs, following RFC 9111 closely enough for a REST client:
+ * <ul>
+ *     <li>freshness from Cache-Control max-age (minus Age), then Expires, then a Last-Modified heuristic</li>
+ *     <li>stale entries are revalidated with If-None-Match / If-Modified-Since; a 304 refreshes the entry</li>
+ *     <li>404s are remembered for {@code negativeTtl}</li>
+ *     <li>no-store is honoured on both request and response; Vary is matched on lookup</li>
+ *     <li>a successful POST, PUT, PATCH or DELETE drops the entries for its URI and its Location</li>
+ * </ul>
+ * Entries are keyed on URI and Accept and live in a Caffeine cache bounded by total body bytes
+ * (W-TinyLFU eviction). With a {@link ResponseStore} every stored entry is also written to disk, and misses
+ * in memory fall back to it, so a restarted node serves from where it left off.
+ */
+public class HttpCacheInterceptor implements ClientHttpRequestInterceptor, ClientStatisticsContributor {
+
+    private final Cache<String, CachedResponse> store;
+    private final long maxEntryBytes;
+    private final Duration negativeTtl;
+    private final Duration defaultTtl;
+    private final ResponseStore persistentStore;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder persistentHits = new LongAdder();
+
+    public HttpCacheInterceptor(RestClientProperties.Cache properties) {
+        this(properties, null);
+    }
+
+    public HttpCacheInterceptor(RestClientProperties.Cache properties, ResponseStore persistentStore) {
+        this.store = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((String key, CachedResponse value) -> value.weight())
+                .recordStats()
+                .build();
+        this.maxEntryBytes = properties.getMaxEntrySize().toBytes();
+        this.negativeTtl = properties.getNegativeTtl();
+        this.defaultTtl = properties.getDefaultTtl();
+        this.persistentStore = persistentStore;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        HttpHeaders requestHeaders = request.getHeaders();
+        CacheDirectives requestDirectives = CacheDirectives.parse(requestHeaders.getCacheControl());
+        if (!isSafe(request.getMethod())) {
+            ClientHttpResponse response = execution.execute(request, body);
+            if (!response.getStatusCode().isError()) {
+                invalidate(request.getURI(), response.getHeaders());
+            }
+            return response;
+        }
+        if (request.getMethod() != HttpMethod.GET || requestDirectives.noStore()
+                || requestHeaders.containsHeader(HttpHeaders.IF_NONE_MATCH)
+                || requestHeaders.containsHeader(HttpHeaders.IF_MODIFIED_SINCE)) {
+            return execution.execute(request, body);
+        }
+
+        String key = request.getURI() + " " + CachedResponse.joined(requestHeaders.get(HttpHeaders.ACCEPT));
+        CachedResponse cached = lookup(key);
+        if (cached != null && !cached.matchesVary(request)) {
+            cached = null;
+        }
+
+        long now = System.currentTimeMillis();
+        if (cached != null && cached.isFresh(now) && !requestDirectives.noCache()) {
+            hits.increment();
+            if (cached.isNotFound()) {
+                negativeHits.increment();
+            }
+            return cached.toResponse();
+        }
+
+        if (cached == null || !cached.hasValidators()) {
+            misses.increment();
+            return storeIfCacheable(key, request, execution.execute(request, body));
+        }
+
+        HttpHeaders conditionalHeaders = HttpHeaders.copyOf(requestHeaders);
+        cached.addConditionalHeaders(conditionalHeaders);
+        ClientHttpResponse response = execution.execute(new HttpRequestWrapper(request) {
+            @Override
+            public HttpHeaders getHeaders() {
+                return conditionalHeaders;
+            }
+        }, body);
+
+        if (response.getStatusCode().value() == 304) {
+            revalidations.increment();
+            try (response) {
+                CachedResponse refreshed = cached.refresh(response.getHeaders(),
+                        merged -> now + freshnessLifetime(200, merged, now).toMillis());
+                put(key, refreshed);
+                return refreshed.toResponse();
+            }
+        }
+        misses.increment();
+        return storeIfCacheable(key, request, response);
+    }
+
+    @Override
+    public String getStatisticsSection() {
+        return "cache";
+    }
+
+    @Override
+    public CacheStatistics getStatistics() {
+        return new CacheStatistics(hits.sum(), misses.sum(), revalidations.sum(), negativeHits.sum(),
+                persistentHits.sum(), store.stats().evictionCount(), store.estimatedSize());
+    }
+
+    public void invalidateAll() {
+        store.invalidateAll();
+        if (persistentStore != null) {
+            persistentStore.clear();
+        }
+    }
+
+    /**
+     * RFC 9111 4.4: a successful unsafe request invalidates every entry for its target URI, and for the Location
+     * and Content-Location of the response when they are on the same host.
+     */
+    private void invalidate(URI target, HttpHeaders responseHeaders) {
+        invalidate(target);
+        for (String name : List.of(HttpHeaders.LOCATION, HttpHeaders.CONTENT_LOCATION)) {
+            String location = responseHeaders.getFirst(name);
+            if (location == null) {
+                continue;
+            }
+            try {
+                URI resolved = target.resolve(location.trim());
+                if (Objects.equals(resolved.getAuthority(), target.getAuthority())) {
+                    invalidate(resolved);
+                }
+            } catch (IllegalArgumentException e) {
+                // not a URI; nothing to invalidate
+            }
+        }
+    }
+
+    private void invalidate(URI uri) {
+        // keys are "uri accept", so every representation of the URI shares this prefix
+        String prefix = uri + " ";
+        store.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+        if (persistentStore != null) {
+            persistentStore.removeAll(prefix);
+        }
+    }
+
+    private static boolean isSafe(HttpMethod method) {
+        return method == HttpMethod.GET || method == HttpMethod.HEAD || method == HttpMethod.OPTIONS
+                || method == HttpMethod.TRACE;
+    }
+
+    private CachedResponse lookup(String key) {
+        CachedResponse cached = store.getIfPresent(key);
+        if (cached == null && persistentStore != null) {
+            cached = persistentStore.get(key);
+            if (cached != null) {
+                persistentHits.increment();
+                store.put(key, cached);
+            }
+        }
+        return cached;
+    }
+
+    private void put(String key, CachedResponse entry) {
+        store.put(key, entry);
+        if (persistentStore != null) {
+            persistentStore.put(key, entry);
+        }
+    }
+
+    private ClientHttpResponse storeIfCacheable(String key, HttpRequest request, ClientHttpResponse response)
+            throws IOException {
+        int status = response.getStatusCode().value();
+        HttpHeaders headers = response.getHeaders();
+        if ((status != 200 && status != 404)
+                || CacheDirectives.parse(headers.getCacheControl()).noStore()
+                || headers.getVary().contains("*")
+                || headers.getContentLength() > maxEntryBytes) {
+            return response;
+        }
+
+        long now = System.currentTimeMillis();
+        Duration lifetime = freshnessLifetime(status, headers, now);
+        boolean validators = headers.getETag() != null || headers.getLastModified() != -1;
+        if (lifetime.isZero() && (!validators || status == 404)) {
+            return response;
+        }
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        InputStream in = response.getBody();
+        byte[] chunk = new byte[8192];
+        int n;
+        while ((n = in.read(chunk)) != -1) {
+            buffer.write(chunk, 0, n);
+            if (buffer.size() > maxEntryBytes) {
+                // too big to keep: hand back what was read followed by the rest of the stream
+                return new ReplayResponse(response, new SequenceInputStream(
+                        new ByteArrayInputStream(buffer.toByteArray()), in));
+            }
+        }
+
+        CachedResponse entry = new CachedResponse(status, response.getStatusText(), headers, buffer.toByteArray(),
+                now + lifetime.toMillis(), varyValues(headers, request));
+        response.close();
+        put(key, entry);
+        return entry.toResponse();
+    }
+
+    private Duration freshnessLifetime(int status, HttpHeaders headers, long now) {
+        if (status == 404) {
+            return negativeTtl;
+        }
+        CacheDirectives directives = CacheDirectives.parse(headers.getCacheControl());
+        if (directives.noCache()) {
+            return Duration.ZERO;
+        }
+        if (directives.maxAgeSeconds() != CacheDirectives.UNSET) {
+            long age = ageSeconds(headers);
+            return Duration.ofSeconds(Math.max(0, directives.maxAgeSeconds() - age));
+        }
+        long date = headers.getDate() != -1 ? headers.getDate() : now;
+        if (headers.getExpires() != -1) {
+            return Duration.ofMillis(Math.max(0, headers.getExpires() - date));
+        }
+        if (headers.getLastModified() != -1) {
+            // RFC 9111 4.2.2 heuristic: 10% of the time since last modification
+            return Duration.ofMillis(Math.max(0, (date - headers.getLastModified()) / 10));
+        }
+        return defaultTtl;
+    }
+
+    private static long ageSeconds(HttpHeaders headers) {
+        String age = headers.getFirst(HttpHeaders.AGE);
+        if (age == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(age.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static Map<String, String> varyValues(HttpHeaders responseHeaders, HttpRequest request) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String name : responseHeaders.getVary()) {
+            values.put(name, CachedResponse.joined(request.getHeaders().get(name)));
+        }
+        return values;
+    }
+
+    /**
+     * Snapshot of cache effectiveness. {@code negativeHits} is the subset of {@code hits} served from a cached 404;
+     * {@code persistentLoads} counts entries read back from the {@link ResponseStore} after missing in memory.
+     */
+    public record CacheStatistics(long hits, long misses, long revalidations, long negativeHits,
+                                  long persistentLoads, long evictions, long entries) {
+    }
+
+    private static class ReplayResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final InputStream body;
+
+        ReplayResponse(ClientHttpResponse delegate, InputStream body) {
+            this.delegate = delegate;
+            this.body = body;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
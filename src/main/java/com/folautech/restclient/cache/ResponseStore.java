@@ -0,0 +1,393 @@
+package com.folautech.restclient.cache;
+
+import com.folautech.restclient.config.RestClientProperties;
+import com.folautech.restclient.metrics.ClientStatisticsContributor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Second-level store for {@link HttpCacheInterceptor} that survives restarts: an append-only log in a
+ * memory-mapped file plus an in-memory index of key to record offset.
+ * <p>
+ * Each record is {@code magic, length, crc32c, payload}; the payload starts with the record type, expiry and
+ * key so the index can be rebuilt without decoding bodies, and a removal is a record with no body. On startup the
+ * file is scanned on a background thread and the first torn or corrupt record ends the log; callers block until
+ * the scan is done, and bodies are only decoded when a key is read. Superseded and removed records, and expired
+ * ones that cannot be revalidated, are dropped by a background compaction that rewrites the live records into a
+ * fresh file and swaps it in.
+ */
+@Slf4j
+public class ResponseStore implements AutoCloseable, ClientStatisticsContributor {
+
+    private static final String FILE_NAME = "responses.log";
+    private static final int MAGIC = 0x52435331;
+    private static final int HEADER_BYTES = 12;
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+
+    private final Path file;
+    private final int capacity;
+    private final double compactionThreshold;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object appendLock = new Object();
+    private final ConcurrentHashMap<String, Integer> index = new ConcurrentHashMap<>();
+    private final CompletableFuture<Void> loaded;
+    private final ScheduledExecutorService compactor;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int writePosition;
+    private long garbageBytes;
+
+    private final LongAdder corrupted = new LongAdder();
+    private final LongAdder compactions = new LongAdder();
+    private final LongAdder skippedWrites = new LongAdder();
+
+    public ResponseStore(RestClientProperties.Store properties) throws IOException {
+        Files.createDirectories(properties.getDirectory());
+        this.file = properties.getDirectory().resolve(FILE_NAME);
+        this.capacity = (int) Math.min(Integer.MAX_VALUE, properties.getMaxFileSize().toBytes());
+        this.compactionThreshold = properties.getCompactionThreshold();
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+
+        this.compactor = Executors.newSingleThreadScheduledExecutor(runnable ->
+                Thread.ofPlatform().name("rest-client-store").daemon().unstarted(runnable));
+        this.loaded = CompletableFuture.runAsync(this::scan, compactor);
+        long interval = properties.getCompactionInterval().toMillis();
+        if (interval > 0) {
+            compactor.scheduleWithFixedDelay(this::compactIfWorthIt, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * The stored response for {@code key}, or null if there is none or its record fails the checksum.
+     */
+    CachedResponse get(String key) {
+        awaitLoaded();
+        lock.readLock().lock();
+        try {
+            Integer offset = index.get(key);
+            if (offset == null) {
+                return null;
+            }
+            byte[] payload = payload(offset);
+            if (payload == null) {
+                corrupted.increment();
+                index.remove(key, offset);
+                return null;
+            }
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+            byte type = in.readByte();
+            long expiresAt = in.readLong();
+            if (type != PUT || !in.readUTF().equals(key)) {
+                // an intact record, but not this key's: the index is wrong, so never serve it
+                corrupted.increment();
+                index.remove(key, offset);
+                return null;
+            }
+            return CachedResponse.readFrom(in, expiresAt);
+        } catch (IOException e) {
+            corrupted.increment();
+            index.remove(key);
+            return null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void put(String key, CachedResponse response) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(response.weight());
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(PUT);
+            out.writeLong(response.getExpiresAt());
+            out.writeUTF(key);
+            response.writeTo(out);
+        } catch (IOException e) {
+            // only UTFDataFormatException for a header value over 64KB; such a response is simply not persisted
+            skippedWrites.increment();
+            return;
+        }
+        append(key, bytes.toByteArray(), PUT);
+    }
+
+    /**
+     * Drops every entry whose key starts with {@code prefix}. A removal record is appended for each, so the
+     * entries stay gone after a restart.
+     */
+    void removeAll(String prefix) {
+        awaitLoaded();
+        for (String key : index.keySet()) {
+            if (!key.startsWith(prefix)) {
+                continue;
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeByte(REMOVE);
+                out.writeLong(0);
+                out.writeUTF(key);
+            } catch (IOException e) {
+                // a key that was written once always fits
+                continue;
+            }
+            append(key, bytes.toByteArray(), REMOVE);
+        }
+    }
+
+    void clear() {
+        awaitLoaded();
+        lock.writeLock().lock();
+        try {
+            index.clear();
+            buffer.putInt(0, 0);
+            writePosition = 0;
+            garbageBytes = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rewrites the live records into a new file if enough of the current one is garbage.
+     */
+    public void compactIfWorthIt() {
+        awaitLoaded();
+        lock.readLock().lock();
+        boolean worthIt;
+        try {
+            synchronized (appendLock) {
+                worthIt = writePosition > 0 && (double) garbageBytes / writePosition >= compactionThreshold;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (worthIt) {
+            compact();
+        }
+    }
+
+    @Override
+    public String getStatisticsSection() {
+        return "cacheStore";
+    }
+
+    @Override
+    public StoreStatistics getStatistics() {
+        lock.readLock().lock();
+        try {
+            synchronized (appendLock) {
+                return new StoreStatistics(index.size(), writePosition, garbageBytes, capacity,
+                        compactions.sum(), corrupted.sum(), skippedWrites.sum());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void append(String key, byte[] payload, byte type) {
+        awaitLoaded();
+        int size = HEADER_BYTES + payload.length;
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        lock.readLock().lock();
+        try {
+            synchronized (appendLock) {
+                // keep room for the terminating zero after the last record
+                if (writePosition + size + 4 > capacity) {
+                    skippedWrites.increment();
+                    if (type == REMOVE) {
+                        // no room for the removal record: at least stop serving the entry until a restart
+                        index.remove(key);
+                    }
+                    compactor.execute(this::compactIfWorthIt);
+                    return;
+                }
+                int offset = writePosition;
+                buffer.put(offset + HEADER_BYTES, payload);
+                buffer.putInt(offset + 4, payload.length);
+                buffer.putInt(offset + 8, (int) crc.getValue());
+                buffer.putInt(offset + size, 0);
+                // magic last; anything the page cache flushed out of order on a crash fails the checksum
+                buffer.putInt(offset, MAGIC);
+                writePosition += size;
+
+                Integer previous = type == PUT ? index.put(key, offset) : index.remove(key);
+                if (previous != null) {
+                    garbageBytes += HEADER_BYTES + buffer.getInt(previous + 4);
+                }
+                if (type == REMOVE) {
+                    garbageBytes += size;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Payload of the record at {@code offset}, or null if it is not intact.
+     */
+    private byte[] payload(int offset) {
+        if (offset + HEADER_BYTES > capacity || buffer.getInt(offset) != MAGIC) {
+            return null;
+        }
+        int length = buffer.getInt(offset + 4);
+        if (length < 0 || offset + HEADER_BYTES + length > capacity) {
+            return null;
+        }
+        byte[] payload = new byte[length];
+        buffer.get(offset + HEADER_BYTES, payload);
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        return (int) crc.getValue() == buffer.getInt(offset + 8) ? payload : null;
+    }
+
+    private void scan() {
+        long now = System.currentTimeMillis();
+        int offset = 0;
+        while (true) {
+            byte[] payload = payload(offset);
+            if (payload == null) {
+                break;
+            }
+            int size = HEADER_BYTES + payload.length;
+            try {
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+                byte type = in.readByte();
+                if (type != PUT && type != REMOVE) {
+                    break;
+                }
+                in.readLong();
+                String key = in.readUTF();
+                Integer previous = type == PUT ? index.put(key, offset) : index.remove(key);
+                if (previous != null) {
+                    garbageBytes += HEADER_BYTES + buffer.getInt(previous + 4);
+                }
+                if (type == REMOVE) {
+                    garbageBytes += size;
+                }
+            } catch (IOException e) {
+                break;
+            }
+            offset += size;
+        }
+        writePosition = offset;
+        buffer.putInt(offset, 0);
+        log.info("Response store {}: {} entries, {} bytes ({} ms)", file, index.size(), writePosition,
+                System.currentTimeMillis() - now);
+    }
+
+    private void compact() {
+        Path compacted = file.resolveSibling(FILE_NAME + ".compact");
+        lock.writeLock().lock();
+        FileChannel newChannel = null;
+        try {
+            long now = System.currentTimeMillis();
+            newChannel = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer newBuffer = newChannel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            // the live index keeps pointing into the current file until the new one has replaced it
+            Map<String, Integer> offsets = new HashMap<>();
+            int position = 0;
+            int dropped = 0;
+            for (Map.Entry<String, Integer> entry : index.entrySet()) {
+                int offset = entry.getValue();
+                byte[] payload = payload(offset);
+                if (payload == null || expiredWithoutValidators(payload, now)) {
+                    dropped++;
+                    continue;
+                }
+                newBuffer.put(position, buffer, offset, HEADER_BYTES + payload.length);
+                offsets.put(entry.getKey(), position);
+                position += HEADER_BYTES + payload.length;
+            }
+            newBuffer.putInt(position, 0);
+            newBuffer.force();
+            Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            int before = writePosition;
+            channel.close();
+            channel = newChannel;
+            newChannel = null;
+            buffer = newBuffer;
+            index.clear();
+            index.putAll(offsets);
+            writePosition = position;
+            garbageBytes = 0;
+            compactions.increment();
+            log.info("Compacted response store {}: {} -> {} bytes, {} entries dropped", file, before, position,
+                    dropped);
+        } catch (IOException e) {
+            log.warn("Exception msg: {}", e.getMessage());
+        } finally {
+            if (newChannel != null) {
+                try {
+                    newChannel.close();
+                } catch (IOException e) {
+                    log.warn("Exception msg: {}", e.getMessage());
+                }
+            }
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static boolean expiredWithoutValidators(byte[] payload, long now) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        in.readByte();
+        long expiresAt = in.readLong();
+        if (expiresAt > now) {
+            return false;
+        }
+        in.readUTF();
+        // an expired entry is still worth keeping if it can be revalidated with a 304
+        return !CachedResponse.readFrom(in, expiresAt).hasValidators();
+    }
+
+    private void awaitLoaded() {
+        loaded.join();
+    }
+
+    @Override
+    public void close() {
+        compactor.shutdownNow();
+        lock.writeLock().lock();
+        try {
+            buffer.force();
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Exception msg: {}", e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Snapshot of the store file: live entries, bytes written, how many of them are garbage, and totals of
+     * compactions, records that failed their checksum, and writes skipped because the file was full.
+     */
+    public record StoreStatistics(int entries, long usedBytes, long garbageBytes, long capacityBytes,
+                                  long compactions, long corrupted, long skippedWrites) {
+    }
+}
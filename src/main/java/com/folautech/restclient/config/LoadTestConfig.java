@@ -0,0 +1,31 @@
+package com.folautech.restclient.config;
+
+import com.folautech.restclient.load.LoadDriver;
+import com.folautech.restclient.load.StubUpstreamServer;
+import com.folautech.restclient.service.JsonPlaceholderService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+
+/**
+ * Capacity-testing beans, off unless enabled (run with {@code --spring.profiles.active=load}).
+ */
+@Configuration
+public class LoadTestConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "restclient.stub", name = "enabled", havingValue = "true")
+    public StubUpstreamServer stubUpstreamServer(RestClientProperties properties, JsonMapper jsonMapper)
+            throws IOException {
+        return new StubUpstreamServer(properties.getStub(), jsonMapper);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "restclient.load", name = "enabled", havingValue = "true")
+    public LoadDriver loadDriver(JsonPlaceholderService jsonPlaceholderService, RestClientProperties properties) {
+        return new LoadDriver(jsonPlaceholderService, properties.getLoad());
+    }
+}
@@ -1,41 +1,242 @@
 package com.folautech.restclient.config;
 
+import com.folautech.restclient.balance.LoadBalancer;
+import com.folautech.restclient.balance.LoadBalancingInterceptor;
+import com.folautech.restclient.bulkhead.BulkheadInterceptor;
+import com.folautech.restclient.bulkhead.BulkheadRoutingRequestFactory;
+import com.folautech.restclient.cache.HttpCacheInterceptor;
+import com.folautech.restclient.cache.ResponseStore;
+import com.folautech.restclient.limit.ConcurrencyLimitInterceptor;
+import com.folautech.restclient.metrics.ClientMetricsRegistry;
+import com.folautech.restclient.metrics.ClientStatisticsContributor;
+import com.folautech.restclient.metrics.MetricsInterceptor;
+import com.folautech.restclient.metrics.MetricsLogReporter;
+import com.folautech.restclient.metrics.RestClientMetricsEndpoint;
+import com.folautech.restclient.replica.PostReplica;
+import com.folautech.restclient.resilience.ResilienceInterceptor;
+import com.folautech.restclient.transport.BinaryFormat;
+import com.folautech.restclient.transport.CompressionInterceptor;
+import com.folautech.restclient.transport.ContentNegotiationInterceptor;
+import com.folautech.restclient.transport.HttpTransportFactory;
+import com.folautech.restclient.transport.StreamingInterceptingRequestFactory;
+import com.folautech.restclient.transport.TimingRequestFactory;
+import com.folautech.restclient.utility.BufferPool;
 import com.folautech.restclient.utility.RestClientLog;
+import com.folautech.restclient.utility.SingleFlight;
+import com.folautech.restclient.utility.SlowCallLog;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.BufferingClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.http.client.ClientHttpResponse;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.converter.json.JacksonJsonHttpMessageConverter;
 import org.springframework.web.client.RestClient;
+import tools.jackson.databind.json.JsonMapper;
 
 import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
-import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 @Configuration
+@EnableConfigurationProperties(RestClientProperties.class)
 public class RestClientConfig {
 
     private static final Logger log = LoggerFactory.getLogger(RestClientConfig.class);
 
     @Bean
-    public RestClient restClient() {
-        // Create request factory with timeout settings
-        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
-        requestFactory.setConnectTimeout(Duration.ofSeconds(5));  // Connection timeout
-        requestFactory.setReadTimeout(Duration.ofSeconds(10));    // Read timeout
+    public RestClientLog restClientLog(RestClientProperties properties) {
+        return new RestClientLog(properties.getLogging());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "restclient.timing", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public SlowCallLog slowCallLog(RestClientProperties properties) {
+        return new SlowCallLog(properties.getTiming());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "restclient.streaming", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public BufferPool requestBufferPool(RestClientProperties properties) {
+        RestClientProperties.Streaming streaming = properties.getStreaming();
+        return new BufferPool((int) streaming.getBufferSize().toBytes(), streaming.getMaxPooledBuffers());
+    }
+
+    @Bean
+    public ExecutorService restClientExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @Bean
+    public SingleFlight singleFlight(RestClientProperties properties) {
+        return new SingleFlight(properties.getCoalescing().isEnabled());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "restclient.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public HttpCacheInterceptor httpCacheInterceptor(RestClientProperties properties,
+                                                     ObjectProvider<ResponseStore> responseStore) {
+        return new HttpCacheInterceptor(properties.getCache(), responseStore.getIfAvailable());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "restclient.cache.store", name = "enabled", havingValue = "true")
+    public ResponseStore responseStore(RestClientProperties properties) throws IOException {
+        return new ResponseStore(properties.getCache().getStore());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "restclient.resilience", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public ResilienceInterceptor resilienceInterceptor(RestClientProperties properties) {
+        return new ResilienceInterceptor(properties.getResilience());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "restclient.bulkheads", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public BulkheadInterceptor bulkheadInterceptor(RestClientProperties properties) {
+        return new BulkheadInterceptor(properties.getBulkheads());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "restclient.balancer", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public LoadBalancingInterceptor loadBalancingInterceptor(RestClientProperties properties) {
+        RestClientProperties.Balancer balancer = properties.getBalancer();
+        return new LoadBalancingInterceptor(properties.getBaseUrl(),
+                balancer.getUpstreams().isEmpty() ? null : new LoadBalancer(balancer));
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "restclient.limiter", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public ConcurrencyLimitInterceptor concurrencyLimitInterceptor(RestClientProperties properties) {
+        return new ConcurrencyLimitInterceptor(properties.getLimiter());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "restclient.compression", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public CompressionInterceptor compressionInterceptor(RestClientProperties properties) {
+        return new CompressionInterceptor(properties.getCompression());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "restclient.codec", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public ContentNegotiationInterceptor contentNegotiationInterceptor(RestClientProperties properties) {
+        return new ContentNegotiationInterceptor(properties.getCodec());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "restclient.replica", name = "enabled", havingValue = "true")
+    public PostReplica postReplica(RestClient restClient, RestClientProperties properties) {
+        return new PostReplica(PostReplica.loader(restClient, properties.getBaseUrl()), properties.getReplica());
+    }
+
+    @Bean
+    public ClientMetricsRegistry clientMetricsRegistry(RestClientProperties properties) {
+        RestClientProperties.Metrics metrics = properties.getMetrics();
+        return new ClientMetricsRegistry(metrics.getMaxLatency().toMillis(), metrics.getMaxSeries());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "restclient.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public MetricsInterceptor metricsInterceptor(ClientMetricsRegistry clientMetricsRegistry) {
+        return new MetricsInterceptor(clientMetricsRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "restclient.metrics", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public MetricsLogReporter metricsLogReporter(ClientMetricsRegistry clientMetricsRegistry,
+                                                 RestClientProperties properties) {
+        return new MetricsLogReporter(clientMetricsRegistry, properties.getMetrics().getLogInterval());
+    }
+
+    @Bean
+    public RestClientMetricsEndpoint restClientMetricsEndpoint(ClientMetricsRegistry clientMetricsRegistry,
+                                                               ObjectProvider<ClientStatisticsContributor> contributors) {
+        return new RestClientMetricsEndpoint(clientMetricsRegistry, contributors);
+    }
+
+    @Bean
+    public RestClient restClient(RestClientProperties properties, RestClientLog restClientLog, JsonMapper jsonMapper,
+                                 ObjectProvider<HttpCacheInterceptor> httpCacheInterceptor,
+                                 ObjectProvider<ResilienceInterceptor> resilienceInterceptor,
+                                 ObjectProvider<BulkheadInterceptor> bulkheadInterceptor,
+                                 ObjectProvider<LoadBalancingInterceptor> loadBalancingInterceptor,
+                                 ObjectProvider<ConcurrencyLimitInterceptor> concurrencyLimitInterceptor,
+                                 ObjectProvider<ContentNegotiationInterceptor> contentNegotiationInterceptor,
+                                 ObjectProvider<CompressionInterceptor> compressionInterceptor,
+                                 ObjectProvider<MetricsInterceptor> metricsInterceptor,
+                                 ObjectProvider<SlowCallLog> slowCallLog,
+                                 ObjectProvider<BufferPool> requestBufferPool) {
+        // Create pooled request factory with timeout settings (see restclient.transport.*)
+        HttpTransportFactory transportFactory = new HttpTransportFactory(properties.getTransport());
+        ClientHttpRequestFactory requestFactory = transportFactory.create();
+        if (bulkheadInterceptor.getIfAvailable() != null) {
+            // a connection pool per bulkhead with a connection budget; the rest share the default one
+            Map<String, ClientHttpRequestFactory> slices = new LinkedHashMap<>();
+            properties.getBulkheads().getInstances().forEach((name, compartment) -> {
+                if (compartment.getMaxConnections() > 0) {
+                    slices.put(name, transportFactory.create(compartment.getMaxConnections()));
+                }
+            });
+            if (!slices.isEmpty()) {
+                requestFactory = new BulkheadRoutingRequestFactory(requestFactory, slices);
+            }
+        }
+        SlowCallLog slowCalls = slowCallLog.getIfAvailable();
+        if (slowCalls != null) {
+            // outermost, so the per-host connection queue shows up as its own phase
+            requestFactory = new TimingRequestFactory(requestFactory, slowCalls);
+        }
+
+        // Interceptors run in list order: cache hits never reach metrics, the log or the network,
+        // so the latency histograms describe the upstream; each retry or hedge is recorded separately.
+        // The log sits above compression and sees decoded bodies; metrics sit below it and count
+        // bytes on the wire. The balancer sits below resilience, so each retry or hedge picks a replica
+        // again, and above the limiter, which then limits per replica. Media-type negotiation sits
+        // below the log, like content-coding, so a 406 fallback is one logged exchange. Bulkheads sit
+        // below resilience, so every attempt takes a slot, and above the balancer, so queued calls hold no replica
+        List<ClientHttpRequestInterceptor> interceptors = new ArrayList<>();
+        httpCacheInterceptor.ifAvailable(interceptors::add);
+        resilienceInterceptor.ifAvailable(interceptors::add);
+        bulkheadInterceptor.ifAvailable(interceptors::add);
+        loadBalancingInterceptor.ifAvailable(interceptors::add);
+        concurrencyLimitInterceptor.ifAvailable(interceptors::add);
+        interceptors.add(restClientLog);
+        contentNegotiationInterceptor.ifAvailable(interceptors::add);
+        compressionInterceptor.ifAvailable(interceptors::add);
+        metricsInterceptor.ifAvailable(interceptors::add);
 
-        // Wrap with BufferingClientHttpRequestFactory to allow reading response body multiple times
-        BufferingClientHttpRequestFactory bufferingFactory =
-            new BufferingClientHttpRequestFactory(requestFactory);
+        BufferPool bufferPool = requestBufferPool.getIfAvailable();
+        if (bufferPool != null) {
+            // outermost, in place of the builder's interceptors, which would copy every request body into a byte[]
+            requestFactory = new StreamingInterceptingRequestFactory(requestFactory, interceptors, bufferPool);
+        }
 
+        // No BufferingClientHttpRequestFactory: RestClientLog tees a bounded prefix of the body as it streams
         return RestClient.builder()
-                .requestFactory(bufferingFactory)
-                .requestInterceptor(new RestClientLog(true))
+                .requestFactory(requestFactory)
+                // the application's JsonMapper, so serializers built during warm-up are the ones calls use;
+                // Smile and CBOR decode whatever ContentNegotiationInterceptor gets the upstream to send
+                .configureMessageConverters(converters -> converters.registerDefaults()
+                        .withJsonConverter(new JacksonJsonHttpMessageConverter(jsonMapper))
+                        .withSmileConverter(BinaryFormat.SMILE.newConverter())
+                        .withCborConverter(BinaryFormat.CBOR.newConverter()))
+                .requestInterceptors(list -> {
+                    if (bufferPool == null) {
+                        list.addAll(interceptors);
+                    }
+                })
                 .build();
     }
 
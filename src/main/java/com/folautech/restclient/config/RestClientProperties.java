@@ -0,0 +1,685 @@
+package com.folautech.restclient.config;
+
+import com.folautech.restclient.balance.BalancingStrategy;
+import com.folautech.restclient.load.LoadMode;
+import com.folautech.restclient.load.LoadOperation;
+import com.folautech.restclient.transport.BinaryFormat;
+import com.folautech.restclient.transport.TransportType;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Settings for the outbound RestClient stack, bound from {@code restclient.*} in application.properties.
+ */
+@Data
+@ConfigurationProperties(prefix = "restclient")
+public class RestClientProperties {
+
+    /**
+     * Upstream the JSONPlaceholder service talks to.
+     */
+    private String baseUrl = "https://jsonplaceholder.typicode.com";
+
+    private Transport transport = new Transport();
+
+    private Logging logging = new Logging();
+
+    private Timing timing = new Timing();
+
+    private Cache cache = new Cache();
+
+    private Coalescing coalescing = new Coalescing();
+
+    private Compression compression = new Compression();
+
+    private Codec codec = new Codec();
+
+    private Streaming streaming = new Streaming();
+
+    private Bulkheads bulkheads = new Bulkheads();
+
+    private Bulk bulk = new Bulk();
+
+    private Paging paging = new Paging();
+
+    private Replica replica = new Replica();
+
+    private Async async = new Async();
+
+    private Metrics metrics = new Metrics();
+
+    private Resilience resilience = new Resilience();
+
+    private Limiter limiter = new Limiter();
+
+    private Balancer balancer = new Balancer();
+
+    private Load load = new Load();
+
+    private Stub stub = new Stub();
+
+    private Startup startup = new Startup();
+
+    private Warmup warmup = new Warmup();
+
+    @Data
+    public static class Transport {
+
+        /**
+         * Which request factory backs the RestClient: JDK HttpClient (pooled, HTTP/2) or HttpURLConnection.
+         */
+        private TransportType type = TransportType.JDK;
+
+        /**
+         * Preferred protocol; HTTP_2 falls back to HTTP/1.1 when the server does not negotiate h2.
+         */
+        private HttpClient.Version httpVersion = HttpClient.Version.HTTP_2;
+
+        private Duration connectTimeout = Duration.ofSeconds(5);
+
+        private Duration readTimeout = Duration.ofSeconds(10);
+
+        /**
+         * Max concurrent exchanges (and therefore open HTTP/1.1 connections) per host.
+         */
+        private int maxConnectionsPerHost = 50;
+
+        /**
+         * How long a call waits for a free per-host connection before failing.
+         */
+        private Duration acquireTimeout = Duration.ofSeconds(2);
+
+        /**
+         * Max idle connections kept in the JDK client pool across all hosts (0 = unbounded).
+         */
+        private int poolSize = 200;
+
+        /**
+         * Idle connections are evicted from the pool after this long.
+         */
+        private Duration keepAlive = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Logging {
+
+        private boolean enabled = true;
+
+        /**
+         * Only this many leading bytes of a request/response body are captured for the log line.
+         */
+        private int maxBodyBytes = 1024;
+
+        /**
+         * Fraction of exchanges logged when no endpoint pattern below matches (0.0 - 1.0).
+         */
+        private double defaultSampleRate = 1.0;
+
+        /**
+         * Per-endpoint sample rates keyed by Ant-style path pattern, first match wins,
+         * e.g. {@code restclient.logging.sample-rates.[/posts/**]=0.05}.
+         */
+        private Map<String, Double> sampleRates = new LinkedHashMap<>();
+
+        /**
+         * Pending log entries held for the background writer; entries beyond this are dropped.
+         */
+        private int queueCapacity = 1024;
+    }
+
+    @Data
+    public static class Timing {
+
+        /**
+         * Time every exchange by phase (DNS, connection queue, write, first byte, body read, decode).
+         */
+        private boolean enabled = true;
+
+        /**
+         * Exchanges taking at least this long are logged with their phase breakdown.
+         */
+        private Duration slowCallThreshold = Duration.ofSeconds(1);
+
+        /**
+         * Pending slow-call lines held for the background writer; lines beyond this are dropped.
+         */
+        private int queueCapacity = 256;
+    }
+
+    @Data
+    public static class Cache {
+
+        private boolean enabled = true;
+
+        /**
+         * Total size of cached response bodies; eviction is W-TinyLFU weighted by body size.
+         */
+        private DataSize maxSize = DataSize.ofMegabytes(16);
+
+        /**
+         * Responses larger than this are streamed through and never stored.
+         */
+        private DataSize maxEntrySize = DataSize.ofKilobytes(512);
+
+        /**
+         * How long a 404 is remembered before the upstream is asked again.
+         */
+        private Duration negativeTtl = Duration.ofSeconds(30);
+
+        /**
+         * Freshness for responses that carry no Cache-Control max-age or Expires (0 = always revalidate).
+         */
+        private Duration defaultTtl = Duration.ZERO;
+
+        private Store store = new Store();
+
+    }
+
+    @Data
+    public static class Store {
+
+        /**
+         * Persist cached responses to a memory-mapped file so a restarted node starts warm.
+         */
+        private boolean enabled = false;
+
+        private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "restclient-cache");
+
+        /**
+         * Size of the mapped file; when it fills up, the store is compacted and further writes are skipped
+         * until there is room.
+         */
+        private DataSize maxFileSize = DataSize.ofMegabytes(64);
+
+        private Duration compactionInterval = Duration.ofMinutes(1);
+
+        /**
+         * Compact once this fraction of the file holds superseded, deleted or expired records.
+         */
+        private double compactionThreshold = 0.5;
+    }
+
+    @Data
+    public static class Coalescing {
+
+        /**
+         * Share one upstream exchange between concurrent identical GETs in JsonPlaceholderService.
+         */
+        private boolean enabled = true;
+    }
+
+    @Data
+    public static class Compression {
+
+        /**
+         * Send Accept-Encoding: gzip, deflate and decode compressed responses as they are read.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Gzip request bodies of at least {@code requestThreshold}; the upstream must accept Content-Encoding: gzip.
+         */
+        private boolean requestEnabled = true;
+
+        private DataSize requestThreshold = DataSize.ofKilobytes(8);
+    }
+
+    @Data
+    public static class Codec {
+
+        /**
+         * Offer binary formats ahead of JSON in the Accept header of requests that accept JSON; responses are decoded
+         * by their Content-Type, so an upstream that only speaks JSON keeps working.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Binary formats offered, most preferred first.
+         */
+        private List<BinaryFormat> formats = new ArrayList<>(List.of(BinaryFormat.SMILE, BinaryFormat.CBOR));
+    }
+
+    @Data
+    public static class Streaming {
+
+        /**
+         * Run the interceptors without buffering repeatable request bodies into a byte[]; they are written to the
+         * connection at the end of the chain, through pooled buffers.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Size of each pooled buffer. A serialized body that fits in one is sent with a Content-Length, a larger one
+         * is sent chunked.
+         */
+        private DataSize bufferSize = DataSize.ofKilobytes(64);
+
+        /**
+         * Idle buffers kept for reuse; under more concurrent uploads than this, the extra buffers are garbage.
+         */
+        private int maxPooledBuffers = 64;
+    }
+
+    @Data
+    public static class Bulkheads {
+
+        private boolean enabled = true;
+
+        /**
+         * Named bulkheads; a call belongs to the first whose routes match it, calls matching none are not isolated.
+         */
+        private Map<String, Compartment> instances = new LinkedHashMap<>();
+    }
+
+    @Data
+    public static class Compartment {
+
+        /**
+         * {@code [METHOD ]pattern} matched against the URI template without its query, Ant-style, e.g.
+         * {@code GET /users/*} or {@code /posts/**}.
+         */
+        private List<String> routes = new ArrayList<>();
+
+        private int maxConcurrent = 16;
+
+        /**
+         * Callers allowed to wait for a slot; beyond this calls are rejected immediately.
+         */
+        private int maxQueue = 32;
+
+        private Duration maxWait = Duration.ofMillis(250);
+
+        /**
+         * Connections per host in a pool of the bulkhead's own; 0 shares the default transport's pool.
+         */
+        private int maxConnections = 0;
+    }
+
+    @Data
+    public static class Bulk {
+
+        /**
+         * Max upstream calls a single bulk fetch keeps in flight at once.
+         */
+        private int maxConcurrency = 16;
+
+        /**
+         * POSTs a bulk submission keeps in flight; producers block while this many are outstanding.
+         */
+        private int writeWindow = 32;
+    }
+
+    @Data
+    public static class Paging {
+
+        /**
+         * Elements per page ({@code _limit}) for the paged iterators.
+         */
+        private int pageSize = 20;
+
+        /**
+         * Pages fetched ahead of the consumer; the fetcher waits when this many are unread.
+         */
+        private int readAhead = 2;
+    }
+
+    @Data
+    public static class Replica {
+
+        /**
+         * Keep an in-memory copy of all posts and answer post lookups by id and by userId from it.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Delay between background reloads of the whole post list.
+         */
+        private Duration refreshInterval = Duration.ofSeconds(30);
+
+        /**
+         * A snapshot older than this (reloads keep failing) is not served; lookups go to the upstream instead.
+         */
+        private Duration maxStaleness = Duration.ofMinutes(5);
+
+        /**
+         * After a failed reload, lookups on a stale snapshot start another one at most this often.
+         */
+        private Duration retryInterval = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class Async {
+
+        /**
+         * Applied to AsyncJsonPlaceholderService calls that do not pass their own timeout.
+         */
+        private Duration defaultTimeout = Duration.ofSeconds(15);
+    }
+
+    @Data
+    public static class Metrics {
+
+        private boolean enabled = true;
+
+        /**
+         * How often the per-endpoint latency summary is written to the log (0 = never).
+         */
+        private Duration logInterval = Duration.ofMinutes(1);
+
+        /**
+         * Latencies above this are clamped into the top histogram bucket.
+         */
+        private Duration maxLatency = Duration.ofMinutes(1);
+
+        /**
+         * Cap on distinct method/URI/status series; further ones are folded into "other".
+         */
+        private int maxSeries = 512;
+    }
+
+    @Data
+    public static class Resilience {
+
+        private boolean enabled = true;
+
+        private Breaker circuitBreaker = new Breaker();
+
+        private Budget retryBudget = new Budget();
+
+        /**
+         * Retry and hedging policy per HTTP method name; methods not listed are never retried or hedged.
+         * Only idempotent methods are retried by default.
+         */
+        private Map<String, MethodPolicy> methods = defaultMethodPolicies();
+
+        private static Map<String, MethodPolicy> defaultMethodPolicies() {
+            Map<String, MethodPolicy> policies = new LinkedHashMap<>();
+            MethodPolicy get = new MethodPolicy();
+            get.setHedge(true);
+            policies.put("GET", get);
+            policies.put("HEAD", new MethodPolicy());
+            policies.put("OPTIONS", new MethodPolicy());
+            policies.put("PUT", new MethodPolicy());
+            policies.put("DELETE", new MethodPolicy());
+            return policies;
+        }
+    }
+
+    @Data
+    public static class Breaker {
+
+        /**
+         * Open the breaker for a host when this fraction of the last {@code windowSize} calls failed.
+         */
+        private double failureRateThreshold = 0.5;
+
+        private int windowSize = 50;
+
+        /**
+         * Calls needed in the window before the failure rate is trusted.
+         */
+        private int minimumCalls = 20;
+
+        private Duration openDuration = Duration.ofSeconds(30);
+
+        /**
+         * Trial calls let through while half-open; all must succeed to close again.
+         */
+        private int halfOpenProbes = 3;
+    }
+
+    @Data
+    public static class Budget {
+
+        /**
+         * Retries and hedges allowed per original request, averaged over time (0.2 = at most 20% extra load).
+         */
+        private double ratio = 0.2;
+
+        /**
+         * Burst of retries available before the ratio kicks in.
+         */
+        private int maxTokens = 10;
+    }
+
+    @Data
+    public static class MethodPolicy {
+
+        /**
+         * Total attempts including the first; 1 disables retries.
+         */
+        private int maxAttempts = 3;
+
+        private Duration initialBackoff = Duration.ofMillis(100);
+
+        private Duration maxBackoff = Duration.ofSeconds(2);
+
+        private double backoffMultiplier = 2.0;
+
+        private Set<Integer> retryOnStatus = new LinkedHashSet<>(List.of(429, 502, 503, 504));
+
+        /**
+         * Send a duplicate request when the first has not answered within the hedge percentile latency.
+         */
+        private boolean hedge = false;
+
+        private double hedgePercentile = 95.0;
+
+        /**
+         * Lower bound on the hedge delay, also used until enough latencies have been observed.
+         */
+        private Duration hedgeMinDelay = Duration.ofMillis(50);
+    }
+
+    @Data
+    public static class Limiter {
+
+        private boolean enabled = true;
+
+        /**
+         * Concurrent calls allowed per host before any latency has been observed.
+         */
+        private int initialLimit = 20;
+
+        private int minLimit = 4;
+
+        private int maxLimit = 200;
+
+        /**
+         * Multiplicative decrease applied on an overload signal (timeout, I/O error, 429, 5xx, latency spike).
+         */
+        private double backoffRatio = 0.9;
+
+        /**
+         * A call slower than this multiple of the baseline (minimum) latency counts as a sign of queueing upstream.
+         */
+        private double rttTolerance = 2.0;
+
+        /**
+         * Samples after which the baseline latency is re-learned, so it follows an upstream that got slower or faster.
+         */
+        private int baselineWindow = 1000;
+
+        /**
+         * Callers allowed to wait for a slot per host; beyond this calls are rejected immediately.
+         */
+        private int maxQueue = 100;
+
+        private Duration maxWait = Duration.ofMillis(250);
+    }
+
+    @Data
+    public static class Balancer {
+
+        private boolean enabled = true;
+
+        /**
+         * Replicas that serve {@code base-url}, e.g. {@code http://replica-1:8080,http://replica-2:8080}. Calls to
+         * {@code base-url} are spread across them; when empty every call goes to {@code base-url} itself.
+         */
+        private List<String> upstreams = new ArrayList<>();
+
+        private BalancingStrategy strategy = BalancingStrategy.POWER_OF_TWO_CHOICES;
+
+        /**
+         * Time constant of the per-replica latency average; a latency spike decays over about this long.
+         */
+        private Duration latencyDecay = Duration.ofSeconds(10);
+
+        /**
+         * Consecutive failures (I/O error or 5xx) after which a replica is ejected.
+         */
+        private int consecutiveFailures = 5;
+
+        /**
+         * Ejection time for a first ejection; each further ejection in a row adds another one, up to the maximum.
+         */
+        private Duration baseEjectionTime = Duration.ofSeconds(30);
+
+        private Duration maxEjectionTime = Duration.ofMinutes(5);
+
+        /**
+         * Upper bound on the share of replicas ejected at once; at least one replica always stays in rotation.
+         */
+        private int maxEjectedPercent = 50;
+
+        /**
+         * A replica returning from ejection ramps from 10% to its full share of traffic over this long.
+         */
+        private Duration slowStart = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Load {
+
+        /**
+         * Replace the startup demo with a load run against the configured base URL (see application-load.properties).
+         */
+        private boolean enabled = false;
+
+        /**
+         * RATE = open loop at {@code rate} requests/s; CONCURRENCY = closed loop with {@code concurrency} callers.
+         */
+        private LoadMode mode = LoadMode.RATE;
+
+        private int rate = 200;
+
+        private int concurrency = 16;
+
+        private Duration warmup = Duration.ofSeconds(5);
+
+        private Duration duration = Duration.ofSeconds(30);
+
+        /**
+         * Relative weight of each operation in the generated traffic.
+         */
+        private Map<LoadOperation, Integer> mix = defaultMix();
+
+        private boolean exitWhenDone = true;
+
+        private static Map<LoadOperation, Integer> defaultMix() {
+            Map<LoadOperation, Integer> mix = new LinkedHashMap<>();
+            mix.put(LoadOperation.GET_USER, 60);
+            mix.put(LoadOperation.GET_POSTS_BY_USER, 30);
+            mix.put(LoadOperation.CREATE_POST, 10);
+            return mix;
+        }
+    }
+
+    @Data
+    public static class Stub {
+
+        /**
+         * Serve JSONPlaceholder-shaped fixtures from an embedded server on {@code port}.
+         */
+        private boolean enabled = false;
+
+        private int port = 8089;
+
+        private Duration latency = Duration.ofMillis(20);
+
+        /**
+         * Uniform random extra latency added on top of {@code latency}.
+         */
+        private Duration latencyJitter = Duration.ofMillis(10);
+
+        /**
+         * Fraction of requests that take {@code slowLatency} instead, to give the upstream a tail.
+         */
+        private double slowRate = 0.01;
+
+        private Duration slowLatency = Duration.ofMillis(500);
+
+        /**
+         * Fraction of requests answered with 503.
+         */
+        private double errorRate = 0.0;
+
+        /**
+         * Binary formats served to requests whose Accept header prefers them; empty for a JSON-only upstream.
+         */
+        private List<BinaryFormat> formats = new ArrayList<>(List.of(BinaryFormat.SMILE, BinaryFormat.CBOR));
+    }
+
+    @Data
+    public static class Startup {
+
+        /**
+         * Once the application is ready, call the upstream and log time to ready and to the first successful call,
+         * both measured from JVM start.
+         */
+        private boolean probe = false;
+
+        /**
+         * How long the probe keeps retrying the first call before it gives up.
+         */
+        private Duration probeTimeout = Duration.ofSeconds(30);
+
+        /**
+         * Shut down after the probe; used by the startup benchmark.
+         */
+        private boolean exitAfterProbe = false;
+    }
+
+    @Data
+    public static class Warmup {
+
+        /**
+         * Resolve the upstream, prime the JSON codecs and open connections before the web server starts.
+         */
+        private boolean enabled = true;
+
+        /**
+         * GET target of the warm-up requests, relative to {@code restclient.base-url}; should be cheap and safe.
+         */
+        private String path = "/users/1";
+
+        private int requests = 20;
+
+        /**
+         * Warm-up requests in flight at once, which is also how many pooled connections they can open.
+         */
+        private int concurrency = 4;
+
+        /**
+         * Encode/decode round trips per DTO type.
+         */
+        private int codecCycles = 500;
+
+        /**
+         * Upper bound for the whole stage; startup continues when it runs out.
+         */
+        private Duration timeout = Duration.ofSeconds(10);
+    }
+}
@@ -0,0 +1,46 @@
+package com.folautech.restclient.config;
+
+import com.folautech.restclient.cache.ResponseStore;
+import com.folautech.restclient.load.StubUpstreamServer;
+import com.folautech.restclient.metrics.MetricsLogReporter;
+import com.folautech.restclient.service.JsonPlaceholderService;
+import com.folautech.restclient.startup.ClientWarmup;
+import com.folautech.restclient.startup.StartupProbe;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestClient;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Startup-time wiring: the warm-up stage, the startup probe, and what stays eager under the {@code fast-startup}
+ * profile (see application-fast-startup.properties).
+ */
+@Configuration
+public class StartupConfig {
+
+    /**
+     * With {@code spring.main.lazy-initialization=true} the RestClient and its interceptors are built on first
+     * use. These beans do their work in the background from construction (index scan, periodic reporting, the
+     * stub listener), so they are still created at startup.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter restClientEagerBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(ResponseStore.class, MetricsLogReporter.class,
+                StubUpstreamServer.class);
+    }
+
+    @Bean
+    public StartupProbe startupProbe(ObjectProvider<JsonPlaceholderService> jsonPlaceholderService,
+                                     RestClientProperties properties) {
+        return new StartupProbe(jsonPlaceholderService, properties.getStartup());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "restclient.warmup", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public ClientWarmup clientWarmup(RestClient restClient, JsonMapper jsonMapper, RestClientProperties properties) {
+        return new ClientWarmup(restClient, jsonMapper, properties);
+    }
+}
@@ -0,0 +1,20 @@
+package com.folautech.restclient.dto;
+
+/**
+ * Outcome of one id in a bulk fetch: either the value or the error that call failed with. For bulk submissions
+ * the id is the item's position in submission order.
+ */
+public record BulkResult<T>(Long id, T value, Throwable error) {
+
+    public static <T> BulkResult<T> success(Long id, T value) {
+        return new BulkResult<>(id, value, null);
+    }
+
+    public static <T> BulkResult<T> failure(Long id, Throwable error) {
+        return new BulkResult<>(id, null, error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
@@ -0,0 +1,23 @@
+package com.folautech.restclient.dto;
+
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
+
+/**
+ * Immutable form of {@link Post} for large in-memory result sets: primitive ids instead of two boxed Longs per
+ * post, and no setters. A missing or null id decodes as 0.
+ */
+public record CompactPost(@JsonSetter(nulls = Nulls.AS_EMPTY) long id,
+                          @JsonSetter(nulls = Nulls.AS_EMPTY) long userId,
+                          String title,
+                          String body) {
+
+    public static CompactPost from(Post post) {
+        return new CompactPost(post.getId() == null ? 0 : post.getId(),
+                post.getUserId() == null ? 0 : post.getUserId(), post.getTitle(), post.getBody());
+    }
+
+    public Post toPost() {
+        return new Post(id, userId, title, body);
+    }
+}
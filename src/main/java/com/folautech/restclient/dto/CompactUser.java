@@ -0,0 +1,27 @@
+package com.folautech.restclient.dto;
+
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
+import com.folautech.restclient.utility.InterningStringDeserializer;
+import tools.jackson.databind.annotation.JsonDeserialize;
+
+/**
+ * Immutable form of {@link User} with a primitive id. {@code username} and {@code website} repeat across
+ * results and are interned on decode, so many copies of the same user share their strings.
+ */
+public record CompactUser(@JsonSetter(nulls = Nulls.AS_EMPTY) long id,
+                          String name,
+                          @JsonDeserialize(using = InterningStringDeserializer.class) String username,
+                          String email,
+                          String phone,
+                          @JsonDeserialize(using = InterningStringDeserializer.class) String website) {
+
+    public static CompactUser from(User user) {
+        return new CompactUser(user.getId() == null ? 0 : user.getId(), user.getName(), user.getUsername(),
+                user.getEmail(), user.getPhone(), user.getWebsite());
+    }
+
+    public User toUser() {
+        return new User(id, name, username, email, phone, website);
+    }
+}
@@ -0,0 +1,169 @@
+package com.folautech.restclient.limit;
+
+import com.folautech.restclient.config.RestClientProperties;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit for one upstream host, learned with AIMD on a Vegas-style latency signal.
+ * <p>
+ * The limiter tracks the lowest latency seen recently as the upstream's no-queueing baseline. A call that
+ * comes back within {@code rttTolerance} times the baseline while the limit was actually being used grows
+ * the limit by about one per limit's worth of calls; a slower call, an I/O error or an overload status
+ * shrinks it by {@code backoffRatio}, at most once per window: the calls still in flight when the limit was
+ * cut went out under the old limit, so their slow or failed outcomes do not cut it again. Callers over the
+ * limit wait in a bounded queue for at most {@code maxWait}.
+ */
+public class AdaptiveLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double rttTolerance;
+    private final int baselineWindow;
+    private final int maxQueue;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+    private double limit;
+    private int inFlight;
+    private int waiting;
+    private long baselineNanos = Long.MAX_VALUE;
+    private int samples;
+    private int windowRemaining;
+
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public AdaptiveLimiter(RestClientProperties.Limiter properties) {
+        this.minLimit = Math.max(1, properties.getMinLimit());
+        this.maxLimit = Math.max(minLimit, properties.getMaxLimit());
+        this.backoffRatio = properties.getBackoffRatio();
+        this.rttTolerance = properties.getRttTolerance();
+        this.baselineWindow = Math.max(1, properties.getBaselineWindow());
+        this.maxQueue = properties.getMaxQueue();
+        this.limit = Math.clamp(properties.getInitialLimit(), minLimit, maxLimit);
+    }
+
+    /**
+     * Takes a slot, waiting up to {@code maxWaitNanos} when the limit is reached. Returns false if the queue
+     * is full or the wait ran out; every {@code true} must be followed by one {@link #release}.
+     */
+    public boolean acquire(long maxWaitNanos) throws InterruptedException {
+        lock.lock();
+        try {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                return true;
+            }
+            if (waiting >= maxQueue || maxWaitNanos <= 0) {
+                rejected.increment();
+                return false;
+            }
+            queued.increment();
+            waiting++;
+            try {
+                long remaining = maxWaitNanos;
+                while (inFlight >= (int) limit) {
+                    if (remaining <= 0) {
+                        rejected.increment();
+                        return false;
+                    }
+                    remaining = available.awaitNanos(remaining);
+                }
+                inFlight++;
+                return true;
+            } finally {
+                waiting--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a slot and feeds the call's outcome into the limit.
+     *
+     * @param latencyNanos time until response headers
+     * @param dropped      the call failed in a way that signals overload
+     */
+    public void release(long latencyNanos, boolean dropped) {
+        lock.lock();
+        try {
+            int used = inFlight--;
+            if (dropped) {
+                decrease();
+            } else {
+                sample(latencyNanos, used);
+            }
+            endOfWindow();
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a slot without a sample, for calls abandoned before they produced an outcome.
+     */
+    public void releaseIgnored() {
+        lock.lock();
+        try {
+            inFlight--;
+            endOfWindow();
+            available.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public LimiterStatistics getStatistics() {
+        lock.lock();
+        try {
+            return new LimiterStatistics((int) limit, inFlight, waiting, queued.sum(), rejected.sum(),
+                    baselineNanos == Long.MAX_VALUE ? 0 : TimeUnit.NANOSECONDS.toMicros(baselineNanos));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void sample(long latencyNanos, int used) {
+        if (++samples >= baselineWindow) {
+            samples = 0;
+            baselineNanos = latencyNanos;
+        } else if (latencyNanos < baselineNanos) {
+            baselineNanos = latencyNanos;
+        }
+        if (latencyNanos > baselineNanos * rttTolerance) {
+            decrease();
+        } else if (used * 2 >= limit) {
+            // only grow while the limit is the constraint, otherwise an idle client would inflate it forever
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    private void decrease() {
+        if (windowRemaining > 0) {
+            return;
+        }
+        limit = Math.max(minLimit, limit * backoffRatio);
+        // the calls still out, plus this one's own release
+        windowRemaining = inFlight + 1;
+    }
+
+    private void endOfWindow() {
+        if (windowRemaining > 0) {
+            windowRemaining--;
+        }
+    }
+
+    /**
+     * Point-in-time view of one host's limiter. {@code queued} and {@code rejected} are totals since startup.
+     */
+    public record LimiterStatistics(int limit, int inFlight, int waiting, long queued, long rejected,
+                                    long baselineMicros) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.folautech.restclient.limit;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a call could not get a concurrency slot for its host within {@code maxWait}, or the wait queue
+ * was already full. RestClient surfaces it as a ResourceAccessException.
+ */
+public class ConcurrencyLimitExceededException extends IOException {
+
+    public ConcurrencyLimitExceededException(String host, int limit) {
+        super("Concurrency limit of " + limit + " reached for " + host);
+    }
+}
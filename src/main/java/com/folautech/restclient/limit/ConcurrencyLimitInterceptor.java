@@ -0,0 +1,138 @@
+package com.folautech.restclient.limit;
+
+import com.folautech.restclient.bulkhead.BulkheadInterceptor;
+import com.folautech.restclient.config.RestClientProperties;
+import com.folautech.restclient.metrics.ClientStatisticsContributor;
+import com.folautech.restclient.transport.PerHostLimitingRequestFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps outstanding calls per upstream host with an {@link AdaptiveLimiter}. The slot is held until the
+ * response is closed, since the connection stays busy while the body is read; the latency sample is taken
+ * when the headers arrive. Calls that cannot get a slot in time fail fast with
+ * {@link ConcurrencyLimitExceededException} instead of piling up behind a slow upstream. Calls admitted by a
+ * bulkhead get a limiter per host and bulkhead, so a slow endpoint does not shrink the limit of the others.
+ */
+public class ConcurrencyLimitInterceptor implements ClientHttpRequestInterceptor, ClientStatisticsContributor {
+
+    private final RestClientProperties.Limiter properties;
+    private final long maxWaitNanos;
+    private final ConcurrentHashMap<String, AdaptiveLimiter> limiters = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimitInterceptor(RestClientProperties.Limiter properties) {
+        this.properties = properties;
+        this.maxWaitNanos = properties.getMaxWait().toNanos();
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String host = PerHostLimitingRequestFactory.hostKey(request.getURI());
+        String bulkhead = BulkheadInterceptor.bulkheadOf(request);
+        if (bulkhead != null) {
+            host = host + " (" + bulkhead + ")";
+        }
+        AdaptiveLimiter limiter = limiters.computeIfAbsent(host, key -> new AdaptiveLimiter(properties));
+        try {
+            if (!limiter.acquire(maxWaitNanos)) {
+                throw new ConcurrencyLimitExceededException(host, limiter.getStatistics().limit());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for a concurrency slot for " + host);
+        }
+
+        long start = System.nanoTime();
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException | RuntimeException e) {
+            // the JDK transport reports an interrupt as a plain IOException, with the thread's flag set again
+            if (e instanceof InterruptedIOException || Thread.currentThread().isInterrupted()) {
+                limiter.releaseIgnored();
+            } else {
+                limiter.release(System.nanoTime() - start, true);
+            }
+            throw e;
+        }
+        long latency = System.nanoTime() - start;
+        int status = response.getStatusCode().value();
+        return new SlotReleasingResponse(response, limiter, latency, status == 429 || status >= 500);
+    }
+
+    @Override
+    public String getStatisticsSection() {
+        return "concurrencyLimits";
+    }
+
+    /**
+     * Limiter state per host (and bulkhead), sorted by host.
+     */
+    @Override
+    public Map<String, AdaptiveLimiter.LimiterStatistics> getStatistics() {
+        Map<String, AdaptiveLimiter.LimiterStatistics> statistics = new TreeMap<>();
+        limiters.forEach((host, limiter) -> statistics.put(host, limiter.getStatistics()));
+        return statistics;
+    }
+
+    private static class SlotReleasingResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final AdaptiveLimiter limiter;
+        private final long latencyNanos;
+        private final boolean dropped;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        SlotReleasingResponse(ClientHttpResponse delegate, AdaptiveLimiter limiter, long latencyNanos,
+                              boolean dropped) {
+            this.delegate = delegate;
+            this.limiter = limiter;
+            this.latencyNanos = latencyNanos;
+            this.dropped = dropped;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    limiter.release(latencyNanos, dropped);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.folautech.restclient.load;
+
+import com.folautech.restclient.config.RestClientProperties;
+import com.folautech.restclient.dto.Post;
+import com.folautech.restclient.service.JsonPlaceholderService;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives {@link JsonPlaceholderService} with a weighted mix of operations for a fixed time and reports
+ * throughput and latency percentiles.
+ * <p>
+ * Percentiles are corrected for coordinated omission. In {@link LoadMode#RATE} every request has an intended
+ * start time on a fixed schedule, and its latency is measured from that time; a stalled upstream therefore
+ * shows up in the tail instead of just slowing the generator down. In {@link LoadMode#CONCURRENCY} there is no
+ * schedule, so the recorded service times are back-filled with HdrHistogram's correction using the mean service
+ * time as the expected interval. Uncorrected service times are reported alongside for comparison.
+ */
+@Slf4j
+public class LoadDriver {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final JsonPlaceholderService service;
+    private final RestClientProperties.Load properties;
+    private final LoadOperation[] operations;
+    private final int[] cumulativeWeights;
+
+    public LoadDriver(JsonPlaceholderService service, RestClientProperties.Load properties) {
+        this.service = service;
+        this.properties = properties;
+        List<LoadOperation> weighted = new ArrayList<>();
+        List<Integer> cumulative = new ArrayList<>();
+        int total = 0;
+        for (Map.Entry<LoadOperation, Integer> entry : properties.getMix().entrySet()) {
+            if (entry.getValue() > 0) {
+                total += entry.getValue();
+                weighted.add(entry.getKey());
+                cumulative.add(total);
+            }
+        }
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("restclient.load.mix has no operation with a positive weight");
+        }
+        this.operations = weighted.toArray(LoadOperation[]::new);
+        this.cumulativeWeights = cumulative.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Runs the warm-up, then the measured phase, and logs the report.
+     */
+    public LoadReport run() {
+        if (!properties.getWarmup().isZero()) {
+            log.info("Load warm-up: {} for {}", describe(), properties.getWarmup());
+            drive(properties.getWarmup());
+        }
+        log.info("Load run: {} for {}", describe(), properties.getDuration());
+        LoadReport report = drive(properties.getDuration());
+        report.log(log);
+        return report;
+    }
+
+    private LoadReport drive(Duration duration) {
+        Phase phase = new Phase();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            if (properties.getMode() == LoadMode.RATE) {
+                long interval = TimeUnit.SECONDS.toNanos(1) / Math.max(1, properties.getRate());
+                for (long intended = start; intended < end; intended += interval) {
+                    long sleep = intended - System.nanoTime();
+                    if (sleep > 0) {
+                        LockSupport.parkNanos(sleep);
+                    }
+                    long scheduled = intended;
+                    executor.execute(() -> phase.call(scheduled));
+                }
+            } else {
+                for (int i = 0; i < properties.getConcurrency(); i++) {
+                    executor.execute(() -> {
+                        while (System.nanoTime() < end) {
+                            phase.call(System.nanoTime());
+                        }
+                    });
+                }
+            }
+        }
+        return phase.report(System.nanoTime() - start);
+    }
+
+    private void invoke(LoadOperation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long userId = 1 + random.nextInt(StubUpstreamServer.USERS);
+        switch (operation) {
+            case GET_USER -> service.getUserById(userId);
+            case GET_ALL_POSTS -> service.getAllPosts();
+            case GET_POSTS_BY_USER -> service.getPostsByUserId(userId);
+            case CREATE_POST -> service.createPost(post(null, userId));
+            case UPDATE_POST -> {
+                long id = 1 + random.nextInt(StubUpstreamServer.USERS * StubUpstreamServer.POSTS_PER_USER);
+                service.updatePost(id, post(id, userId));
+            }
+        }
+    }
+
+    private LoadOperation pick() {
+        int ticket = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (ticket < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private String describe() {
+        return properties.getMode() == LoadMode.RATE
+                ? "open loop at " + properties.getRate() + " req/s"
+                : "closed loop with " + properties.getConcurrency() + " callers";
+    }
+
+    private static Post post(Long id, long userId) {
+        return Post.builder()
+                .id(id)
+                .userId(userId)
+                .title("load test")
+                .body("generated by the load driver")
+                .build();
+    }
+
+    /**
+     * Measurements for one warm-up or measured phase.
+     */
+    private class Phase {
+
+        private final Histogram responseTimes = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        private final Histogram serviceTimes = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        private final LongAdder completed = new LongAdder();
+        private final ConcurrentHashMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+        void call(long intendedStart) {
+            long actualStart = System.nanoTime();
+            try {
+                invoke(pick());
+            } catch (RuntimeException e) {
+                errors.computeIfAbsent(e.getClass().getSimpleName(), key -> new LongAdder()).increment();
+            }
+            long done = System.nanoTime();
+            responseTimes.recordValue(Math.min(MAX_LATENCY_MICROS, (done - intendedStart) / 1000));
+            serviceTimes.recordValue(Math.min(MAX_LATENCY_MICROS, (done - actualStart) / 1000));
+            completed.increment();
+        }
+
+        LoadReport report(long elapsedNanos) {
+            Histogram corrected = properties.getMode() == LoadMode.RATE
+                    ? responseTimes.copy()
+                    : serviceTimes.copyCorrectedForCoordinatedOmission(Math.round(serviceTimes.getMean()));
+            Map<String, Long> errorCounts = new TreeMap<>();
+            errors.forEach((type, count) -> errorCounts.put(type, count.sum()));
+            return new LoadReport(properties.getMode(), Duration.ofNanos(elapsedNanos), completed.sum(),
+                    errorCounts, corrected, serviceTimes.copy());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.folautech.restclient.load;
+
+public enum LoadMode {
+    /**
+     * Open loop: requests are started on a fixed schedule whether or not earlier ones have finished.
+     */
+    RATE,
+    /**
+     * Closed loop: a fixed number of callers, each sending its next request when the previous one returns.
+     */
+    CONCURRENCY
+}
@@ -0,0 +1,9 @@
+package com.folautech.restclient.load;
+
+public enum LoadOperation {
+    GET_USER,
+    GET_ALL_POSTS,
+    GET_POSTS_BY_USER,
+    CREATE_POST,
+    UPDATE_POST
+}
@@ -0,0 +1,51 @@
+package com.folautech.restclient.load;
+
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Outcome of one load run. {@code responseTimes} are corrected for coordinated omission, {@code serviceTimes}
+ * are what each call measured on its own. Both are in microseconds.
+ */
+public record LoadReport(LoadMode mode, Duration elapsed, long completed, Map<String, Long> errors,
+                         Histogram responseTimes, Histogram serviceTimes) {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    public double throughput() {
+        return elapsed.isZero() ? 0 : completed / (elapsed.toNanos() / 1e9);
+    }
+
+    public long errorCount() {
+        return errors.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    void log(Logger log) {
+        log.info("============================= LOAD REPORT =========================");
+        log.info("Mode        : {}", mode);
+        log.info("Elapsed     : {} ms", elapsed.toMillis());
+        log.info("Completed   : {}", completed);
+        log.info("Throughput  : {} req/s", String.format("%.1f", throughput()));
+        log.info("Errors      : {} {}", errorCount(), errors);
+        log.info("Latency     : {}", percentiles(responseTimes));
+        log.info("Service time: {}", percentiles(serviceTimes));
+        log.info("===================================================================");
+    }
+
+    private static String percentiles(Histogram histogram) {
+        StringBuilder line = new StringBuilder();
+        for (double percentile : PERCENTILES) {
+            line.append("p").append(percentile == Math.rint(percentile) ? String.valueOf((int) percentile)
+                            : String.valueOf(percentile))
+                    .append("=").append(millis(histogram.getValueAtPercentile(percentile))).append("ms ");
+        }
+        return line.append("max=").append(millis(histogram.getMaxValue())).append("ms").toString();
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.2f", micros / 1000.0);
+    }
+}
@@ -0,0 +1,320 @@
+package com.folautech.restclient.load;
+
+import com.folautech.restclient.config.RestClientProperties;
+import com.folautech.restclient.dto.Post;
+import com.folautech.restclient.dto.User;
+import com.folautech.restclient.transport.BinaryFormat;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Embedded stand-in for JSONPlaceholder on the loopback interface: 10 users, 100 posts (10 per user),
+ * {@code GET /users/{id}}, {@code GET /posts[?userId=][&_start=&_limit=]}, {@code GET /posts/{id}},
+ * {@code POST /posts} and {@code PUT /posts/{id}}, which echo the body back like the real service.
+ * <p>
+ * Every response is delayed by {@code latency} plus up to {@code latencyJitter}, or by {@code slowLatency} for a
+ * {@code slowRate} fraction of requests; an {@code errorRate} fraction is answered with 503. Payloads are
+ * serialized once at startup so the stub itself costs next to nothing per request.
+ * <p>
+ * Responses are JSON unless the Accept header prefers one of the configured binary {@code formats} (by q-value,
+ * then order), in which case the same payloads are served as Smile or CBOR. POST and PUT bodies are read according
+ * to their Content-Type. With no formats configured the stub behaves like a JSON-only upstream.
+ */
+@Slf4j
+public class StubUpstreamServer implements AutoCloseable {
+
+    static final int USERS = 10;
+    static final int POSTS_PER_USER = 10;
+
+    private static final String[][] NAMES = {
+            {"Leanne Graham", "Bret"}, {"Ervin Howell", "Antonette"}, {"Clementine Bauch", "Samantha"},
+            {"Patricia Lebsack", "Karianne"}, {"Chelsey Dietrich", "Kamren"}, {"Mrs. Dennis Schulist", "Leopoldo_Corkery"},
+            {"Kurtis Weissnat", "Elwyn.Skiles"}, {"Nicholas Runolfsdottir V", "Maxime_Nienow"},
+            {"Glenna Reichert", "Delphine"}, {"Clementina DuBuque", "Moriah.Stanton"}
+    };
+
+    private final long latencyNanos;
+    private final long jitterNanos;
+    private final double slowRate;
+    private final long slowLatencyNanos;
+    private final double errorRate;
+
+    private final List<Post> everyPost = new ArrayList<>();
+    private final Payloads json;
+    private final Map<BinaryFormat, Payloads> binary = new EnumMap<>(BinaryFormat.class);
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder injectedErrors = new LongAdder();
+
+    public StubUpstreamServer(RestClientProperties.Stub properties, JsonMapper jsonMapper) throws IOException {
+        this.latencyNanos = properties.getLatency().toNanos();
+        this.jitterNanos = properties.getLatencyJitter().toNanos();
+        this.slowRate = properties.getSlowRate();
+        this.slowLatencyNanos = properties.getSlowLatency().toNanos();
+        this.errorRate = properties.getErrorRate();
+
+        for (int userId = 1; userId <= USERS; userId++) {
+            for (int i = 0; i < POSTS_PER_USER; i++) {
+                everyPost.add(post((userId - 1) * POSTS_PER_USER + i + 1, userId));
+            }
+        }
+        json = new Payloads(jsonMapper, "application/json; charset=utf-8", everyPost);
+        for (BinaryFormat format : properties.getFormats()) {
+            binary.put(format, new Payloads(format.newMapper(), format.getMediaType().toString(), everyPost));
+        }
+
+        // without this the split header/body writes hit the 40ms delayed-ACK stall
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), properties.getPort()), 1024);
+        server.setExecutor(executor);
+        server.createContext("/users", this::users);
+        server.createContext("/posts", this::posts);
+        server.start();
+        log.info("Stub upstream listening on {}", baseUrl());
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    public long getInjectedErrors() {
+        return injectedErrors.sum();
+    }
+
+    private void users(HttpExchange exchange) throws IOException {
+        if (!simulate(exchange)) {
+            return;
+        }
+        long id = idSegment(exchange);
+        if (!"GET".equals(exchange.getRequestMethod()) || id < 1 || id > USERS) {
+            send(exchange, 404, json, "{}".getBytes());
+            return;
+        }
+        Payloads payloads = negotiate(exchange);
+        send(exchange, 200, payloads, payloads.users[(int) id]);
+    }
+
+    private void posts(HttpExchange exchange) throws IOException {
+        if (!simulate(exchange)) {
+            return;
+        }
+        long id = idSegment(exchange);
+        Payloads payloads = negotiate(exchange);
+        switch (exchange.getRequestMethod()) {
+            case "GET" -> {
+                if (id == 0 && parameter(exchange, "_limit") > 0) {
+                    // the list is small, so pages are sliced and serialized per request
+                    int start = (int) Math.min(everyPost.size(), Math.max(0, parameter(exchange, "_start")));
+                    int end = (int) Math.min(everyPost.size(), start + parameter(exchange, "_limit"));
+                    send(exchange, 200, payloads, payloads.mapper.writeValueAsBytes(everyPost.subList(start, end)));
+                } else if (id == 0) {
+                    long userId = parameter(exchange, "userId");
+                    send(exchange, 200, payloads, userId == 0 ? payloads.allPosts
+                            : userId <= USERS ? payloads.postsByUser[(int) userId] : payloads.noPosts);
+                } else if (id > 0 && id < payloads.posts.length) {
+                    send(exchange, 200, payloads, payloads.posts[(int) id]);
+                } else {
+                    send(exchange, 404, json, "{}".getBytes());
+                }
+            }
+            case "POST" -> echo(exchange, 201, everyPost.size() + 1, payloads);
+            case "PUT" -> echo(exchange, 200, id, payloads);
+            default -> send(exchange, 405, json, "{}".getBytes());
+        }
+    }
+
+    /**
+     * Applies the configured delay and error injection. Returns false if the request was answered with an error.
+     */
+    private boolean simulate(HttpExchange exchange) throws IOException {
+        requests.increment();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = random.nextDouble() < slowRate ? slowLatencyNanos
+                : latencyNanos + (jitterNanos > 0 ? random.nextLong(jitterNanos) : 0);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay / 1_000_000, (int) (delay % 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (errorRate > 0 && random.nextDouble() < errorRate) {
+            injectedErrors.increment();
+            send(exchange, 503, json, "{}".getBytes());
+            return false;
+        }
+        return true;
+    }
+
+    private void echo(HttpExchange exchange, int status, long id, Payloads payloads) throws IOException {
+        Post post;
+        try (InputStream in = exchange.getRequestBody()) {
+            post = payloadsFor(exchange.getRequestHeaders().getFirst("Content-Type")).mapper.readValue(in, Post.class);
+        } catch (RuntimeException e) {
+            send(exchange, 400, json, "{}".getBytes());
+            return;
+        }
+        post.setId(id);
+        send(exchange, status, payloads, payloads.mapper.writeValueAsBytes(post));
+    }
+
+    /**
+     * The encoding the Accept header prefers among JSON and the configured binary formats; JSON when there is
+     * no Accept header or nothing else matches.
+     */
+    private Payloads negotiate(HttpExchange exchange) {
+        String accept = exchange.getRequestHeaders().getFirst("Accept");
+        if (accept == null || binary.isEmpty()) {
+            return json;
+        }
+        Payloads best = json;
+        double bestQuality = -1;
+        try {
+            for (MediaType type : MediaType.parseMediaTypes(accept)) {
+                BinaryFormat format = BinaryFormat.of(type);
+                Payloads candidate = format != null ? binary.get(format)
+                        : type.isCompatibleWith(MediaType.APPLICATION_JSON) ? json : null;
+                if (candidate != null && type.getQualityValue() > bestQuality) {
+                    best = candidate;
+                    bestQuality = type.getQualityValue();
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            return json;
+        }
+        return best;
+    }
+
+    private Payloads payloadsFor(String contentType) {
+        try {
+            BinaryFormat format = contentType == null ? null : BinaryFormat.of(MediaType.parseMediaType(contentType));
+            return format == null ? json : binary.getOrDefault(format, json);
+        } catch (InvalidMediaTypeException e) {
+            return json;
+        }
+    }
+
+    private static long idSegment(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath();
+        String context = exchange.getHttpContext().getPath();
+        if (path.length() <= context.length() + 1) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(path.substring(context.length() + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Numeric query parameter {@code name}, 0 if absent, -1 if not a number.
+     */
+    private static long parameter(HttpExchange exchange, String name) {
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return 0;
+        }
+        for (String parameter : query.split("&")) {
+            if (parameter.startsWith(name + "=")) {
+                try {
+                    return Long.parseLong(parameter.substring(name.length() + 1));
+                } catch (NumberFormatException e) {
+                    return -1;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static void send(HttpExchange exchange, int status, Payloads payloads, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", payloads.contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static User user(int id) {
+        String[] name = NAMES[id - 1];
+        return User.builder()
+                .id((long) id)
+                .name(name[0])
+                .username(name[1])
+                .email(name[1].toLowerCase() + "@april.biz")
+                .phone("1-770-736-8031 x5644" + id)
+                .website("hildegard.org")
+                .build();
+    }
+
+    private static Post post(int id, int userId) {
+        return Post.builder()
+                .id((long) id)
+                .userId((long) userId)
+                .title("sunt aut facere repellat provident occaecati excepturi optio reprehenderit " + id)
+                .body("quia et suscipit\nsuscipit recusandae consequuntur expedita et cum\n"
+                        + "reprehenderit molestiae ut ut quas totam\nnostrum rerum est autem sunt rem eveniet architecto")
+                .build();
+    }
+
+    /**
+     * Every fixture response pre-serialized in one encoding.
+     */
+    private static final class Payloads {
+
+        private final ObjectMapper mapper;
+        private final String contentType;
+        private final byte[][] users = new byte[USERS + 1][];
+        private final byte[][] posts = new byte[USERS * POSTS_PER_USER + 1][];
+        private final byte[][] postsByUser = new byte[USERS + 1][];
+        private final byte[] allPosts;
+        private final byte[] noPosts;
+
+        Payloads(ObjectMapper mapper, String contentType, List<Post> everyPost) {
+            this.mapper = mapper;
+            this.contentType = contentType;
+            for (int userId = 1; userId <= USERS; userId++) {
+                users[userId] = mapper.writeValueAsBytes(user(userId));
+                List<Post> own = everyPost.subList((userId - 1) * POSTS_PER_USER, userId * POSTS_PER_USER);
+                for (Post post : own) {
+                    posts[post.getId().intValue()] = mapper.writeValueAsBytes(post);
+                }
+                postsByUser[userId] = mapper.writeValueAsBytes(own);
+            }
+            allPosts = mapper.writeValueAsBytes(everyPost);
+            noPosts = mapper.writeValueAsBytes(List.of());
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+        log.info("Stub upstream served {} requests ({} injected errors)", getRequests(), getInjectedErrors());
+    }
+}
@@ -0,0 +1,72 @@
+package com.folautech.restclient.metrics;
+
+import com.folautech.restclient.utility.CompiledUriTemplate;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Route lookup for the metrics interceptor. The URI template comes from {@link CompiledUriTemplate#ATTRIBUTE}, which
+ * RestClient sets for {@code uri(String, Object...)} calls; requests built from a plain URI fall back to the raw path.
+ */
+public class ClientMetricsRegistry {
+
+    static final String OTHER = "other";
+
+    private final long maxLatencyMicros;
+    private final int maxSeries;
+    private final AtomicInteger seriesCount = new AtomicInteger();
+    private final Map<String, Map<HttpMethod, RouteMetrics>> routes = new ConcurrentHashMap<>();
+
+    public ClientMetricsRegistry(long maxLatencyMillis, int maxSeries) {
+        this.maxLatencyMicros = TimeUnit.MILLISECONDS.toMicros(maxLatencyMillis);
+        this.maxSeries = maxSeries;
+    }
+
+    RouteMetrics route(HttpRequest request) {
+        Object template = request.getAttributes().get(CompiledUriTemplate.ATTRIBUTE);
+        String key = template instanceof String uriTemplate ? uriTemplate : request.getURI().getRawPath();
+        Map<HttpMethod, RouteMetrics> byMethod = routes.get(key);
+        if (byMethod == null) {
+            if (seriesCount.get() >= maxSeries) {
+                key = OTHER;
+            }
+            byMethod = routes.computeIfAbsent(key, k -> new ConcurrentHashMap<>());
+        }
+        RouteMetrics route = byMethod.get(request.getMethod());
+        if (route == null) {
+            String displayTemplate = pathOf(key);
+            route = byMethod.computeIfAbsent(request.getMethod(),
+                    method -> new RouteMetrics(method.name(), displayTemplate, maxLatencyMicros, this));
+        }
+        return route;
+    }
+
+    void seriesCreated() {
+        seriesCount.incrementAndGet();
+    }
+
+    public List<RouteMetrics> getRoutes() {
+        List<RouteMetrics> all = new ArrayList<>();
+        routes.values().forEach(byMethod -> all.addAll(byMethod.values()));
+        return all;
+    }
+
+    /**
+     * {@code https://host/users/{id}} -> {@code /users/{id}}
+     */
+    static String pathOf(String template) {
+        int scheme = template.indexOf("://");
+        if (scheme < 0) {
+            return template;
+        }
+        int path = template.indexOf('/', scheme + 3);
+        return path < 0 ? "/" : template.substring(path);
+    }
+}
@@ -0,0 +1,17 @@
+package com.folautech.restclient.metrics;
+
+/**
+ * A component with a section of its own in {@code /actuator/restclient}.
+ */
+public interface ClientStatisticsContributor {
+
+    /**
+     * Key of the section.
+     */
+    String getStatisticsSection();
+
+    /**
+     * Current statistics; null or an empty map leaves the section out.
+     */
+    Object getStatistics();
+}
@@ -0,0 +1,101 @@
+package com.folautech.restclient.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and byte counters for one method + URI template + status. Recording goes into an
+ * HdrHistogram {@link Recorder}, which is wait-free and allocation-free; readers swap out interval
+ * histograms and fold them into the cumulative and since-last-report views.
+ */
+public class EndpointSeries {
+
+    private final String method;
+    private final String uriTemplate;
+    private final int status;
+    private final long maxLatencyMicros;
+
+    private final Recorder recorder;
+    private final Histogram cumulative;
+    private final Histogram sinceReport;
+    private Histogram recycled;
+
+    private final LongAdder requestBytes = new LongAdder();
+    private final LongAdder responseBytes = new LongAdder();
+
+    EndpointSeries(String method, String uriTemplate, int status, long maxLatencyMicros) {
+        this.method = method;
+        this.uriTemplate = uriTemplate;
+        this.status = status;
+        this.maxLatencyMicros = maxLatencyMicros;
+        this.recorder = new Recorder(maxLatencyMicros, 3);
+        this.cumulative = new Histogram(maxLatencyMicros, 3);
+        this.sinceReport = new Histogram(maxLatencyMicros, 3);
+    }
+
+    void record(long latencyNanos, long sentBytes, long receivedBytes) {
+        recorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), maxLatencyMicros));
+        requestBytes.add(sentBytes);
+        addResponseBytes(receivedBytes);
+    }
+
+    void addResponseBytes(long receivedBytes) {
+        if (receivedBytes > 0) {
+            responseBytes.add(receivedBytes);
+        }
+    }
+
+    /**
+     * Copy of all latencies recorded so far, in microseconds.
+     */
+    public synchronized Histogram cumulative() {
+        rollover();
+        return cumulative.copy();
+    }
+
+    /**
+     * Latencies recorded since the previous call, in microseconds; resets the window.
+     */
+    public synchronized Histogram drainSinceReport() {
+        rollover();
+        Histogram window = sinceReport.copy();
+        sinceReport.reset();
+        return window;
+    }
+
+    private void rollover() {
+        recycled = recorder.getIntervalHistogram(recycled);
+        cumulative.add(recycled);
+        sinceReport.add(recycled);
+    }
+
+    public boolean isError() {
+        return status == 0 || status >= 500;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUriTemplate() {
+        return uriTemplate;
+    }
+
+    /**
+     * HTTP status, or 0 when the exchange failed with an I/O error before a status was received.
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    public long getRequestBytes() {
+        return requestBytes.sum();
+    }
+
+    public long getResponseBytes() {
+        return responseBytes.sum();
+    }
+}
@@ -0,0 +1,114 @@
+package com.folautech.restclient.metrics;
+
+import com.folautech.restclient.transport.StreamingRequestBody;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Records latency (until response headers), status, in-flight count and request/response bytes per
+ * method + URI template. Response bytes come from Content-Length, or are counted as the body is read
+ * when the upstream streams without one. A streamed request body is counted as it was written to the connection.
+ */
+public class MetricsInterceptor implements ClientHttpRequestInterceptor {
+
+    private final ClientMetricsRegistry registry;
+
+    public MetricsInterceptor(ClientMetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        RouteMetrics route = registry.route(request);
+        route.started();
+        long start = System.nanoTime();
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException | RuntimeException e) {
+            route.series(0).record(System.nanoTime() - start, requestBytes(request, body), 0);
+            throw e;
+        } finally {
+            route.finished();
+        }
+
+        long elapsed = System.nanoTime() - start;
+        EndpointSeries series = route.series(response.getStatusCode().value());
+        long contentLength = response.getHeaders().getContentLength();
+        series.record(elapsed, requestBytes(request, body), contentLength);
+        return contentLength >= 0 ? response : new CountingResponse(response, series);
+    }
+
+    private static long requestBytes(HttpRequest request, byte[] body) {
+        if (body.length > 0) {
+            return body.length;
+        }
+        StreamingRequestBody streamed = StreamingRequestBody.of(request);
+        return streamed != null ? streamed.getBytesWritten() : 0;
+    }
+
+    private static class CountingResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final EndpointSeries series;
+        private InputStream body;
+
+        CountingResponse(ClientHttpResponse delegate, EndpointSeries series) {
+            this.delegate = delegate;
+            this.series = series;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new FilterInputStream(delegate.getBody()) {
+                    @Override
+                    public int read() throws IOException {
+                        int b = super.read();
+                        if (b != -1) {
+                            series.addResponseBytes(1);
+                        }
+                        return b;
+                    }
+
+                    @Override
+                    public int read(byte[] b, int off, int len) throws IOException {
+                        int n = super.read(b, off, len);
+                        series.addResponseBytes(n);
+                        return n;
+                    }
+                };
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.folautech.restclient.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes a per-endpoint summary of the last interval to the log: count, rate and p50/p99/p999.
+ */
+@Slf4j
+public class MetricsLogReporter implements AutoCloseable {
+
+    private final ClientMetricsRegistry registry;
+    private final Duration interval;
+    private final ScheduledExecutorService scheduler;
+
+    public MetricsLogReporter(ClientMetricsRegistry registry, Duration interval) {
+        this.registry = registry;
+        this.interval = interval;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("rest-client-metrics").daemon().factory());
+        if (!interval.isZero()) {
+            scheduler.scheduleAtFixedRate(this::report, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    void report() {
+        double seconds = interval.toMillis() / 1000.0;
+        for (RouteMetrics route : registry.getRoutes()) {
+            for (EndpointSeries series : route.getSeries()) {
+                Histogram window = series.drainSinceReport();
+                if (window.getTotalCount() == 0) {
+                    continue;
+                }
+                log.info("{} {} {} : count={} rate={}/s p50={}us p99={}us p999={}us max={}us inFlight={}",
+                        series.getMethod(), series.getUriTemplate(), series.getStatus() == 0 ? "IO_ERROR" : series.getStatus(),
+                        window.getTotalCount(), String.format("%.1f", window.getTotalCount() / seconds),
+                        window.getValueAtPercentile(50), window.getValueAtPercentile(99),
+                        window.getValueAtPercentile(99.9), window.getMaxValue(), route.getInFlight());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
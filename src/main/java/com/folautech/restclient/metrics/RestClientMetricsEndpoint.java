@@ -0,0 +1,80 @@
+package com.folautech.restclient.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code /actuator/restclient}, the client's state since startup.
+ * <ul>
+ *     <li>{@code endpoints}: per method and URI template, the count, error rate and calls in flight, and per
+ *     status the latency percentiles and byte totals</li>
+ *     <li>one section per {@link ClientStatisticsContributor} bean: the response cache and its store, coalescing,
+ *     resilience, bulkheads, replicas, concurrency limits, compression, codecs, buffers, slow calls, the post
+ *     replica and the warm-up</li>
+ * </ul>
+ */
+@Endpoint(id = "restclient")
+public class RestClientMetricsEndpoint {
+
+    private final ClientMetricsRegistry registry;
+    private final ObjectProvider<ClientStatisticsContributor> contributors;
+
+    public RestClientMetricsEndpoint(ClientMetricsRegistry registry,
+                                     ObjectProvider<ClientStatisticsContributor> contributors) {
+        this.registry = registry;
+        this.contributors = contributors;
+    }
+
+    @ReadOperation
+    public Map<String, Object> metrics() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        for (RouteMetrics route : registry.getRoutes()) {
+            long total = 0;
+            long errors = 0;
+            List<Map<String, Object>> statuses = new ArrayList<>();
+            for (EndpointSeries series : route.getSeries()) {
+                Histogram histogram = series.cumulative();
+                total += histogram.getTotalCount();
+                if (series.isError()) {
+                    errors += histogram.getTotalCount();
+                }
+                Map<String, Object> status = new LinkedHashMap<>();
+                status.put("status", series.getStatus() == 0 ? "IO_ERROR" : series.getStatus());
+                status.put("count", histogram.getTotalCount());
+                status.put("p50Micros", histogram.getValueAtPercentile(50));
+                status.put("p99Micros", histogram.getValueAtPercentile(99));
+                status.put("p999Micros", histogram.getValueAtPercentile(99.9));
+                status.put("maxMicros", histogram.getMaxValue());
+                status.put("meanMicros", Math.round(histogram.getMean()));
+                status.put("requestBytes", series.getRequestBytes());
+                status.put("responseBytes", series.getResponseBytes());
+                statuses.add(status);
+            }
+            Map<String, Object> endpoint = new LinkedHashMap<>();
+            endpoint.put("method", route.getMethod());
+            endpoint.put("uri", route.getUriTemplate());
+            endpoint.put("count", total);
+            endpoint.put("errorRate", total == 0 ? 0.0 : (double) errors / total);
+            endpoint.put("inFlight", route.getInFlight());
+            endpoint.put("statuses", statuses);
+            endpoints.add(endpoint);
+        }
+        result.put("endpoints", endpoints);
+
+        contributors.orderedStream().forEach(contributor -> {
+            Object statistics = contributor.getStatistics();
+            if (statistics != null && !(statistics instanceof Map<?, ?> map && map.isEmpty())) {
+                result.put(contributor.getStatisticsSection(), statistics);
+            }
+        });
+        return result;
+    }
+}
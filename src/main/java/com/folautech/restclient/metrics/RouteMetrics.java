@@ -0,0 +1,73 @@
+package com.folautech.restclient.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * All series for one method + URI template, indexed by status so the hot path never builds a key.
+ */
+public class RouteMetrics {
+
+    private static final int STATUS_SLOTS = 600;
+
+    private final String method;
+    private final String uriTemplate;
+    private final long maxLatencyMicros;
+    private final ClientMetricsRegistry registry;
+    private final AtomicReferenceArray<EndpointSeries> byStatus = new AtomicReferenceArray<>(STATUS_SLOTS);
+    private final LongAdder inFlight = new LongAdder();
+
+    RouteMetrics(String method, String uriTemplate, long maxLatencyMicros, ClientMetricsRegistry registry) {
+        this.method = method;
+        this.uriTemplate = uriTemplate;
+        this.maxLatencyMicros = maxLatencyMicros;
+        this.registry = registry;
+    }
+
+    EndpointSeries series(int status) {
+        int slot = status > 0 && status < STATUS_SLOTS ? status : 0;
+        EndpointSeries series = byStatus.get(slot);
+        if (series == null) {
+            EndpointSeries created = new EndpointSeries(method, uriTemplate, slot, maxLatencyMicros);
+            series = byStatus.compareAndExchange(slot, null, created);
+            if (series == null) {
+                series = created;
+                registry.seriesCreated();
+            }
+        }
+        return series;
+    }
+
+    void started() {
+        inFlight.increment();
+    }
+
+    void finished() {
+        inFlight.decrement();
+    }
+
+    public long getInFlight() {
+        return inFlight.sum();
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUriTemplate() {
+        return uriTemplate;
+    }
+
+    public List<EndpointSeries> getSeries() {
+        List<EndpointSeries> series = new ArrayList<>();
+        for (int i = 0; i < STATUS_SLOTS; i++) {
+            EndpointSeries s = byStatus.get(i);
+            if (s != null) {
+                series.add(s);
+            }
+        }
+        return series;
+    }
+}
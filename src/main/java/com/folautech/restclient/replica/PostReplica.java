@@ -0,0 +1,273 @@
+package com.folautech.restclient.replica;
+
+import com.folautech.restclient.config.RestClientProperties;
+import com.folautech.restclient.dto.CompactPost;
+import com.folautech.restclient.dto.Post;
+import com.folautech.restclient.metrics.ClientStatisticsContributor;
+import com.folautech.restclient.utility.CompiledUriTemplate;
+import com.folautech.restclient.utility.LongIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestClient;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * In-process copy of every post, indexed by id and by userId, so post lookups are answered from memory instead of
+ * one upstream query each.
+ * <p>
+ * The whole data set is loaded when the context starts and reloaded every {@code refreshInterval} in the
+ * background. A reload compares each record's content hash with the current snapshot: unchanged records keep
+ * their existing objects, and if nothing was added, changed or removed the indexes are kept as they are. The new
+ * snapshot replaces the old one with a single volatile write, so readers see one consistent version and never wait
+ * for a reload. A read that finds the snapshot older than {@code refreshInterval} still gets it, and starts a reload
+ * in the background (stale-while-revalidate), at most once per {@code retryInterval} while reloads are failing;
+ * past {@code maxStaleness} readers get null and the caller asks the upstream.
+ */
+@Slf4j
+public class PostReplica implements SmartLifecycle, ClientStatisticsContributor {
+
+    private final Supplier<List<CompactPost>> loader;
+    private final long refreshIntervalMillis;
+    private final long refreshIntervalNanos;
+    private final long maxStalenessNanos;
+    private final long retryIntervalNanos;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+    private volatile ScheduledExecutorService scheduler;
+    private volatile boolean failing;
+    private volatile long failedAt;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder failedRefreshes = new LongAdder();
+    private final LongAdder changedRecords = new LongAdder();
+
+    public PostReplica(Supplier<List<CompactPost>> loader, RestClientProperties.Replica properties) {
+        this.loader = loader;
+        this.refreshIntervalMillis = Math.max(1, properties.getRefreshInterval().toMillis());
+        this.refreshIntervalNanos = TimeUnit.MILLISECONDS.toNanos(refreshIntervalMillis);
+        this.maxStalenessNanos = properties.getMaxStaleness().toNanos();
+        this.retryIntervalNanos = properties.getRetryInterval().toNanos();
+    }
+
+    /**
+     * Loads {@code /posts} below {@code baseUrl} through {@code restClient}. The request carries
+     * {@code Cache-Control: no-cache}, so an HTTP cache in the chain forwards it instead of handing back the list
+     * it loaded last time.
+     */
+    public static Supplier<List<CompactPost>> loader(RestClient restClient, String baseUrl) {
+        CompiledUriTemplate posts = CompiledUriTemplate.of(baseUrl, "/posts");
+        return () -> restClient.get()
+                .uri(posts.expand())
+                .attribute(CompiledUriTemplate.ATTRIBUTE, posts.template())
+                .accept(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue())
+                .retrieve()
+                .body(new ParameterizedTypeReference<>() {});
+    }
+
+    /**
+     * The posts of {@code userId} (empty if it has none), or null when the replica has no usable snapshot.
+     */
+    public List<Post> postsByUserId(long userId) {
+        Snapshot current = usable();
+        if (current == null) {
+            return null;
+        }
+        List<CompactPost> posts = current.byUserId().get(userId);
+        List<Post> result = new ArrayList<>(posts == null ? 0 : posts.size());
+        if (posts != null) {
+            posts.forEach(post -> result.add(post.toPost()));
+        }
+        return result;
+    }
+
+    /**
+     * The post with {@code id}, or null when the replica has no usable snapshot or does not know the id (it may
+     * have been created upstream since the last reload).
+     */
+    public Post postById(long id) {
+        Snapshot current = usable();
+        if (current == null) {
+            return null;
+        }
+        CompactPost post = current.byId().get(id);
+        return post == null ? null : post.toPost();
+    }
+
+    /**
+     * Reloads the data set now, unless a reload is already running. Returns whether it ran and succeeded.
+     */
+    public boolean refresh() {
+        if (!refreshLock.tryLock()) {
+            return false;
+        }
+        try {
+            long start = System.nanoTime();
+            Snapshot previous = snapshot;
+            Snapshot next = merge(previous, loader.get());
+            snapshot = next;
+            failing = false;
+            refreshes.increment();
+            if (next.version() != (previous == null ? 0 : previous.version())) {
+                log.info("Post replica v{}: {} posts, {} added, {} changed, {} removed in {} ms", next.version(),
+                        next.byId().size(), next.added(), next.changed(), next.removed(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+            return true;
+        } catch (RuntimeException e) {
+            failedAt = System.nanoTime();
+            failing = true;
+            failedRefreshes.increment();
+            log.warn("Post replica refresh failed: {}", e.getMessage());
+            return false;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    @Override
+    public String getStatisticsSection() {
+        return "replica";
+    }
+
+    @Override
+    public ReplicaStatistics getStatistics() {
+        Snapshot current = snapshot;
+        return new ReplicaStatistics(current == null ? 0 : current.byId().size(),
+                current == null ? 0 : current.byUserId().size(), current == null ? 0 : current.version(),
+                current == null ? -1 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - current.loadedAt()),
+                hits.sum(), misses.sum(), refreshes.sum(), failedRefreshes.sum(), changedRecords.sum());
+    }
+
+    @Override
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().name("rest-client-replica").factory());
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, refreshIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService current = scheduler;
+        if (current != null) {
+            current.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    private Snapshot usable() {
+        Snapshot current = snapshot;
+        long now = System.nanoTime();
+        long age = current == null ? Long.MAX_VALUE : now - current.loadedAt();
+        if (age > refreshIntervalNanos && !refreshLock.isLocked()
+                && (!failing || now - failedAt >= retryIntervalNanos)) {
+            Thread.ofVirtual().name("rest-client-replica-revalidate").start(this::refresh);
+        }
+        if (age > maxStalenessNanos) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return current;
+    }
+
+    private Snapshot merge(Snapshot previous, List<CompactPost> fetched) {
+        long now = System.nanoTime();
+        List<CompactPost> posts = new ArrayList<>(fetched.size());
+        int added = 0;
+        int changed = 0;
+        for (CompactPost post : fetched) {
+            long hash = hash(post);
+            int index = previous == null ? -1 : previous.byId().indexOf(post.id());
+            if (index < 0) {
+                added++;
+                posts.add(post);
+            } else if (previous.hashes()[index] != hash) {
+                changed++;
+                posts.add(post);
+            } else {
+                posts.add(previous.byId().valueAt(index));
+            }
+        }
+        int kept = fetched.size() - added;
+        int removed = previous == null ? 0 : previous.byId().size() - kept;
+        if (previous != null) {
+            changedRecords.add(added + changed + removed);
+        }
+        if (previous != null && added == 0 && changed == 0 && removed == 0) {
+            return new Snapshot(previous.version(), now, previous.byId(), previous.hashes(), previous.byUserId(),
+                    0, 0, 0);
+        }
+
+        LongIndex<CompactPost> byId = LongIndex.uniqueBy(posts, CompactPost::id);
+        long[] hashes = new long[byId.size()];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = hash(byId.valueAt(i));
+        }
+        return new Snapshot(previous == null ? 1 : previous.version() + 1, now, byId, hashes,
+                LongIndex.groupBy(posts, CompactPost::userId), added, changed, removed);
+    }
+
+    /**
+     * 64-bit FNV-1a over the record's fields, so a change to any of them shows up as a different hash.
+     */
+    static long hash(CompactPost post) {
+        long hash = 0xcbf29ce484222325L;
+        hash = mix(hash, post.id());
+        hash = mix(hash, post.userId());
+        hash = mix(hash, post.title());
+        return mix(hash, post.body());
+    }
+
+    private static long mix(long hash, long value) {
+        for (int i = 0; i < 8; i++) {
+            hash = (hash ^ ((value >>> (i * 8)) & 0xff)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, String value) {
+        if (value == null) {
+            return mix(hash, -1L);
+        }
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        return mix(hash, value.length());
+    }
+
+    /**
+     * One consistent version of the data set; {@code hashes} is aligned with {@code byId}.
+     */
+    private record Snapshot(long version, long loadedAt, LongIndex<CompactPost> byId, long[] hashes,
+                            LongIndex<List<CompactPost>> byUserId, int added, int changed, int removed) {
+    }
+
+    /**
+     * Replica size and version, age of the snapshot in ms (-1 before the first load), lookups served ({@code hits})
+     * and passed to the upstream ({@code misses}), and reload counters since startup; {@code changedRecords} counts
+     * records added, changed or removed by reloads after the first load.
+     */
+    public record ReplicaStatistics(int posts, int users, long version, long ageMillis, long hits, long misses,
+                                    long refreshes, long failedRefreshes, long changedRecords) {
+    }
+}
@@ -0,0 +1,120 @@
+package com.folautech.restclient.resilience;
+
+import com.folautech.restclient.config.RestClientProperties;
+
+/**
+ * Count-based circuit breaker for one upstream host.
+ * <p>
+ * CLOSED: calls flow, outcomes go into a ring buffer; when the failure rate over the window crosses the
+ * threshold the breaker opens. OPEN: calls are rejected until {@code openDuration} has passed.
+ * HALF_OPEN: a few probe calls are let through; if they all succeed the breaker closes, any failure reopens it.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long openDurationMillis;
+    private final int halfOpenProbes;
+
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    public CircuitBreaker(RestClientProperties.Breaker properties) {
+        this.failureRateThreshold = properties.getFailureRateThreshold();
+        this.minimumCalls = properties.getMinimumCalls();
+        this.openDurationMillis = properties.getOpenDuration().toMillis();
+        this.halfOpenProbes = properties.getHalfOpenProbes();
+        this.window = new boolean[Math.max(1, properties.getWindowSize())];
+    }
+
+    /**
+     * Whether a call may proceed now. Every {@code true} must be followed by onSuccess or onFailure.
+     */
+    public synchronized boolean tryAcquire(long nowMillis) {
+        if (state == State.OPEN) {
+            if (nowMillis - openedAt < openDurationMillis) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probesStarted = 0;
+            probesSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesStarted >= halfOpenProbes) {
+                return false;
+            }
+            probesStarted++;
+        }
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++probesSucceeded >= halfOpenProbes) {
+                reset();
+            }
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure(long nowMillis) {
+        if (state == State.HALF_OPEN) {
+            open(nowMillis);
+            return;
+        }
+        record(true);
+        if (windowCount >= minimumCalls && (double) windowFailures / windowCount >= failureRateThreshold) {
+            open(nowMillis);
+        }
+    }
+
+    /**
+     * The call was abandoned before it produced an outcome (e.g. a cancelled hedge); frees its probe slot.
+     */
+    public synchronized void onCancelled() {
+        if (state == State.HALF_OPEN && probesStarted > 0) {
+            probesStarted--;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (windowCount == window.length) {
+            if (window[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private void open(long nowMillis) {
+        state = State.OPEN;
+        openedAt = nowMillis;
+    }
+
+    private void reset() {
+        state = State.CLOSED;
+        windowIndex = 0;
+        windowCount = 0;
+        windowFailures = 0;
+    }
+}
@@ -0,0 +1,14 @@
+package com.folautech.restclient.resilience;
+
+import java.io.IOException;
+
+/**
+ * Thrown instead of calling a host whose circuit breaker is open. RestClient surfaces it as a
+ * ResourceAccessException, like any other I/O failure.
+ */
+public class CircuitBreakerOpenException extends IOException {
+
+    public CircuitBreakerOpenException(String host) {
+        super("Circuit breaker open for " + host);
+    }
+}
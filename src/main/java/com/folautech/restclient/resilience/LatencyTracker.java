@@ -0,0 +1,50 @@
+package com.folautech.restclient.resilience;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Recent latency distribution for one endpoint (method + URI template), used to pick the hedge delay. The percentile is
+ * recomputed at most once a second over a decaying window; in between, readers get the cached value.
+ */
+class LatencyTracker {
+
+    private static final long MAX_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final long REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long MIN_SAMPLES = 20;
+
+    private final Recorder recorder = new Recorder(MAX_MICROS, 2);
+    private final Histogram window = new Histogram(MAX_MICROS, 2);
+    private final ReentrantLock lock = new ReentrantLock();
+    private Histogram interval;
+    private volatile long percentileMicros = -1;
+    private volatile long refreshedAt = System.nanoTime();
+
+    void record(long latencyNanos) {
+        recorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_MICROS));
+    }
+
+    long hedgeDelayMicros(double percentile, long minMicros) {
+        long now = System.nanoTime();
+        if (now - refreshedAt > REFRESH_NANOS && lock.tryLock()) {
+            try {
+                interval = recorder.getIntervalHistogram(interval);
+                if (window.getTotalCount() > 10_000) {
+                    // keep the window recent: drop history once it is large enough to be stale
+                    window.reset();
+                }
+                window.add(interval);
+                if (window.getTotalCount() >= MIN_SAMPLES) {
+                    percentileMicros = window.getValueAtPercentile(percentile);
+                }
+                refreshedAt = now;
+            } finally {
+                lock.unlock();
+            }
+        }
+        return Math.max(minMicros, percentileMicros);
+    }
+}
@@ -0,0 +1,374 @@
+package com.folautech.restclient.resilience;
+
+import com.folautech.restclient.bulkhead.BulkheadFullException;
+import com.folautech.restclient.config.RestClientProperties;
+import com.folautech.restclient.limit.ConcurrencyLimitExceededException;
+import com.folautech.restclient.metrics.ClientStatisticsContributor;
+import com.folautech.restclient.transport.ConnectionUnavailableException;
+import com.folautech.restclient.transport.PerHostLimitingRequestFactory;
+import com.folautech.restclient.utility.CompiledUriTemplate;
+import com.folautech.restclient.utility.MdcTaskDecorator;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Retries, per-host circuit breaking and hedged requests, configured per HTTP method.
+ * <ul>
+ *     <li>I/O errors and responses listed in {@code retryOnStatus} are retried with full-jitter exponential
+ *     backoff; a Retry-After header longer than {@code maxBackoff} ends the retries</li>
+ *     <li>every extra attempt, retry or hedge, draws from a shared {@link RetryBudget}</li>
+ *     <li>I/O errors and 5xx responses feed a {@link CircuitBreaker} per scheme + host + port; while it is
+ *     open calls fail fast with {@link CircuitBreakerOpenException}</li>
+ *     <li>with {@code hedge} enabled, a duplicate is sent when the first attempt has not answered within the
+ *     recent {@code hedgePercentile} latency of its endpoint (method + URI template); the first response wins and
+ *     the other is cancelled. The first attempt runs on the caller's thread, and only the hedge gets its own,
+ *     carrying the caller's MDC</li>
+ * </ul>
+ * Sits between the cache and the concurrency limiter, so every attempt takes its own slot and shows up in the
+ * latency histograms. Rejections by a bulkhead, the limiter or the connection pool are neither retried nor counted
+ * against the breaker.
+ */
+public class ResilienceInterceptor implements ClientHttpRequestInterceptor, ClientStatisticsContributor {
+
+    private final Map<String, RestClientProperties.MethodPolicy> policies;
+    private final RestClientProperties.Breaker breakerProperties;
+    private final RetryBudget budget;
+    private final ConcurrentHashMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LatencyTracker> latencies = new ConcurrentHashMap<>();
+
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder hedges = new LongAdder();
+    private final LongAdder hedgeWins = new LongAdder();
+    private final LongAdder breakerRejections = new LongAdder();
+    private final LongAdder budgetExhausted = new LongAdder();
+    private final MdcTaskDecorator mdc = new MdcTaskDecorator();
+    private final ScheduledThreadPoolExecutor hedgeTimer;
+
+    public ResilienceInterceptor(RestClientProperties.Resilience properties) {
+        this.policies = Map.copyOf(properties.getMethods());
+        this.breakerProperties = properties.getCircuitBreaker();
+        this.budget = new RetryBudget(properties.getRetryBudget().getRatio(),
+                properties.getRetryBudget().getMaxTokens());
+        this.hedgeTimer = new ScheduledThreadPoolExecutor(1, runnable ->
+                Thread.ofPlatform().name("rest-client-hedge-timer").daemon().unstarted(runnable));
+        // most timers are cancelled because the first attempt answered in time
+        this.hedgeTimer.setRemoveOnCancelPolicy(true);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String host = PerHostLimitingRequestFactory.hostKey(request.getURI());
+        CircuitBreaker breaker = breakers.computeIfAbsent(host, key -> new CircuitBreaker(breakerProperties));
+        RestClientProperties.MethodPolicy policy = policies.get(request.getMethod().name());
+        budget.deposit();
+        if (policy == null) {
+            return attempt(request, body, execution, host, breaker, null);
+        }
+        LatencyTracker tracker = latencies.computeIfAbsent(latencyKey(request, host), key -> new LatencyTracker());
+
+        for (int attempt = 1; ; attempt++) {
+            boolean last = attempt >= policy.getMaxAttempts();
+            long retryAfterMillis = 0;
+            try {
+                ClientHttpResponse response = policy.isHedge()
+                        ? hedged(request, body, execution, host, breaker, tracker, policy)
+                        : attempt(request, body, execution, host, breaker, tracker);
+                if (last || !policy.getRetryOnStatus().contains(response.getStatusCode().value())) {
+                    return response;
+                }
+                retryAfterMillis = retryAfterMillis(response.getHeaders());
+                if (retryAfterMillis > policy.getMaxBackoff().toMillis() || !withdraw()) {
+                    return response;
+                }
+                response.close();
+            } catch (CircuitBreakerOpenException | ConcurrencyLimitExceededException | BulkheadFullException
+                     | ConnectionUnavailableException | InterruptedIOException e) {
+                // local rejections are never retried: they mean this client is already over capacity
+                throw e;
+            } catch (IOException e) {
+                if (last || !withdraw()) {
+                    throw e;
+                }
+            }
+            retries.increment();
+            sleep(Math.max(retryAfterMillis, backoffMillis(policy, attempt)), request);
+        }
+    }
+
+    @Override
+    public String getStatisticsSection() {
+        return "resilience";
+    }
+
+    @Override
+    public ResilienceStatistics getStatistics() {
+        Map<String, CircuitBreaker.State> states = new LinkedHashMap<>();
+        breakers.forEach((host, breaker) -> states.put(host, breaker.getState()));
+        return new ResilienceStatistics(retries.sum(), hedges.sum(), hedgeWins.sum(), breakerRejections.sum(),
+                budgetExhausted.sum(), budget.getTokens(), states);
+    }
+
+    private ClientHttpResponse attempt(HttpRequest request, byte[] body, ClientHttpRequestExecution execution,
+                                       String host, CircuitBreaker breaker, LatencyTracker tracker)
+            throws IOException {
+        if (!breaker.tryAcquire(System.currentTimeMillis())) {
+            breakerRejections.increment();
+            throw new CircuitBreakerOpenException(host);
+        }
+        long start = System.nanoTime();
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (InterruptedIOException | ConcurrencyLimitExceededException | BulkheadFullException
+                 | ConnectionUnavailableException e) {
+            breaker.onCancelled();
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            if (Thread.currentThread().isInterrupted()) {
+                breaker.onCancelled();
+            } else {
+                breaker.onFailure(System.currentTimeMillis());
+            }
+            throw e;
+        }
+        if (tracker != null) {
+            tracker.record(System.nanoTime() - start);
+        }
+        if (response.getStatusCode().is5xxServerError()) {
+            breaker.onFailure(System.currentTimeMillis());
+        } else {
+            breaker.onSuccess();
+        }
+        return response;
+    }
+
+    private ClientHttpResponse hedged(HttpRequest request, byte[] body, ClientHttpRequestExecution execution,
+                                      String host, CircuitBreaker breaker, LatencyTracker tracker,
+                                      RestClientProperties.MethodPolicy policy) throws IOException {
+        long delayMicros = tracker.hedgeDelayMicros(policy.getHedgePercentile(),
+                TimeUnit.NANOSECONDS.toMicros(policy.getHedgeMinDelay().toNanos()));
+        Race race = new Race(Thread.currentThread());
+        Runnable hedge = mdc.decorate(() -> race.deliver(run(() -> attempt(request, body, execution, host, breaker,
+                tracker), true)));
+        ScheduledFuture<?> timer = hedgeTimer.schedule(() -> {
+            if (race.canLaunch() && withdraw()) {
+                if (race.launch(hedge)) {
+                    hedges.increment();
+                }
+            }
+        }, delayMicros, TimeUnit.MICROSECONDS);
+        try {
+            Outcome outcome = run(() -> attempt(request, body, execution, host, breaker, tracker), false);
+            timer.cancel(false);
+            outcome = race.finish(outcome);
+            if (outcome.response() != null && outcome.hedge()) {
+                hedgeWins.increment();
+            }
+            return outcome.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for " + request.getURI());
+        } finally {
+            timer.cancel(false);
+            race.settle();
+        }
+    }
+
+    private static Outcome run(Attempt attempt, boolean hedge) {
+        try {
+            return new Outcome(attempt.execute(), null, hedge);
+        } catch (Throwable t) {
+            return new Outcome(null, t, hedge);
+        }
+    }
+
+    /**
+     * Method and URI template, as in the client metrics, so a slow endpoint does not set the hedge delay of a
+     * fast one on the same host; method and host for calls made without a template.
+     */
+    static String latencyKey(HttpRequest request, String host) {
+        Object template = request.getAttributes().get(CompiledUriTemplate.ATTRIBUTE);
+        return request.getMethod().name() + " " + (template instanceof String uriTemplate ? uriTemplate : host);
+    }
+
+    private boolean withdraw() {
+        if (budget.tryWithdraw()) {
+            return true;
+        }
+        budgetExhausted.increment();
+        return false;
+    }
+
+    private static long backoffMillis(RestClientProperties.MethodPolicy policy, int attempt) {
+        double exponential = policy.getInitialBackoff().toMillis()
+                * Math.pow(policy.getBackoffMultiplier(), attempt - 1);
+        long cap = (long) Math.min(policy.getMaxBackoff().toMillis(), exponential);
+        // full jitter: spreads retries from many callers instead of having them return in lockstep
+        return cap <= 0 ? 0 : ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private static long retryAfterMillis(HttpHeaders headers) {
+        String value = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            try {
+                return Math.max(0, headers.getFirstDate(HttpHeaders.RETRY_AFTER) - System.currentTimeMillis());
+            } catch (IllegalArgumentException ignored) {
+                return 0;
+            }
+        }
+    }
+
+    private static void sleep(long millis, HttpRequest request) throws InterruptedIOException {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted backing off from " + request.getURI());
+        }
+    }
+
+    /**
+     * Snapshot of retry and hedging activity and the state of each host's breaker.
+     */
+    public record ResilienceStatistics(long retries, long hedges, long hedgeWins, long breakerRejections,
+                                       long budgetExhausted, double retryTokens,
+                                       Map<String, CircuitBreaker.State> circuitBreakers) {
+    }
+
+    @FunctionalInterface
+    private interface Attempt {
+        ClientHttpResponse execute() throws IOException;
+    }
+
+    private record Outcome(ClientHttpResponse response, Throwable failure, boolean hedge) {
+
+        ClientHttpResponse get() throws IOException {
+            if (failure instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (failure instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (failure instanceof Error error) {
+                throw error;
+            }
+            return response;
+        }
+    }
+
+    /**
+     * The two attempts of one hedged call. The first runs on the caller's thread and the hedge, if the first has not
+     * answered in time, on a virtual thread. A hedge that answers first interrupts the caller's attempt; once the
+     * caller has its answer the race is settled: a running hedge is interrupted and a late response is closed.
+     */
+    private static class Race {
+
+        private final Thread caller;
+        private Thread hedge;
+        private Outcome hedgeOutcome;
+        private boolean callerDone;
+        private boolean callerInterrupted;
+        private boolean settled;
+
+        Race(Thread caller) {
+            this.caller = caller;
+        }
+
+        synchronized boolean canLaunch() {
+            return !callerDone && !settled;
+        }
+
+        /**
+         * Starts the hedge unless the caller's attempt has finished in the meantime.
+         */
+        synchronized boolean launch(Runnable attempt) {
+            if (!canLaunch()) {
+                return false;
+            }
+            hedge = Thread.ofVirtual().name("rest-client-hedge").start(attempt);
+            return true;
+        }
+
+        synchronized void deliver(Outcome outcome) {
+            hedge = null;
+            if (settled) {
+                discard(outcome);
+                return;
+            }
+            hedgeOutcome = outcome;
+            if (!callerDone && outcome.response() != null) {
+                // the hedge won: stop waiting on the first attempt
+                callerInterrupted = true;
+                caller.interrupt();
+            }
+            notifyAll();
+        }
+
+        /**
+         * The answer to return, given the caller's own outcome. A failed attempt only loses if the hedge is still
+         * running and then succeeds.
+         */
+        synchronized Outcome finish(Outcome first) throws InterruptedException {
+            callerDone = true;
+            if (callerInterrupted) {
+                // the interrupt was ours, not the caller's
+                Thread.interrupted();
+                discard(first);
+                return take();
+            }
+            if (first.response() != null || (hedge == null && hedgeOutcome == null)) {
+                return first;
+            }
+            while (hedgeOutcome == null) {
+                wait();
+            }
+            return hedgeOutcome.response() != null ? take() : first;
+        }
+
+        synchronized void settle() {
+            settled = true;
+            if (hedge != null) {
+                hedge.interrupt();
+            }
+            if (hedgeOutcome != null) {
+                discard(hedgeOutcome);
+                hedgeOutcome = null;
+            }
+        }
+
+        private Outcome take() {
+            Outcome outcome = hedgeOutcome;
+            hedgeOutcome = null;
+            return outcome;
+        }
+
+        private static void discard(Outcome outcome) {
+            if (outcome.response() != null) {
+                outcome.response().close();
+            }
+        }
+    }
+}
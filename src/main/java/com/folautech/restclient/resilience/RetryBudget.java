@@ -0,0 +1,42 @@
+package com.folautech.restclient.resilience;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket that caps retries and hedges to a fraction of original requests. Each request deposits
+ * {@code ratio} tokens, each retry withdraws one. When the upstream is failing everywhere the bucket
+ * drains and extra attempts stop, so retries cannot multiply load into a storm.
+ */
+public class RetryBudget {
+
+    private static final long SCALE = 1000;
+
+    private final long depositPerRequest;
+    private final long maxBalance;
+    private final AtomicLong balance;
+
+    public RetryBudget(double ratio, int maxTokens) {
+        this.depositPerRequest = Math.round(ratio * SCALE);
+        this.maxBalance = maxTokens * SCALE;
+        this.balance = new AtomicLong(maxBalance);
+    }
+
+    public void deposit() {
+        balance.accumulateAndGet(depositPerRequest, (current, add) -> Math.min(maxBalance, current + add));
+    }
+
+    public boolean tryWithdraw() {
+        long current;
+        do {
+            current = balance.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!balance.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    public double getTokens() {
+        return balance.get() / (double) SCALE;
+    }
+}
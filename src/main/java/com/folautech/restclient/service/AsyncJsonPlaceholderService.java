@@ -0,0 +1,106 @@
+package com.folautech.restclient.service;
+
+import com.folautech.restclient.config.RestClientProperties;
+import com.folautech.restclient.dto.Post;
+import com.folautech.restclient.dto.User;
+import com.folautech.restclient.utility.MdcTaskDecorator;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking facade over {@link JsonPlaceholderService}. Each call runs on the virtual-thread
+ * {@code restClientExecutor} with the caller's MDC.
+ * <p>
+ * Cancelling a returned future, or letting it time out, interrupts the worker. For POST/PUT and uncoalesced GETs
+ * that abandons the HTTP exchange. A coalesced GET belongs to no single caller: the interrupt only detaches this
+ * worker from it, and the shared exchange runs on for the other waiters.
+ * <p>
+ * The MDC is carried by a decorator private to this facade, so Boot's auto-configured executors are left alone.
+ */
+@Service
+public class AsyncJsonPlaceholderService {
+
+    private final JsonPlaceholderService jsonPlaceholderService;
+    private final ExecutorService executor;
+    private final MdcTaskDecorator mdc = new MdcTaskDecorator();
+    private final Duration defaultTimeout;
+
+    public AsyncJsonPlaceholderService(JsonPlaceholderService jsonPlaceholderService,
+                                       @Qualifier("restClientExecutor") ExecutorService executor,
+                                       RestClientProperties properties) {
+        this.jsonPlaceholderService = jsonPlaceholderService;
+        this.executor = executor;
+        this.defaultTimeout = properties.getAsync().getDefaultTimeout();
+    }
+
+    // ==================== GET ====================
+
+    public CompletableFuture<User> getUserById(Long id) {
+        return getUserById(id, defaultTimeout);
+    }
+
+    public CompletableFuture<User> getUserById(Long id, Duration timeout) {
+        return submit(() -> jsonPlaceholderService.getUserById(id), timeout);
+    }
+
+    public CompletableFuture<List<Post>> getAllPosts() {
+        return getAllPosts(defaultTimeout);
+    }
+
+    public CompletableFuture<List<Post>> getAllPosts(Duration timeout) {
+        return submit(jsonPlaceholderService::getAllPosts, timeout);
+    }
+
+    public CompletableFuture<List<Post>> getPostsByUserId(Long userId) {
+        return getPostsByUserId(userId, defaultTimeout);
+    }
+
+    public CompletableFuture<List<Post>> getPostsByUserId(Long userId, Duration timeout) {
+        return submit(() -> jsonPlaceholderService.getPostsByUserId(userId), timeout);
+    }
+
+    // ==================== POST / PUT ====================
+
+    public CompletableFuture<Post> createPost(Post post) {
+        return createPost(post, defaultTimeout);
+    }
+
+    public CompletableFuture<Post> createPost(Post post, Duration timeout) {
+        return submit(() -> jsonPlaceholderService.createPost(post), timeout);
+    }
+
+    public CompletableFuture<Post> updatePost(Long id, Post post) {
+        return updatePost(id, post, defaultTimeout);
+    }
+
+    public CompletableFuture<Post> updatePost(Long id, Post post, Duration timeout) {
+        return submit(() -> jsonPlaceholderService.updatePost(id, post), timeout);
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> call, Duration timeout) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        Future<?> task = executor.submit(mdc.decorate(() -> {
+            try {
+                future.complete(call.get());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }));
+        future.whenComplete((result, error) -> {
+            if (error instanceof CancellationException || error instanceof TimeoutException) {
+                task.cancel(true);
+            }
+        });
+        return future.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+}
@@ -1,25 +1,112 @@
 package com.folautech.restclient.service;
 
+import com.folautech.restclient.config.RestClientProperties;
+import com.folautech.restclient.dto.BulkResult;
+import com.folautech.restclient.dto.CompactPost;
+import com.folautech.restclient.dto.CompactUser;
 import com.folautech.restclient.dto.Post;
 import com.folautech.restclient.dto.User;
+import com.folautech.restclient.replica.PostReplica;
+import com.folautech.restclient.transport.BinaryFormat;
+import com.folautech.restclient.transport.FileRequestBody;
+import com.folautech.restclient.utility.CompiledUriTemplate;
+import com.folautech.restclient.utility.PipelinedWriter;
+import com.folautech.restclient.utility.PrefetchingPageIterator;
+import com.folautech.restclient.utility.SingleFlight;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
+import tools.jackson.databind.MappingIterator;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @Service
 public class JsonPlaceholderService {
 
     private static final Logger log = LoggerFactory.getLogger(JsonPlaceholderService.class);
-    private static final String BASE_URL = "https://jsonplaceholder.typicode.com";
 
     private final RestClient restClient;
+    private final SingleFlight singleFlight;
+    private final int bulkConcurrency;
+    private final int writeWindow;
+    private final int pageSize;
+    private final int readAhead;
+    private final ObjectReader postReader;
+    private final Map<BinaryFormat, ObjectReader> binaryPostReaders = new EnumMap<>(BinaryFormat.class);
+    private final PostReplica replica;
 
-    public JsonPlaceholderService(RestClient restClient) {
+    // parsed once here rather than on every call; requests carry the template for the metrics
+    private final CompiledUriTemplate userById;
+    private final CompiledUriTemplate posts;
+    private final CompiledUriTemplate postsByUserId;
+    private final CompiledUriTemplate postsPage;
+    private final CompiledUriTemplate postById;
+
+    public JsonPlaceholderService(RestClient restClient, SingleFlight singleFlight, RestClientProperties properties,
+                                  JsonMapper jsonMapper) {
+        this(restClient, singleFlight, properties, jsonMapper, (PostReplica) null);
+    }
+
+    @Autowired
+    public JsonPlaceholderService(RestClient restClient, SingleFlight singleFlight, RestClientProperties properties,
+                                  JsonMapper jsonMapper, ObjectProvider<PostReplica> replica) {
+        this(restClient, singleFlight, properties, jsonMapper, replica.getIfAvailable());
+    }
+
+    /**
+     * @param replica answers post lookups from memory when it has a snapshot; null to always ask the upstream
+     */
+    public JsonPlaceholderService(RestClient restClient, SingleFlight singleFlight, RestClientProperties properties,
+                                  JsonMapper jsonMapper, PostReplica replica) {
+        if (properties.getBulk().getMaxConcurrency() < 1) {
+            throw new IllegalArgumentException("restclient.bulk.max-concurrency must be at least 1");
+        }
+        String baseUrl = properties.getBaseUrl();
         this.restClient = restClient;
+        this.singleFlight = singleFlight;
+        this.bulkConcurrency = properties.getBulk().getMaxConcurrency();
+        this.writeWindow = properties.getBulk().getWriteWindow();
+        this.pageSize = properties.getPaging().getPageSize();
+        this.readAhead = properties.getPaging().getReadAhead();
+        this.postReader = jsonMapper.readerFor(Post.class);
+        for (BinaryFormat format : BinaryFormat.values()) {
+            binaryPostReaders.put(format, format.newMapper().readerFor(Post.class));
+        }
+        this.replica = replica;
+        this.userById = CompiledUriTemplate.of(baseUrl, "/users/{id}");
+        this.posts = CompiledUriTemplate.of(baseUrl, "/posts");
+        this.postsByUserId = CompiledUriTemplate.of(baseUrl, "/posts?userId={userId}");
+        this.postsPage = CompiledUriTemplate.of(baseUrl, "/posts?_start={start}&_limit={limit}");
+        this.postById = CompiledUriTemplate.of(baseUrl, "/posts/{id}");
     }
 
     // ==================== GET Examples ====================
@@ -30,11 +117,13 @@ public class JsonPlaceholderService {
     public User getUserById(Long id) {
         log.info("Fetching user with id: {}", id);
 
-        return restClient.get()
-                .uri(BASE_URL + "/users/{id}", id)
+        URI uri = userById.expand(id);
+        return coalesce(uri, () -> restClient.get()
+                .uri(uri)
+                .attribute(CompiledUriTemplate.ATTRIBUTE, userById.template())
                 .accept(MediaType.APPLICATION_JSON)
                 .retrieve()
-                .body(User.class);
+                .body(User.class));
     }
 
     /**
@@ -43,24 +132,165 @@ public class JsonPlaceholderService {
     public List<Post> getAllPosts() {
         log.info("Fetching all posts");
 
-        return restClient.get()
-                .uri(BASE_URL + "/posts")
+        URI uri = posts.expand();
+        return coalesce(uri, () -> restClient.get()
+                .uri(uri)
+                .attribute(CompiledUriTemplate.ATTRIBUTE, posts.template())
                 .accept(MediaType.APPLICATION_JSON)
                 .retrieve()
-                .body(new org.springframework.core.ParameterizedTypeReference<List<Post>>() {});
+                .body(new org.springframework.core.ParameterizedTypeReference<List<Post>>() {}));
     }
 
     /**
-     * GET - Fetch posts by user ID using query parameter
+     * GET - Fetch posts by user ID using query parameter, or from the in-memory replica when it is enabled
      */
     public List<Post> getPostsByUserId(Long userId) {
         log.info("Fetching posts for user id: {}", userId);
 
+        if (replica != null) {
+            List<Post> posts = replica.postsByUserId(userId);
+            if (posts != null) {
+                return posts;
+            }
+        }
+        URI uri = postsByUserId.expand(userId);
+        return coalesce(uri, () -> restClient.get()
+                .uri(uri)
+                .attribute(CompiledUriTemplate.ATTRIBUTE, postsByUserId.template())
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .body(new org.springframework.core.ParameterizedTypeReference<List<Post>>() {}));
+    }
+
+    /**
+     * GET - Fetch a single post by ID, from the in-memory replica when it is enabled and knows the post
+     */
+    public Post getPostById(Long id) {
+        log.info("Fetching post with id: {}", id);
+
+        if (replica != null) {
+            Post post = replica.postById(id);
+            if (post != null) {
+                return post;
+            }
+        }
+        URI uri = postById.expand(id);
+        return coalesce(uri, () -> restClient.get()
+                .uri(uri)
+                .attribute(CompiledUriTemplate.ATTRIBUTE, postById.template())
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .body(Post.class));
+    }
+
+    // ==================== Compact GET ====================
+
+    /**
+     * GET - Fetch all posts as immutable {@link CompactPost}s, for callers that keep large result sets in memory.
+     * Not coalesced with {@link #getAllPosts()}, which decodes the same response to a different type.
+     */
+    public List<CompactPost> getAllPostsCompact() {
+        log.info("Fetching all posts (compact)");
+
+        return restClient.get()
+                .uri(posts.expand())
+                .attribute(CompiledUriTemplate.ATTRIBUTE, posts.template())
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .body(new org.springframework.core.ParameterizedTypeReference<List<CompactPost>>() {});
+    }
+
+    /**
+     * GET - Fetch a single user as an immutable {@link CompactUser}, with its repeated strings interned.
+     */
+    public CompactUser getCompactUserById(long id) {
+        log.info("Fetching user with id: {} (compact)", id);
+
         return restClient.get()
-                .uri(BASE_URL + "/posts?userId={userId}", userId)
+                .uri(userById.expand(id))
+                .attribute(CompiledUriTemplate.ATTRIBUTE, userById.template())
                 .accept(MediaType.APPLICATION_JSON)
                 .retrieve()
-                .body(new org.springframework.core.ParameterizedTypeReference<List<Post>>() {});
+                .body(CompactUser.class);
+    }
+
+    // ==================== Streaming GET ====================
+
+    /**
+     * GET - Stream all posts, decoding one element at a time straight off the connection.
+     * The stream holds the HTTP response open and must be closed, e.g. with try-with-resources.
+     */
+    public Stream<Post> streamAllPosts() {
+        log.info("Streaming all posts");
+
+        return streamPosts(posts);
+    }
+
+    /**
+     * GET - Stream posts by user ID. The stream must be closed.
+     */
+    public Stream<Post> streamPostsByUserId(Long userId) {
+        log.info("Streaming posts for user id: {}", userId);
+
+        return streamPosts(postsByUserId, userId);
+    }
+
+    /**
+     * GET - Hand every post to {@code consumer} as it is decoded. Returns how many posts were read.
+     */
+    public long forEachPost(Consumer<? super Post> consumer) {
+        long count = 0;
+        try (Stream<Post> posts = streamAllPosts()) {
+            for (Iterator<Post> it = posts.iterator(); it.hasNext(); count++) {
+                consumer.accept(it.next());
+            }
+        }
+        return count;
+    }
+
+    // ==================== Paged GET ====================
+
+    /**
+     * GET - Iterate all posts a page at a time ({@code _start}/{@code _limit}), fetching the next pages in the
+     * background while the caller works through the current one. Close the iterator if it is not read to the end.
+     */
+    public PrefetchingPageIterator<Post> iterateAllPosts() {
+        return iterateAllPosts(pageSize, readAhead);
+    }
+
+    /**
+     * GET - Iterate all posts with an explicit page size and read-ahead depth.
+     */
+    public PrefetchingPageIterator<Post> iterateAllPosts(int pageSize, int readAhead) {
+        log.info("Iterating all posts, {} per page, {} pages ahead", pageSize, readAhead);
+
+        return new PrefetchingPageIterator<>((start, limit) -> restClient.get()
+                .uri(postsPage.expand(start, limit))
+                .attribute(CompiledUriTemplate.ATTRIBUTE, postsPage.template())
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .body(new org.springframework.core.ParameterizedTypeReference<List<Post>>() {}),
+                pageSize, readAhead);
+    }
+
+    // ==================== Bulk GET ====================
+
+    /**
+     * GET - Fetch many users concurrently. Results are in input order; a failed id carries its error.
+     */
+    public List<BulkResult<User>> getUsersByIds(Collection<Long> ids) {
+        log.info("Fetching {} users", ids.size());
+
+        return fanOut(ids, this::getUserById);
+    }
+
+    /**
+     * GET - Fetch the posts of many users concurrently. Results are in input order; a failed id carries its error.
+     */
+    public List<BulkResult<List<Post>>> getPostsByUserIds(Collection<Long> userIds) {
+        log.info("Fetching posts for {} users", userIds.size());
+
+        return fanOut(userIds, this::getPostsByUserId);
     }
 
     // ==================== POST Example ====================
@@ -71,15 +301,68 @@ public class JsonPlaceholderService {
     public Post createPost(Post post) {
         log.info("Creating new post: {}", post);
 
+        return sendPost(post);
+    }
+
+    /**
+     * POST - Create a post from a JSON file, streamed from disk through pooled buffers rather than read into memory
+     */
+    public Post createPostFromFile(Path file) {
+        log.info("Creating new post from file: {}", file);
+
+        FileRequestBody body;
+        try {
+            body = new FileRequestBody(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + file, e);
+        }
         return restClient.post()
-                .uri(BASE_URL + "/posts")
+                .uri(posts.expand())
+                .attribute(CompiledUriTemplate.ATTRIBUTE, posts.template())
                 .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(body.contentLength())
                 .accept(MediaType.APPLICATION_JSON)
-                .body(post)
+                .body(body)
                 .retrieve()
                 .body(Post.class);
     }
 
+    // ==================== Bulk POST ====================
+
+    /**
+     * POST - Create many posts, keeping up to {@code restclient.bulk.write-window} requests in flight.
+     * Results are in input order, each carrying its input position as the id; a failed post carries its error.
+     */
+    public List<BulkResult<Post>> createPosts(Iterable<Post> posts) {
+        Map<Long, BulkResult<Post>> results = new ConcurrentHashMap<>();
+        long submitted;
+        long start = System.nanoTime();
+        try (PipelinedWriter<Post, Post> writer = openPostWriter(writeWindow,
+                result -> results.put(result.id(), result))) {
+            for (Post post : posts) {
+                writer.submit(post);
+            }
+            writer.flush();
+            submitted = writer.getSubmitted();
+            log.info("Created {} posts ({} failed) in {} ms", writer.getSucceeded(), writer.getFailed(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        List<BulkResult<Post>> ordered = new ArrayList<>((int) submitted);
+        for (long id = 0; id < submitted; id++) {
+            ordered.add(results.get(id));
+        }
+        return ordered;
+    }
+
+    /**
+     * POST - Open a sink for posts produced over time: {@code submit} blocks while {@code window} POSTs are in
+     * flight, and {@code onResult} is called on a worker thread as each one completes, with the submission
+     * sequence number as the id. Close the writer to wait for the last ones.
+     */
+    public PipelinedWriter<Post, Post> openPostWriter(int window, Consumer<BulkResult<Post>> onResult) {
+        return new PipelinedWriter<>(this::sendPost, window, onResult);
+    }
+
     // ==================== PUT Example ====================
 
     /**
@@ -89,11 +372,108 @@ public class JsonPlaceholderService {
         log.info("Updating post with id: {}", id);
 
         return restClient.put()
-                .uri(BASE_URL + "/posts/{id}", id)
+                .uri(postById.expand(id))
+                .attribute(CompiledUriTemplate.ATTRIBUTE, postById.template())
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .body(post)
+                .retrieve()
+                .body(Post.class);
+    }
+
+    /**
+     * The POST itself, without the per-call log line bulk submissions would flood the log with.
+     */
+    private Post sendPost(Post post) {
+        return restClient.post()
+                .uri(posts.expand())
+                .attribute(CompiledUriTemplate.ATTRIBUTE, posts.template())
                 .contentType(MediaType.APPLICATION_JSON)
                 .accept(MediaType.APPLICATION_JSON)
                 .body(post)
                 .retrieve()
                 .body(Post.class);
     }
+
+    /**
+     * Concurrent identical GETs (same method, expanded URI and Accept) share one upstream exchange
+     * and its decoded result.
+     */
+    private <T> T coalesce(URI uri, Supplier<T> call) {
+        String key = "GET " + uri + " " + MediaType.APPLICATION_JSON_VALUE;
+        return singleFlight.execute(key, call);
+    }
+
+    /**
+     * One virtual thread per id, at most {@code bulkConcurrency} of them calling upstream at a time.
+     */
+    private <T> List<BulkResult<T>> fanOut(Collection<Long> ids, Function<Long, T> call) {
+        Semaphore permits = new Semaphore(bulkConcurrency);
+        List<Long> keys = new ArrayList<>(ids);
+        List<Future<T>> futures = new ArrayList<>(keys.size());
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Long id : keys) {
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return call.apply(id);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+        }
+
+        List<BulkResult<T>> results = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            Long id = keys.get(i);
+            try {
+                results.add(BulkResult.success(id, futures.get(i).get()));
+            } catch (ExecutionException e) {
+                log.warn("Bulk fetch failed for id {}: {}", id, e.getCause().getMessage());
+                results.add(BulkResult.failure(id, e.getCause()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                results.add(BulkResult.failure(id, e));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Binds a lazy element-by-element Jackson reader to the response body. Peak heap is one Post plus
+     * parser buffers, however long the array is. Closing the stream closes the parser and the response.
+     * The reader follows the response Content-Type, since the upstream may have been offered a binary format.
+     */
+    private Stream<Post> streamPosts(CompiledUriTemplate template, Object... uriVariables) {
+        return restClient.get()
+                .uri(template.expand(uriVariables))
+                .attribute(CompiledUriTemplate.ATTRIBUTE, template.template())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange((request, response) -> {
+                    if (response.getStatusCode().isError()) {
+                        try (response) {
+                            throw response.createException();
+                        }
+                    }
+                    try {
+                        BinaryFormat format = BinaryFormat.of(response.getHeaders().getContentType());
+                        ObjectReader reader = format == null ? postReader : binaryPostReaders.get(format);
+                        MappingIterator<Post> posts = reader.readValues(response.getBody());
+                        return StreamSupport.stream(
+                                        Spliterators.spliteratorUnknownSize(posts,
+                                                Spliterator.ORDERED | Spliterator.NONNULL),
+                                        false)
+                                .onClose(() -> {
+                                    posts.close();
+                                    response.close();
+                                });
+                    } catch (IOException | RuntimeException | Error e) {
+                        // no stream to close yet: release the connection and every slot held below here now
+                        response.close();
+                        throw e;
+                    }
+                }, false);
+    }
 }
@@ -0,0 +1,226 @@
+package com.folautech.restclient.startup;
+
+import com.folautech.restclient.config.RestClientProperties;
+import com.folautech.restclient.dto.Post;
+import com.folautech.restclient.dto.User;
+import com.folautech.restclient.metrics.ClientStatisticsContributor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestClient;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.ObjectReader;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Warm-up stage that runs before the web server starts, so neither the port nor the readiness state is
+ * available until it has finished:
+ * <ol>
+ *     <li>resolve the upstream hosts, filling the JVM's DNS cache</li>
+ *     <li>run {@code codecCycles} encode/decode cycles of {@link Post}, {@link User} and {@code List<Post>} on the
+ *     shared JsonMapper, which builds and caches their serializers and deserializers and gets the codec paths
+ *     compiled; the RestClient's JSON converter uses the same mapper</li>
+ *     <li>send {@code requests} GETs for {@code path}, {@code concurrency} at a time, through the full RestClient:
+ *     this opens (and TLS-handshakes) pooled connections and exercises the interceptor chain. They carry
+ *     {@code Cache-Control: no-cache} so the cache forwards them, and they show up in the client metrics like any
+ *     other call</li>
+ * </ol>
+ * Every step is best effort and the whole stage is bounded by {@code timeout}; a failing upstream is logged and
+ * startup continues. The timings are logged and exposed through {@link #getStatistics()}.
+ */
+@Slf4j
+public class ClientWarmup implements SmartLifecycle, ClientStatisticsContributor {
+
+    /**
+     * Before the embedded web server, which starts in {@code DEFAULT_PHASE - 2048}.
+     */
+    static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private static final TypeReference<List<Post>> POST_LIST = new TypeReference<>() {};
+
+    private final RestClient restClient;
+    private final JsonMapper jsonMapper;
+    private final String baseUrl;
+    private final List<String> upstreams;
+    private final RestClientProperties.Warmup properties;
+
+    private volatile boolean running;
+    private volatile WarmupStatistics statistics;
+
+    public ClientWarmup(RestClient restClient, JsonMapper jsonMapper, RestClientProperties properties) {
+        this.restClient = restClient;
+        this.jsonMapper = jsonMapper;
+        this.baseUrl = properties.getBaseUrl();
+        this.upstreams = properties.getBalancer().getUpstreams();
+        this.properties = properties.getWarmup();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        long deadline = System.nanoTime() + properties.getTimeout().toNanos();
+        long start = System.nanoTime();
+
+        int resolved = resolveHosts();
+        long resolveDone = System.nanoTime();
+
+        primeCodecs(deadline);
+        long codecsDone = System.nanoTime();
+
+        int succeeded = resolved > 0 ? sendRequests(deadline) : 0;
+        long end = System.nanoTime();
+
+        statistics = new WarmupStatistics(millis(end - start), millis(resolveDone - start), resolved,
+                millis(codecsDone - resolveDone), properties.getCodecCycles(), millis(end - codecsDone),
+                succeeded, properties.getRequests());
+        log.info("Warm-up done in {} ms: resolve {} ms, codecs {} ms ({} cycles), connections {} ms ({}/{} requests ok)",
+                statistics.totalMillis(), statistics.resolveMillis(), statistics.codecMillis(),
+                statistics.codecCycles(), statistics.requestMillis(), succeeded, properties.getRequests());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    @Override
+    public String getStatisticsSection() {
+        return "warmup";
+    }
+
+    /**
+     * Timings of the last warm-up, or null before it has run.
+     */
+    @Override
+    public WarmupStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * The base URL's host, or the balancer's replicas when they are configured, since those are what calls
+     * actually connect to.
+     */
+    private int resolveHosts() {
+        Set<String> hosts = new LinkedHashSet<>();
+        for (String url : upstreams.isEmpty() ? List.of(baseUrl) : upstreams) {
+            hosts.add(URI.create(url).getHost());
+        }
+        int resolved = 0;
+        for (String host : hosts) {
+            try {
+                InetAddress.getAllByName(host);
+                resolved++;
+            } catch (UnknownHostException e) {
+                log.warn("Warm-up could not resolve {}: {}", host, e.getMessage());
+            }
+        }
+        return resolved;
+    }
+
+    private void primeCodecs(long deadline) {
+        ObjectWriter postWriter = jsonMapper.writerFor(Post.class);
+        ObjectWriter userWriter = jsonMapper.writerFor(User.class);
+        ObjectWriter postListWriter = jsonMapper.writerFor(POST_LIST);
+        ObjectReader postReader = jsonMapper.readerFor(Post.class);
+        ObjectReader userReader = jsonMapper.readerFor(User.class);
+        ObjectReader postListReader = jsonMapper.readerFor(POST_LIST);
+
+        User user = User.builder().id(1L).name("Leanne Graham").username("Bret").email("Sincere@april.biz")
+                .phone("1-770-736-8031 x56442").website("hildegard.org").build();
+        List<Post> posts = new ArrayList<>();
+        for (long id = 1; id <= 10; id++) {
+            posts.add(Post.builder().id(id).userId(1L).title("warm-up " + id).body("warm-up body").build());
+        }
+        for (int i = 0; i < properties.getCodecCycles() && System.nanoTime() < deadline; i++) {
+            postReader.readValue(postWriter.writeValueAsBytes(posts.get(i % posts.size())));
+            userReader.readValue(userWriter.writeValueAsBytes(user));
+            postListReader.readValue(postListWriter.writeValueAsBytes(posts));
+        }
+    }
+
+    private int sendRequests(long deadline) {
+        String uri = baseUrl + properties.getPath();
+        AtomicInteger remaining = new AtomicInteger(properties.getRequests());
+        AtomicInteger succeeded = new AtomicInteger();
+        List<Future<?>> workers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < Math.max(1, properties.getConcurrency()); i++) {
+                workers.add(executor.submit(() -> {
+                    while (remaining.getAndDecrement() > 0 && System.nanoTime() < deadline) {
+                        try {
+                            restClient.get()
+                                    .uri(uri)
+                                    .accept(MediaType.APPLICATION_JSON)
+                                    .header(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue())
+                                    .retrieve()
+                                    .toBodilessEntity();
+                            succeeded.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            log.debug("Warm-up request to {} failed: {}", uri, e.getMessage());
+                        }
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                long left = deadline - System.nanoTime();
+                try {
+                    worker.get(Math.max(0, left), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    log.warn("Warm-up requests did not finish within {}", properties.getTimeout());
+                    executor.shutdownNow();
+                    break;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    executor.shutdownNow();
+                    break;
+                } catch (ExecutionException e) {
+                    log.warn("Exception msg: {}", e.getMessage());
+                }
+            }
+        }
+        if (succeeded.get() == 0) {
+            log.warn("Warm-up requests to {} all failed", uri);
+        }
+        return succeeded.get();
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * Duration of the whole stage and of each step, with how many hosts resolved and how many warm-up
+     * requests succeeded.
+     */
+    public record WarmupStatistics(long totalMillis, long resolveMillis, int resolvedHosts, long codecMillis,
+                                   int codecCycles, long requestMillis, int succeededRequests, int requests) {
+    }
+}
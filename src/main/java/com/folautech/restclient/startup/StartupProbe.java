@@ -0,0 +1,79 @@
+package com.folautech.restclient.startup;
+
+import com.folautech.restclient.config.RestClientProperties;
+import com.folautech.restclient.service.JsonPlaceholderService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Measures how long a fresh instance takes to become useful: time from JVM start to
+ * {@link ApplicationReadyEvent}, and to the first successful {@link JsonPlaceholderService} call after it.
+ * <p>
+ * The service is resolved only after the ready event, so with lazy initialization the client stack is built
+ * inside the measured first call, as it would be for the first real request. The result is logged as
+ * {@code Startup probe: ready=<ms> firstCall=<ms>}, which is the line the startup benchmark parses.
+ * <p>
+ * Always registered and switched on at runtime with {@code restclient.startup.probe}: under Spring AOT bean
+ * conditions are evaluated at build time, so a conditional bean could not be enabled for a benchmark run.
+ */
+@Slf4j
+public class StartupProbe implements ApplicationListener<ApplicationReadyEvent> {
+
+    private final ObjectProvider<JsonPlaceholderService> service;
+    private final RestClientProperties.Startup properties;
+
+    public StartupProbe(ObjectProvider<JsonPlaceholderService> service, RestClientProperties.Startup properties) {
+        this.service = service;
+        this.properties = properties;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (!properties.isProbe()) {
+            return;
+        }
+        Instant jvmStart = jvmStart();
+        long ready = Duration.between(jvmStart, Instant.now()).toMillis();
+
+        long deadline = System.nanoTime() + properties.getProbeTimeout().toNanos();
+        long firstCall = -1;
+        while (System.nanoTime() < deadline) {
+            try {
+                service.getObject().getUserById(1L);
+                firstCall = Duration.between(jvmStart, Instant.now()).toMillis();
+                break;
+            } catch (RuntimeException e) {
+                log.debug("Startup probe call failed: {}", e.getMessage());
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        if (firstCall < 0) {
+            log.warn("Startup probe: ready={} firstCall=none within {}", ready, properties.getProbeTimeout());
+        } else {
+            log.info("Startup probe: ready={} firstCall={}", ready, firstCall);
+        }
+
+        if (properties.isExitAfterProbe()) {
+            int exitCode = firstCall < 0 ? 1 : 0;
+            System.exit(SpringApplication.exit(event.getApplicationContext(), () -> exitCode));
+        }
+    }
+
+    private static Instant jvmStart() {
+        // the process start time includes JVM boot and class loading, which is what CDS saves
+        return ProcessHandle.current().info().startInstant()
+                .orElseGet(() -> Instant.ofEpochMilli(ManagementFactory.getRuntimeMXBean().getStartTime()));
+    }
+}
@@ -0,0 +1,76 @@
+package com.folautech.restclient.transport;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+/**
+ * Binary Jackson encodings of the same data model as JSON. Field names, numbers and string lengths are written as
+ * tokens instead of text, so the payload is smaller and decoding skips number and escape parsing; the DTOs and
+ * their annotations are shared with JSON unchanged.
+ */
+public enum BinaryFormat {
+
+    /**
+     * Jackson's own binary JSON; back-references repeated field names, which suits lists of identical records.
+     */
+    SMILE(new MediaType("application", "x-jackson-smile")) {
+        @Override
+        public ObjectMapper newMapper() {
+            return SmileMapper.builder().build();
+        }
+
+        @Override
+        public HttpMessageConverter<?> newConverter() {
+            return new JacksonSmileHttpMessageConverter((SmileMapper) newMapper());
+        }
+    },
+
+    /**
+     * RFC 8949 Concise Binary Object Representation; the standard format, readable by non-Jackson upstreams.
+     */
+    CBOR(MediaType.APPLICATION_CBOR) {
+        @Override
+        public ObjectMapper newMapper() {
+            return CBORMapper.builder().build();
+        }
+
+        @Override
+        public HttpMessageConverter<?> newConverter() {
+            return new JacksonCborHttpMessageConverter((CBORMapper) newMapper());
+        }
+    };
+
+    private final MediaType mediaType;
+
+    BinaryFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public abstract ObjectMapper newMapper();
+
+    public abstract HttpMessageConverter<?> newConverter();
+
+    /**
+     * The format {@code contentType} names, or null for JSON and anything else.
+     */
+    public static BinaryFormat of(MediaType contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        for (BinaryFormat format : values()) {
+            if (format.mediaType.equalsTypeAndSubtype(contentType)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
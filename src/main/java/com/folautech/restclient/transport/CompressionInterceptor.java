@@ -0,0 +1,216 @@
+package com.folautech.restclient.transport;
+
+import com.folautech.restclient.config.RestClientProperties;
+import com.folautech.restclient.metrics.ClientStatisticsContributor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.support.HttpRequestWrapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Content-coding negotiation for the RestClient.
+ * <ul>
+ *     <li>adds {@code Accept-Encoding: gzip, deflate} unless the caller set one, and decodes gzip/deflate
+ *     responses through an inflating stream as the converter reads them; nothing is buffered</li>
+ *     <li>gzips request bodies of at least {@code requestThreshold} bytes that are not already encoded; a
+ *     {@link StreamingRequestBody} is gzipped as it is written to the connection, once its size is known</li>
+ * </ul>
+ * Decoded responses lose their Content-Encoding and Content-Length headers, so everything above this
+ * interceptor (the log, the cache, the converters) sees the plain representation. It sits below
+ * RestClientLog and above MetricsInterceptor, so logs show decoded bodies and metrics count bytes on the wire.
+ */
+public class CompressionInterceptor implements ClientHttpRequestInterceptor, ClientStatisticsContributor {
+
+    private static final String ACCEPTED_ENCODINGS = "gzip, deflate";
+    private static final int BUFFER_SIZE = 8192;
+
+    private final boolean requestEnabled;
+    private final long requestThreshold;
+
+    private final LongAdder compressedRequests = new LongAdder();
+    private final LongAdder decodedResponses = new LongAdder();
+
+    public CompressionInterceptor(RestClientProperties.Compression properties) {
+        this.requestEnabled = properties.isRequestEnabled();
+        this.requestThreshold = properties.getRequestThreshold().toBytes();
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        HttpHeaders headers = HttpHeaders.copyOf(request.getHeaders());
+        boolean negotiate = !headers.containsHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (negotiate) {
+            headers.set(HttpHeaders.ACCEPT_ENCODING, ACCEPTED_ENCODINGS);
+        }
+        byte[] payload = body;
+        if (requestEnabled && body.length >= requestThreshold && body.length > 0
+                && !headers.containsHeader(HttpHeaders.CONTENT_ENCODING)) {
+            payload = gzip(body);
+            headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+            headers.setContentLength(payload.length);
+            compressedRequests.increment();
+        }
+        Map<String, Object> attributes = request.getAttributes();
+        StreamingRequestBody streamed = StreamingRequestBody.of(request);
+        if (requestEnabled && body.length == 0 && streamed != null
+                && !headers.containsHeader(HttpHeaders.CONTENT_ENCODING)) {
+            attributes = new HashMap<>(attributes);
+            attributes.put(StreamingRequestBody.ATTRIBUTE, streamed.encodeFrom(requestThreshold, "gzip",
+                    out -> new GZIPOutputStream(out, BUFFER_SIZE), compressedRequests::increment));
+        }
+
+        Map<String, Object> requestAttributes = attributes;
+        ClientHttpResponse response = execution.execute(new HttpRequestWrapper(request) {
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+
+            @Override
+            public Map<String, Object> getAttributes() {
+                return requestAttributes;
+            }
+        }, payload);
+
+        String encoding = response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+        if (!negotiate || encoding == null || request.getMethod() == HttpMethod.HEAD) {
+            return response;
+        }
+        encoding = encoding.trim().toLowerCase();
+        if (!encoding.equals("gzip") && !encoding.equals("x-gzip") && !encoding.equals("deflate")) {
+            return response;
+        }
+        decodedResponses.increment();
+        return new DecodingResponse(response, encoding);
+    }
+
+    @Override
+    public String getStatisticsSection() {
+        return "compression";
+    }
+
+    @Override
+    public CompressionStatistics getStatistics() {
+        return new CompressionStatistics(getCompressedRequests(), getDecodedResponses());
+    }
+
+    public long getCompressedRequests() {
+        return compressedRequests.sum();
+    }
+
+    public long getDecodedResponses() {
+        return decodedResponses.sum();
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer, BUFFER_SIZE)) {
+            out.write(body);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Wraps {@code in} in the matching inflater. An empty body stays empty, and deflate accepts both the
+     * zlib-wrapped form RFC 9110 specifies and the raw form some servers send.
+     */
+    static InputStream decode(InputStream in, String encoding) throws IOException {
+        PushbackInputStream peek = new PushbackInputStream(in, 2);
+        int first = peek.read();
+        if (first == -1) {
+            return peek;
+        }
+        int second = peek.read();
+        if (second != -1) {
+            peek.unread(second);
+        }
+        peek.unread(first);
+        if (!encoding.equals("deflate")) {
+            return new GZIPInputStream(peek, BUFFER_SIZE);
+        }
+        boolean zlib = second != -1 && (first & 0x0F) == 8 && ((first << 8) | second) % 31 == 0;
+        Inflater inflater = new Inflater(!zlib);
+        return new InflaterInputStream(peek, inflater, BUFFER_SIZE) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    inflater.end();
+                }
+            }
+        };
+    }
+
+    public record CompressionStatistics(long compressedRequests, long decodedResponses) {
+    }
+
+    private static class DecodingResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final String encoding;
+        private final HttpHeaders headers;
+        private InputStream body;
+
+        DecodingResponse(ClientHttpResponse delegate, String encoding) {
+            this.delegate = delegate;
+            this.encoding = encoding;
+            this.headers = HttpHeaders.copyOf(delegate.getHeaders());
+            this.headers.remove(HttpHeaders.CONTENT_ENCODING);
+            this.headers.remove(HttpHeaders.CONTENT_LENGTH);
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = decode(delegate.getBody(), encoding);
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            try {
+                if (body != null) {
+                    body.close();
+                }
+            } catch (IOException ignored) {
+                // the underlying response is closed below either way
+            } finally {
+                delegate.close();
+            }
+        }
+    }
+}
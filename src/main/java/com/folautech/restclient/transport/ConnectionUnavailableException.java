@@ -0,0 +1,15 @@
+package com.folautech.restclient.transport;
+
+import java.io.IOException;
+
+/**
+ * Thrown when no connection to a host freed up within the transport's {@code acquireTimeout}; the request never
+ * left the client. RestClient surfaces it as a ResourceAccessException.
+ */
+public class ConnectionUnavailableException extends IOException {
+
+    public ConnectionUnavailableException(String host, long acquireTimeoutMillis, int maxPerHost) {
+        super("No connection available for " + host + " within " + acquireTimeoutMillis
+                + "ms (maxConnectionsPerHost=" + maxPerHost + ")");
+    }
+}
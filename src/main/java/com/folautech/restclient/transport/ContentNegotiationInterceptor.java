@@ -0,0 +1,130 @@
+package com.folautech.restclient.transport;
+
+import com.folautech.restclient.config.RestClientProperties;
+import com.folautech.restclient.metrics.ClientStatisticsContributor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.support.HttpRequestWrapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Media-type negotiation for the RestClient: a request that accepts JSON, and no binary format, is sent with the
+ * configured {@link BinaryFormat}s ahead of JSON in its Accept header, e.g.
+ * {@code application/x-jackson-smile, application/cbor;q=0.9, application/json;q=0.5}.
+ * <p>
+ * The response converter is picked by Content-Type, so an upstream that only speaks JSON (or ignores Accept)
+ * needs nothing special: its JSON is decoded as before. An upstream that answers the binary offer with
+ * 406 Not Acceptable is asked again with the caller's own Accept header, and its host is sent that header from
+ * then on. Callers that ask for a binary format themselves, or do not accept JSON, are left alone.
+ */
+public class ContentNegotiationInterceptor implements ClientHttpRequestInterceptor, ClientStatisticsContributor {
+
+    private final List<MediaType> offered;
+    private final Set<String> jsonOnlyHosts = ConcurrentHashMap.newKeySet();
+
+    private final Map<BinaryFormat, LongAdder> binaryResponses = new EnumMap<>(BinaryFormat.class);
+    private final LongAdder jsonResponses = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    public ContentNegotiationInterceptor(RestClientProperties.Codec properties) {
+        List<BinaryFormat> formats = properties.getFormats().stream().distinct().toList();
+        this.offered = new ArrayList<>(formats.size() + 1);
+        for (int i = 0; i < formats.size(); i++) {
+            MediaType type = formats.get(i).getMediaType();
+            // 1.0, 0.9, 0.8, ...: the configured order is the preference order
+            offered.add(i == 0 ? type : new MediaType(type, Map.of("q", Double.toString(1.0 - 0.1 * i))));
+        }
+        offered.add(new MediaType(MediaType.APPLICATION_JSON, Map.of("q", "0.5")));
+        for (BinaryFormat format : BinaryFormat.values()) {
+            binaryResponses.put(format, new LongAdder());
+        }
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String host = host(request.getURI());
+        if (offered.size() == 1 || !acceptsJsonOnly(request.getHeaders().getAccept()) || jsonOnlyHosts.contains(host)) {
+            return execution.execute(request, body);
+        }
+
+        HttpHeaders headers = HttpHeaders.copyOf(request.getHeaders());
+        headers.setAccept(offered);
+        ClientHttpResponse response = execution.execute(new HttpRequestWrapper(request) {
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+        }, body);
+
+        if (response.getStatusCode().value() == HttpStatus.NOT_ACCEPTABLE.value()) {
+            response.close();
+            jsonOnlyHosts.add(host);
+            fallbacks.increment();
+            return execution.execute(request, body);
+        }
+        BinaryFormat format = BinaryFormat.of(response.getHeaders().getContentType());
+        (format == null ? jsonResponses : binaryResponses.get(format)).increment();
+        return response;
+    }
+
+    /**
+     * The Accept header this interceptor sends in place of a JSON-only one.
+     */
+    public List<MediaType> getOffered() {
+        return List.copyOf(offered);
+    }
+
+    @Override
+    public String getStatisticsSection() {
+        return "codec";
+    }
+
+    @Override
+    public NegotiationStatistics getStatistics() {
+        Map<String, Long> responses = new LinkedHashMap<>();
+        binaryResponses.forEach((format, count) -> responses.put(format.name().toLowerCase(), count.sum()));
+        responses.put("json", jsonResponses.sum());
+        return new NegotiationStatistics(MediaType.toString(offered), responses, fallbacks.sum(),
+                new TreeSet<>(jsonOnlyHosts));
+    }
+
+    private static boolean acceptsJsonOnly(List<MediaType> accept) {
+        boolean json = false;
+        for (MediaType type : accept) {
+            if (BinaryFormat.of(type) != null) {
+                return false;
+            }
+            json |= MediaType.APPLICATION_JSON.equalsTypeAndSubtype(type);
+        }
+        return json;
+    }
+
+    private static String host(URI uri) {
+        return uri.getScheme() + "://" + uri.getRawAuthority();
+    }
+
+    /**
+     * The Accept header offered, negotiated responses by the format they came back in, and the hosts that answered
+     * the binary offer with 406 and have been sent JSON-only requests since.
+     */
+    public record NegotiationStatistics(String offered, Map<String, Long> responses, long fallbacks,
+                                        Set<String> jsonOnlyHosts) {
+    }
+}
@@ -0,0 +1,212 @@
+package com.folautech.restclient.transport;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Where the time of one exchange went, filled in by {@link TimingRequestFactory}:
+ * <ul>
+ *     <li>{@code dnsProbe}: a lookup of the host through the JVM's address cache, made just before the exchange in
+ *     addition to the transport's own; that one then hits the cache, so this is the real cost on a miss and about
+ *     nothing on a hit</li>
+ *     <li>{@code queue}: waiting for a per-host connection slot ({@link PerHostLimitingRequestFactory})</li>
+ *     <li>{@code write}: writing the request body to the transport</li>
+ *     <li>{@code firstByte}: from handing the request over until the response headers arrive. The JDK HttpClient
+ *     reports no connection events, so opening the connection and the TLS handshake, when the pool had no idle
+ *     connection, are part of this phase rather than separate ones</li>
+ *     <li>{@code read}: time spent blocked reading the response body off the connection</li>
+ *     <li>{@code decode}: the rest of the time from headers until the response is closed, i.e. the caller working
+ *     on the bytes it read (decompression, JSON decoding)</li>
+ * </ul>
+ * Callers that want the breakdown of a particular call pass their own instance as a request attribute:
+ * <pre>
+ * ExchangeTiming timing = new ExchangeTiming();
+ * restClient.get().uri(uri).attribute(ExchangeTiming.ATTRIBUTE, timing).retrieve().body(User.class);
+ * log.info("{}", timing);
+ * </pre>
+ * Every attempt (retry, hedge) is timed on its own, and the listener gets one timing per attempt. The caller's
+ * instance shows the attempt that answered: the last one of a retried call, and for a hedged call the first to
+ * get response headers. Attempts abandoned by their caller (interrupted hedge losers) never show up in it.
+ */
+public class ExchangeTiming {
+
+    /**
+     * Request attribute holding the timing of the exchange.
+     */
+    public static final String ATTRIBUTE = ExchangeTiming.class.getName();
+
+    private volatile HttpMethod method;
+    private volatile URI uri;
+    private volatile int status;
+    private volatile boolean complete;
+    private volatile long dnsNanos;
+    private volatile long queueNanos;
+    private volatile long writeNanos;
+    private volatile long firstByteNanos;
+    private volatile long readNanos;
+    private volatile long decodeNanos;
+    private volatile long startedAt;
+    private volatile long completedAt;
+    private ExchangeTiming attempt;
+
+    static ExchangeTiming of(HttpRequest request) {
+        return request.getAttributes().get(ATTRIBUTE) instanceof ExchangeTiming timing ? timing : null;
+    }
+
+    void begin(HttpMethod method, URI uri) {
+        this.method = method;
+        this.uri = uri;
+        startedAt = System.nanoTime();
+        status = 0;
+        complete = false;
+        dnsNanos = 0;
+        queueNanos = 0;
+        writeNanos = 0;
+        firstByteNanos = 0;
+        readNanos = 0;
+        decodeNanos = 0;
+    }
+
+    /**
+     * Makes this caller-supplied timing show {@code from}, unless it shows another attempt that got a response and
+     * was still in progress when {@code from} started: a retry replaces the attempt before it, a hedge does not
+     * replace the one that answered first.
+     */
+    synchronized void claim(ExchangeTiming from) {
+        if (attempt == null || attempt == from
+                || attempt.complete && (attempt.status == 0 || from.startedAt - attempt.completedAt >= 0)) {
+            attempt = from;
+            copy(from);
+        }
+    }
+
+    /**
+     * Refreshes this caller-supplied timing from {@code from} if it is the attempt shown.
+     */
+    synchronized void update(ExchangeTiming from) {
+        if (attempt == from) {
+            copy(from);
+        }
+    }
+
+    private void copy(ExchangeTiming from) {
+        method = from.method;
+        uri = from.uri;
+        status = from.status;
+        dnsNanos = from.dnsNanos;
+        queueNanos = from.queueNanos;
+        writeNanos = from.writeNanos;
+        firstByteNanos = from.firstByteNanos;
+        readNanos = from.readNanos;
+        decodeNanos = from.decodeNanos;
+        startedAt = from.startedAt;
+        completedAt = from.completedAt;
+        complete = from.complete;
+    }
+
+    void resolved(long nanos) {
+        dnsNanos = nanos;
+    }
+
+    void queued(long nanos) {
+        queueNanos = nanos;
+    }
+
+    void wrote(long nanos) {
+        writeNanos = nanos;
+    }
+
+    /**
+     * @param executeNanos the transport's whole {@code execute()}, including the queue wait
+     */
+    void headers(int status, long executeNanos) {
+        this.status = status;
+        firstByteNanos = Math.max(0, executeNanos - queueNanos);
+    }
+
+    void failed(long executeNanos) {
+        headers(0, executeNanos);
+        completedAt = System.nanoTime();
+        complete = true;
+    }
+
+    void bodyDone(long readNanos, long bodyNanos) {
+        this.readNanos = readNanos;
+        decodeNanos = Math.max(0, bodyNanos - readNanos);
+        completedAt = System.nanoTime();
+        complete = true;
+    }
+
+    public HttpMethod getMethod() {
+        return method;
+    }
+
+    public URI getUri() {
+        return uri;
+    }
+
+    /**
+     * Response status, or 0 when the exchange failed before response headers arrived.
+     */
+    public int getStatus() {
+        return status;
+    }
+
+    /**
+     * Whether the exchange has finished: it failed, or its response was closed.
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * The extra lookup made before the exchange; see the class comment.
+     */
+    public Duration getDns() {
+        return Duration.ofNanos(dnsNanos);
+    }
+
+    public Duration getQueue() {
+        return Duration.ofNanos(queueNanos);
+    }
+
+    public Duration getWrite() {
+        return Duration.ofNanos(writeNanos);
+    }
+
+    public Duration getFirstByte() {
+        return Duration.ofNanos(firstByteNanos);
+    }
+
+    public Duration getRead() {
+        return Duration.ofNanos(readNanos);
+    }
+
+    public Duration getDecode() {
+        return Duration.ofNanos(decodeNanos);
+    }
+
+    /**
+     * Sum of the phases. The body write overlaps time to first byte when the transport streams it, so that phase
+     * is left out.
+     */
+    public Duration getTotal() {
+        return Duration.ofNanos(dnsNanos + queueNanos + firstByteNanos + readNanos + decodeNanos);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "%s %s %s total=%.1fms dnsProbe=%.1fms queue=%.1fms write=%.1fms firstByte=%.1fms read=%.1fms decode=%.1fms",
+                method, uri, status == 0 ? "IO_ERROR" : status, millis(getTotal().toNanos()), millis(dnsNanos),
+                millis(queueNanos), millis(writeNanos), millis(firstByteNanos), millis(readNanos), millis(decodeNanos));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
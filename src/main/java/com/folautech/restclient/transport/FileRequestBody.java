@@ -0,0 +1,61 @@
+package com.folautech.restclient.transport;
+
+import org.springframework.http.StreamingHttpOutputMessage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A file as a request body, read through a {@link FileChannel} each time it is written, so uploading it never
+ * holds more than one buffer of it in memory and a retry reads it again from the start. Pass it to
+ * {@code RestClient...body(Body)} with {@code contentLength(body.contentLength())}.
+ * <p>
+ * Under {@link StreamingInterceptingRequestFactory} the content is read directly into a pooled buffer; elsewhere
+ * through a small buffer of its own.
+ */
+public class FileRequestBody implements StreamingHttpOutputMessage.Body {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Path path;
+    private final long contentLength;
+
+    public FileRequestBody(Path path) throws IOException {
+        this.path = path;
+        this.contentLength = Files.size(path);
+    }
+
+    public long contentLength() {
+        return contentLength;
+    }
+
+    @Override
+    public void writeTo(OutputStream outputStream) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (outputStream instanceof PooledOutputStream pooled) {
+                pooled.transferFrom(channel);
+                return;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            while (channel.read(buffer) >= 0) {
+                outputStream.write(buffer.array(), 0, buffer.position());
+                buffer.clear();
+            }
+        }
+    }
+
+    @Override
+    public boolean repeatable() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return path + " (" + contentLength + " bytes)";
+    }
+}
@@ -0,0 +1,84 @@
+package com.folautech.restclient.transport;
+
+import com.folautech.restclient.config.RestClientProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+
+import java.net.http.HttpClient;
+import java.util.concurrent.Executors;
+
+/**
+ * Builds the {@link ClientHttpRequestFactory} the RestClient sends requests through.
+ */
+@Slf4j
+public class HttpTransportFactory {
+
+    // JDK HttpClient reads these once, when its connection pool class is first loaded
+    static final String POOL_SIZE_PROPERTY = "jdk.httpclient.connectionPoolSize";
+    static final String KEEP_ALIVE_PROPERTY = "jdk.httpclient.keepalive.timeout";
+    static final String KEEP_ALIVE_H2_PROPERTY = "jdk.httpclient.keepalive.timeout.h2";
+
+    private final RestClientProperties.Transport properties;
+
+    public HttpTransportFactory(RestClientProperties.Transport properties) {
+        this.properties = properties;
+    }
+
+    public ClientHttpRequestFactory create() {
+        return create(properties.getMaxConnectionsPerHost());
+    }
+
+    /**
+     * A transport with a connection pool of its own, capped at {@code maxConnectionsPerHost}; one per bulkhead.
+     */
+    public ClientHttpRequestFactory create(int maxConnectionsPerHost) {
+        ClientHttpRequestFactory factory = switch (properties.getType()) {
+            case JDK -> createJdkFactory();
+            case SIMPLE -> createSimpleFactory();
+        };
+        log.info("RestClient transport: {} (maxConnectionsPerHost={})", properties.getType(), maxConnectionsPerHost);
+        return new PerHostLimitingRequestFactory(factory, maxConnectionsPerHost, properties.getAcquireTimeout());
+    }
+
+    private ClientHttpRequestFactory createJdkFactory() {
+        applyPoolProperties();
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(properties.getHttpVersion())
+                .connectTimeout(properties.getConnectTimeout())
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient);
+        factory.setReadTimeout(properties.getReadTimeout());
+        // content coding is CompressionInterceptor's job, the same for both transports
+        factory.enableCompression(false);
+        return factory;
+    }
+
+    private ClientHttpRequestFactory createSimpleFactory() {
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout(properties.getConnectTimeout());
+        factory.setReadTimeout(properties.getReadTimeout());
+        return factory;
+    }
+
+    /**
+     * Pushes pool size and idle eviction into the JDK client. Explicit -D flags on the command line win.
+     */
+    private void applyPoolProperties() {
+        String keepAliveSeconds = String.valueOf(Math.max(1, properties.getKeepAlive().toSeconds()));
+        setIfAbsent(POOL_SIZE_PROPERTY, String.valueOf(properties.getPoolSize()));
+        setIfAbsent(KEEP_ALIVE_PROPERTY, keepAliveSeconds);
+        setIfAbsent(KEEP_ALIVE_H2_PROPERTY, keepAliveSeconds);
+    }
+
+    private static void setIfAbsent(String key, String value) {
+        if (System.getProperty(key) == null) {
+            System.setProperty(key, value);
+        }
+    }
+}
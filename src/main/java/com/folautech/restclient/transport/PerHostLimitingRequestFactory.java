@@ -0,0 +1,181 @@
+package com.folautech.restclient.transport;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.AbstractClientHttpRequestFactoryWrapper;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps the number of concurrent exchanges per host. A permit is held from {@code execute()} until the
+ * response is closed, so for HTTP/1.1 this is also the ceiling on open connections to that host.
+ */
+public class PerHostLimitingRequestFactory extends AbstractClientHttpRequestFactoryWrapper {
+
+    private final int maxPerHost;
+    private final Duration acquireTimeout;
+    private final Map<String, Semaphore> permits = new ConcurrentHashMap<>();
+
+    public PerHostLimitingRequestFactory(ClientHttpRequestFactory delegate, int maxPerHost, Duration acquireTimeout) {
+        super(delegate);
+        this.maxPerHost = maxPerHost;
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    @Override
+    protected ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod, ClientHttpRequestFactory requestFactory)
+            throws IOException {
+        ClientHttpRequest request = requestFactory.createRequest(uri, httpMethod);
+        if (maxPerHost <= 0) {
+            return request;
+        }
+        return new LimitedRequest(request, permits.computeIfAbsent(hostKey(uri), key -> new Semaphore(maxPerHost)));
+    }
+
+    /**
+     * Exchanges currently holding a permit for the given host, e.g. {@code https://example.com:443}.
+     */
+    public int inUse(String hostKey) {
+        Semaphore semaphore = permits.get(hostKey);
+        return semaphore == null ? 0 : maxPerHost - semaphore.availablePermits();
+    }
+
+    public static String hostKey(URI uri) {
+        int port = uri.getPort();
+        if (port == -1) {
+            port = "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+        }
+        return uri.getScheme() + "://" + uri.getHost() + ":" + port;
+    }
+
+    private class LimitedRequest implements ClientHttpRequest, StreamingHttpOutputMessage {
+
+        private final ClientHttpRequest delegate;
+        private final Semaphore semaphore;
+
+        LimitedRequest(ClientHttpRequest delegate, Semaphore semaphore) {
+            this.delegate = delegate;
+            this.semaphore = semaphore;
+        }
+
+        @Override
+        public ClientHttpResponse execute() throws IOException {
+            long start = System.nanoTime();
+            try {
+                boolean acquired = semaphore.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                ExchangeTiming timing = ExchangeTiming.of(this);
+                if (timing != null) {
+                    timing.queued(System.nanoTime() - start);
+                }
+                if (!acquired) {
+                    throw new ConnectionUnavailableException(hostKey(getURI()), acquireTimeout.toMillis(), maxPerHost);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for a connection to " + hostKey(getURI()));
+            }
+            try {
+                return new PermitReleasingResponse(delegate.execute(), semaphore);
+            } catch (IOException | RuntimeException e) {
+                semaphore.release();
+                throw e;
+            }
+        }
+
+        @Override
+        public void setBody(Body body) {
+            if (delegate instanceof StreamingHttpOutputMessage streaming) {
+                streaming.setBody(body);
+                return;
+            }
+            try {
+                body.writeTo(delegate.getBody());
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to write request body", e);
+            }
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return delegate.getMethod();
+        }
+
+        @Override
+        public URI getURI() {
+            return delegate.getURI();
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return delegate.getAttributes();
+        }
+    }
+
+    private static class PermitReleasingResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final Semaphore semaphore;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        PermitReleasingResponse(ClientHttpResponse delegate, Semaphore semaphore) {
+            this.delegate = delegate;
+            this.semaphore = semaphore;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (released.compareAndSet(false, true)) {
+                    semaphore.release();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.folautech.restclient.transport;
+
+import com.folautech.restclient.utility.BufferPool;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Coalesces small writes into one {@link BufferPool} buffer before they reach the connection, and lets a
+ * {@link FileRequestBody} read file content straight into that buffer. Writes of a buffer or more pass through.
+ * Closing flushes and returns the buffer to the pool; the underlying stream stays open, it belongs to the transport.
+ */
+final class PooledOutputStream extends OutputStream {
+
+    private final OutputStream out;
+    private final BufferPool pool;
+    private byte[] buffer;
+    private int count;
+    private long written;
+
+    PooledOutputStream(OutputStream out, BufferPool pool) {
+        this.out = out;
+        this.pool = pool;
+        this.buffer = pool.acquire();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (count == buffer.length) {
+            drain();
+        }
+        buffer[count++] = (byte) b;
+        written++;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (len >= buffer.length) {
+            drain();
+            out.write(b, off, len);
+        } else {
+            if (len > buffer.length - count) {
+                drain();
+            }
+            System.arraycopy(b, off, buffer, count, len);
+            count += len;
+        }
+        written += len;
+    }
+
+    /**
+     * Reads {@code channel} to its end into the pooled buffer, writing the buffer out each time it fills.
+     */
+    void transferFrom(ReadableByteChannel channel) throws IOException {
+        ByteBuffer target = ByteBuffer.wrap(buffer);
+        while (true) {
+            target.limit(buffer.length).position(count);
+            int read = channel.read(target);
+            if (read < 0) {
+                return;
+            }
+            count += read;
+            written += read;
+            if (count == buffer.length) {
+                drain();
+            }
+        }
+    }
+
+    /**
+     * Bytes written so far, buffered ones included.
+     */
+    long getWritten() {
+        return written;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (buffer == null) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            pool.release(buffer);
+            buffer = null;
+        }
+    }
+
+    private void drain() throws IOException {
+        if (count > 0) {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+}
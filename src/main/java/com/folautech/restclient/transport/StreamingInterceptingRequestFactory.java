@@ -0,0 +1,152 @@
+package com.folautech.restclient.transport;
+
+import com.folautech.restclient.utility.BufferPool;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.AbstractClientHttpRequest;
+import org.springframework.http.client.AbstractClientHttpRequestFactoryWrapper;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.FastByteArrayOutputStream;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Runs {@code interceptors} like {@code RestClient.Builder.requestInterceptors} does, without first copying the
+ * request body into a {@code byte[]}. Spring's intercepting request always buffers the whole body so interceptors
+ * can see it; here a repeatable streamed body (JSON from the message converters, a {@link FileRequestBody}) is
+ * passed down the chain as a {@link StreamingRequestBody} and interceptors get an empty {@code byte[]}. The body is
+ * written to the connection at the end of the chain, through buffers from {@code pool}.
+ * <p>
+ * A body written to {@code getBody()}, or one that cannot be written twice, is buffered as before.
+ */
+public class StreamingInterceptingRequestFactory extends AbstractClientHttpRequestFactoryWrapper {
+
+    private static final byte[] NO_BODY = new byte[0];
+
+    private final List<ClientHttpRequestInterceptor> interceptors;
+    private final BufferPool pool;
+
+    public StreamingInterceptingRequestFactory(ClientHttpRequestFactory delegate,
+                                               List<ClientHttpRequestInterceptor> interceptors, BufferPool pool) {
+        super(delegate);
+        this.interceptors = List.copyOf(interceptors);
+        this.pool = pool;
+    }
+
+    @Override
+    protected ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod, ClientHttpRequestFactory requestFactory) {
+        return new InterceptingRequest(uri, httpMethod, requestFactory);
+    }
+
+    private class InterceptingRequest extends AbstractClientHttpRequest implements StreamingHttpOutputMessage {
+
+        private final URI uri;
+        private final HttpMethod method;
+        private final ClientHttpRequestFactory requestFactory;
+        private FastByteArrayOutputStream buffered;
+        private Body body;
+
+        InterceptingRequest(URI uri, HttpMethod method, ClientHttpRequestFactory requestFactory) {
+            this.uri = uri;
+            this.method = method;
+            this.requestFactory = requestFactory;
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return method;
+        }
+
+        @Override
+        public URI getURI() {
+            return uri;
+        }
+
+        @Override
+        public void setBody(Body body) {
+            assertNotExecuted();
+            this.body = body;
+        }
+
+        @Override
+        protected OutputStream getBodyInternal(HttpHeaders headers) {
+            if (buffered == null) {
+                buffered = new FastByteArrayOutputStream(1024);
+            }
+            return buffered;
+        }
+
+        @Override
+        protected ClientHttpResponse executeInternal(HttpHeaders headers) throws IOException {
+            byte[] bytes = NO_BODY;
+            if (buffered != null) {
+                bytes = buffered.toByteArrayUnsafe();
+            } else if (body != null && !body.repeatable()) {
+                // a retry or hedge would need it again, so it is read once into memory
+                FastByteArrayOutputStream out = new FastByteArrayOutputStream(1024);
+                body.writeTo(out);
+                bytes = out.toByteArrayUnsafe();
+            } else if (body != null) {
+                long contentLength = body instanceof FileRequestBody file ? file.contentLength()
+                        : headers.getContentLength();
+                getAttributes().put(StreamingRequestBody.ATTRIBUTE, new StreamingRequestBody(body, contentLength));
+            }
+            return new Execution(0, requestFactory).execute(this, bytes);
+        }
+    }
+
+    /**
+     * The rest of the chain from {@code index}; stateless, so an interceptor may call it more than once.
+     */
+    private class Execution implements ClientHttpRequestExecution {
+
+        private final int index;
+        private final ClientHttpRequestFactory requestFactory;
+
+        Execution(int index, ClientHttpRequestFactory requestFactory) {
+            this.index = index;
+            this.requestFactory = requestFactory;
+        }
+
+        @Override
+        public ClientHttpResponse execute(HttpRequest request, byte[] body) throws IOException {
+            if (index < interceptors.size()) {
+                return interceptors.get(index).intercept(request, body, new Execution(index + 1, requestFactory));
+            }
+            ClientHttpRequest delegate = requestFactory.createRequest(request.getURI(), request.getMethod());
+            delegate.getHeaders().putAll(request.getHeaders());
+            delegate.getAttributes().putAll(request.getAttributes());
+            if (body.length > 0) {
+                // an interceptor may have replaced the body, e.g. with its gzip encoding
+                delegate.getHeaders().setContentLength(body.length);
+                if (delegate instanceof StreamingHttpOutputMessage streaming) {
+                    streaming.setBody(new StreamingHttpOutputMessage.Body() {
+                        @Override
+                        public void writeTo(OutputStream outputStream) throws IOException {
+                            outputStream.write(body);
+                        }
+
+                        @Override
+                        public boolean repeatable() {
+                            return true;
+                        }
+                    });
+                } else {
+                    delegate.getBody().write(body);
+                }
+                return delegate.execute();
+            }
+            StreamingRequestBody view = StreamingRequestBody.of(request);
+            return view != null ? view.send(delegate, pool) : delegate.execute();
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package com.folautech.restclient.transport;
+
+import com.folautech.restclient.utility.BufferPool;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The view interceptors get of a request body that {@link StreamingInterceptingRequestFactory} has not buffered:
+ * the interceptor's {@code byte[] body} is empty and the body is here, under {@link #ATTRIBUTE} on the request.
+ * It is written to the connection only at the end of the chain, and again for every retry or hedge.
+ * <p>
+ * A body of known length is streamed with that Content-Length. One of unknown length (serialized JSON) is first
+ * written into a single pooled buffer: if it fits it is sent from there with a Content-Length, otherwise it is
+ * written again, straight to the connection in chunked encoding. A content coding requested by an interceptor is
+ * applied here, once the size is known, so bodies below its threshold still go out plain.
+ */
+public final class StreamingRequestBody {
+
+    public static final String ATTRIBUTE = StreamingRequestBody.class.getName();
+
+    private final StreamingHttpOutputMessage.Body body;
+    private final long contentLength;
+    private final Encoding encoding;
+    private volatile long bytesWritten;
+
+    StreamingRequestBody(StreamingHttpOutputMessage.Body body, long contentLength) {
+        this(body, contentLength, null);
+    }
+
+    private StreamingRequestBody(StreamingHttpOutputMessage.Body body, long contentLength, Encoding encoding) {
+        this.body = body;
+        this.contentLength = contentLength;
+        this.encoding = encoding;
+    }
+
+    /**
+     * The streamed body of {@code request}, or null if it has none or it was passed as {@code byte[]}.
+     */
+    public static StreamingRequestBody of(HttpRequest request) {
+        return request.getAttributes().get(ATTRIBUTE) instanceof StreamingRequestBody body ? body : null;
+    }
+
+    /**
+     * Length in bytes, or -1 if it is only known once written.
+     */
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    /**
+     * Bytes sent by the last write to a connection; 0 before the first.
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Up to the first {@code maxBytes} of the body, produced by writing it until that many bytes are out.
+     */
+    public byte[] preview(int maxBytes) throws IOException {
+        FixedBufferOutputStream sink = new FixedBufferOutputStream(new byte[maxBytes]);
+        try {
+            body.writeTo(sink);
+        } catch (IOException | RuntimeException e) {
+            if (!BufferFullException.causes(e)) {
+                throw e;
+            }
+            // the rest is not wanted
+        }
+        return Arrays.copyOf(sink.buffer, sink.count);
+    }
+
+    /**
+     * This body, to be written through {@code encoder} and sent with {@code Content-Encoding: contentCoding} if it
+     * turns out to be at least {@code threshold} bytes. The size of a body of unknown length is only known once it
+     * is serialized, so the decision is made in {@link #send}; {@code onEncoded} runs when the coding is applied.
+     */
+    StreamingRequestBody encodeFrom(long threshold, String contentCoding, Encoder encoder, Runnable onEncoded) {
+        return new StreamingRequestBody(body, contentLength,
+                new Encoding(threshold, contentCoding, encoder, onEncoded));
+    }
+
+    /**
+     * Writes the body into {@code request} with buffers from {@code pool} and executes it.
+     */
+    ClientHttpResponse send(ClientHttpRequest request, BufferPool pool) throws IOException {
+        PooledBytes bytes = contentLength < 0 ? serialize(pool) : null;
+        long length = bytes != null ? bytes.length : contentLength;
+        try {
+            HttpHeaders headers = request.getHeaders();
+            if (encoding != null && (length >= encoding.threshold()
+                    || length < 0 && reaches(encoding.threshold(), pool.getBufferSize()))) {
+                headers.set(HttpHeaders.CONTENT_ENCODING, encoding.contentCoding());
+                headers.remove(HttpHeaders.CONTENT_LENGTH);
+                setBody(request, streamed(encoding.wrap(bytes != null ? bytes : body), pool));
+                encoding.onEncoded().run();
+            } else if (bytes != null) {
+                headers.setContentLength(length);
+                setBody(request, bytes);
+            } else {
+                if (length >= 0) {
+                    headers.setContentLength(length);
+                } else {
+                    headers.remove(HttpHeaders.CONTENT_LENGTH);
+                }
+                setBody(request, streamed(body, pool));
+            }
+            return request.execute();
+        } finally {
+            if (bytes != null) {
+                bytes.release();
+            }
+        }
+    }
+
+    /**
+     * The whole body in one pooled buffer, or null if it is larger than a buffer.
+     */
+    private PooledBytes serialize(BufferPool pool) throws IOException {
+        byte[] buffer = pool.acquire();
+        FixedBufferOutputStream first = new FixedBufferOutputStream(buffer);
+        try {
+            body.writeTo(first);
+        } catch (IOException | RuntimeException e) {
+            pool.release(buffer);
+            if (!BufferFullException.causes(e)) {
+                throw e;
+            }
+            // larger than a buffer: it is serialized again later, this time onto the connection
+            return null;
+        }
+        return new PooledBytes(buffer, first.count, pool);
+    }
+
+    /**
+     * Whether a body that overflowed a buffer of {@code bufferSize} bytes is at least {@code threshold} bytes;
+     * only a threshold above the buffer size needs it counted.
+     */
+    private boolean reaches(long threshold, int bufferSize) throws IOException {
+        if (threshold <= bufferSize) {
+            return true;
+        }
+        CountingOutputStream counter = new CountingOutputStream(threshold);
+        try {
+            body.writeTo(counter);
+        } catch (IOException | RuntimeException e) {
+            if (!BufferFullException.causes(e)) {
+                throw e;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private StreamingHttpOutputMessage.Body streamed(StreamingHttpOutputMessage.Body source, BufferPool pool) {
+        return new StreamingHttpOutputMessage.Body() {
+            @Override
+            public void writeTo(OutputStream outputStream) throws IOException {
+                PooledOutputStream pooled = new PooledOutputStream(outputStream, pool);
+                try (pooled) {
+                    source.writeTo(pooled);
+                } finally {
+                    bytesWritten = pooled.getWritten();
+                }
+            }
+
+            @Override
+            public boolean repeatable() {
+                return true;
+            }
+        };
+    }
+
+    private static void setBody(ClientHttpRequest request, StreamingHttpOutputMessage.Body body) throws IOException {
+        if (request instanceof StreamingHttpOutputMessage streaming) {
+            streaming.setBody(body);
+        } else {
+            body.writeTo(request.getBody());
+        }
+    }
+
+    @FunctionalInterface
+    interface Encoder {
+        OutputStream wrap(OutputStream out) throws IOException;
+    }
+
+    private record Encoding(long threshold, String contentCoding, Encoder encoder, Runnable onEncoded) {
+
+        StreamingHttpOutputMessage.Body wrap(StreamingHttpOutputMessage.Body source) {
+            return out -> {
+                try (OutputStream encoded = encoder.wrap(new FilterOutputStream(out) {
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        out.write(b, off, len);
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        // the connection stream belongs to the transport
+                        flush();
+                    }
+                })) {
+                    source.writeTo(encoded);
+                }
+            };
+        }
+    }
+
+    /**
+     * A pooled buffer holding the whole body. Returned to the pool when the exchange is over and no write of it
+     * is in progress, since the transport may write the body on its own thread or, for a repeatable body, twice.
+     */
+    private final class PooledBytes implements StreamingHttpOutputMessage.Body {
+
+        private final byte[] buffer;
+        private final int length;
+        private final BufferPool pool;
+        private final AtomicInteger references = new AtomicInteger(1);
+
+        PooledBytes(byte[] buffer, int length, BufferPool pool) {
+            this.buffer = buffer;
+            this.length = length;
+            this.pool = pool;
+        }
+
+        @Override
+        public void writeTo(OutputStream outputStream) throws IOException {
+            if (!retain()) {
+                throw new IOException("Request body written after the exchange completed");
+            }
+            try {
+                outputStream.write(buffer, 0, length);
+                bytesWritten = length;
+            } finally {
+                release();
+            }
+        }
+
+        @Override
+        public boolean repeatable() {
+            return true;
+        }
+
+        private boolean retain() {
+            for (int current = references.get(); current > 0; current = references.get()) {
+                if (references.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void release() {
+            if (references.decrementAndGet() == 0) {
+                pool.release(buffer);
+            }
+        }
+    }
+
+    private static final class FixedBufferOutputStream extends OutputStream {
+
+        private final byte[] buffer;
+        private int count;
+
+        FixedBufferOutputStream(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (count == buffer.length) {
+                throw new BufferFullException();
+            }
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            int room = buffer.length - count;
+            System.arraycopy(b, off, buffer, count, Math.min(len, room));
+            count += Math.min(len, room);
+            if (len > room) {
+                throw new BufferFullException();
+            }
+        }
+    }
+
+    /**
+     * Counts a write, stopping it once {@code limit} bytes are out.
+     */
+    private static final class CountingOutputStream extends OutputStream {
+
+        private final long limit;
+        private long count;
+
+        CountingOutputStream(long limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(null, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            count += len;
+            if (count >= limit) {
+                throw new BufferFullException();
+            }
+        }
+    }
+
+    /**
+     * Stops a write once the buffer is full; thrown for every large body, so it carries no stack trace.
+     */
+    private static final class BufferFullException extends IOException {
+
+        BufferFullException() {
+            super("buffer full");
+        }
+
+        @Override
+        public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+
+        /**
+         * Whether {@code e} is, or wraps, a full buffer; serializers and converters rethrow it wrapped.
+         */
+        static boolean causes(Throwable e) {
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof BufferFullException) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
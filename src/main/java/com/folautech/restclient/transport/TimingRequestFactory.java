@@ -0,0 +1,265 @@
+package com.folautech.restclient.transport;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.AbstractClientHttpRequestFactoryWrapper;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Records an {@link ExchangeTiming} for every exchange and hands it to {@code listener} when the exchange is
+ * over: when the response is closed, or right away when it failed. Each attempt gets its own timing; if the request
+ * carries one of the caller's under {@link ExchangeTiming#ATTRIBUTE}, the attempt that answers is copied into it.
+ * Wraps the rest of the transport, so the queue wait in {@link PerHostLimitingRequestFactory} is its own phase.
+ */
+public class TimingRequestFactory extends AbstractClientHttpRequestFactoryWrapper {
+
+    private final Consumer<ExchangeTiming> listener;
+
+    public TimingRequestFactory(ClientHttpRequestFactory delegate, Consumer<ExchangeTiming> listener) {
+        super(delegate);
+        this.listener = listener;
+    }
+
+    @Override
+    protected ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod, ClientHttpRequestFactory requestFactory)
+            throws IOException {
+        return new TimedRequest(requestFactory.createRequest(uri, httpMethod));
+    }
+
+    private class TimedRequest implements ClientHttpRequest, StreamingHttpOutputMessage {
+
+        private final ClientHttpRequest delegate;
+        private long writeNanos;
+        private ExchangeTiming timing;
+
+        TimedRequest(ClientHttpRequest delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public ClientHttpResponse execute() throws IOException {
+            // concurrent hedges share the caller's instance; the transport below records into this attempt's own
+            ExchangeTiming caller = ExchangeTiming.of(this);
+            timing = new ExchangeTiming();
+            getAttributes().put(ExchangeTiming.ATTRIBUTE, timing);
+            timing.begin(getMethod(), getURI());
+            timing.wrote(writeNanos);
+            resolve(getURI().getHost());
+
+            long start = System.nanoTime();
+            ClientHttpResponse response;
+            try {
+                response = delegate.execute();
+            } catch (IOException | RuntimeException e) {
+                timing.failed(System.nanoTime() - start);
+                claim(caller);
+                listener.accept(timing);
+                throw e;
+            }
+            timing.headers(response.getStatusCode().value(), System.nanoTime() - start);
+            claim(caller);
+            return new TimedResponse(response, timing, caller);
+        }
+
+        private void claim(ExchangeTiming caller) {
+            // an interrupted attempt has been abandoned, e.g. a hedge that lost the race
+            if (caller != null && !Thread.currentThread().isInterrupted()) {
+                caller.claim(timing);
+            }
+        }
+
+        private void resolve(String host) {
+            if (host == null) {
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                InetAddress.getAllByName(host);
+            } catch (UnknownHostException e) {
+                // the transport fails with its own error
+            }
+            timing.resolved(System.nanoTime() - start);
+        }
+
+        @Override
+        public void setBody(Body body) {
+            Body timed = new Body() {
+                @Override
+                public void writeTo(OutputStream outputStream) throws IOException {
+                    long start = System.nanoTime();
+                    try {
+                        body.writeTo(outputStream);
+                    } finally {
+                        wrote(System.nanoTime() - start);
+                    }
+                }
+
+                @Override
+                public boolean repeatable() {
+                    return body.repeatable();
+                }
+            };
+            if (delegate instanceof StreamingHttpOutputMessage streaming) {
+                streaming.setBody(timed);
+                return;
+            }
+            try {
+                timed.writeTo(delegate.getBody());
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to write request body", e);
+            }
+        }
+
+        @Override
+        public OutputStream getBody() throws IOException {
+            return new FilterOutputStream(delegate.getBody()) {
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    long start = System.nanoTime();
+                    out.write(b, off, len);
+                    wrote(writeNanos + System.nanoTime() - start);
+                }
+            };
+        }
+
+        // a streaming body is written on the transport's thread, after execute() has started
+        private void wrote(long nanos) {
+            writeNanos = nanos;
+            if (timing != null) {
+                timing.wrote(nanos);
+            }
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public HttpMethod getMethod() {
+            return delegate.getMethod();
+        }
+
+        @Override
+        public URI getURI() {
+            return delegate.getURI();
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return delegate.getAttributes();
+        }
+    }
+
+    private class TimedResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final ExchangeTiming timing;
+        private final ExchangeTiming caller;
+        private final long headersAt = System.nanoTime();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private TimedInputStream body;
+
+        TimedResponse(ClientHttpResponse delegate, ExchangeTiming timing, ExchangeTiming caller) {
+            this.delegate = delegate;
+            this.timing = timing;
+            this.caller = caller;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new TimedInputStream(delegate.getBody());
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (closed.compareAndSet(false, true)) {
+                    timing.bodyDone(body == null ? 0 : body.readNanos, System.nanoTime() - headersAt);
+                    if (caller != null) {
+                        caller.update(timing);
+                    }
+                    listener.accept(timing);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds up the time spent inside {@code read}, i.e. waiting for the body to come off the connection.
+     */
+    private static class TimedInputStream extends FilterInputStream {
+
+        private long readNanos;
+
+        TimedInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            long start = System.nanoTime();
+            try {
+                return super.read();
+            } finally {
+                readNanos += System.nanoTime() - start;
+            }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            long start = System.nanoTime();
+            try {
+                return super.read(b, off, len);
+            } finally {
+                readNanos += System.nanoTime() - start;
+            }
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long start = System.nanoTime();
+            try {
+                return super.skip(n);
+            } finally {
+                readNanos += System.nanoTime() - start;
+            }
+        }
+    }
+}
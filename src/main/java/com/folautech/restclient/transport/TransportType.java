@@ -0,0 +1,17 @@
+package com.folautech.restclient.transport;
+
+/**
+ * Request factory implementations the RestClient can run on.
+ */
+public enum TransportType {
+
+    /**
+     * JDK {@link java.net.http.HttpClient}: pooled keep-alive connections and HTTP/2 multiplexing.
+     */
+    JDK,
+
+    /**
+     * {@link java.net.HttpURLConnection} via SimpleClientHttpRequestFactory.
+     */
+    SIMPLE
+}
@@ -0,0 +1,68 @@
+package com.folautech.restclient.utility;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs log formatting and appender I/O on a single background thread. Request threads only pay for
+ * an {@code offer()}; when the queue is full the entry is dropped and counted rather than blocking.
+ * Each entry runs with the MDC of the thread that submitted it, so its lines carry the caller's context.
+ */
+@Slf4j
+public class AsyncLogWriter implements AutoCloseable {
+
+    private final BlockingQueue<Runnable> queue;
+    private final Thread worker;
+    private final AtomicLong dropped = new AtomicLong();
+    private final MdcTaskDecorator mdc = new MdcTaskDecorator();
+    private volatile boolean running = true;
+
+    public AsyncLogWriter(String name, int capacity) {
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.worker = Thread.ofPlatform().name(name).daemon().start(this::drain);
+    }
+
+    public void submit(Runnable entry) {
+        if (!queue.offer(mdc.decorate(entry))) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            try {
+                Runnable entry = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (entry != null) {
+                    entry.run();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Exception msg: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(2));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long lost = dropped.get();
+        if (lost > 0) {
+            log.warn("{} log entries were dropped because the queue was full", lost);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.folautech.restclient.utility;
+
+import com.folautech.restclient.metrics.ClientStatisticsContributor;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size {@code byte[]} buffers shared by all requests, so writing a request body does not allocate a new
+ * array per call. {@link #acquire()} never blocks: when every pooled buffer is in use it allocates a new one, and
+ * {@link #release(byte[])} keeps at most {@code maxPooled} idle buffers and lets the rest be collected.
+ */
+public class BufferPool implements ClientStatisticsContributor {
+
+    private final int bufferSize;
+    private final BlockingQueue<byte[]> idle;
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder allocated = new LongAdder();
+
+    public BufferPool(int bufferSize, int maxPooled) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("bufferSize must be positive: " + bufferSize);
+        }
+        this.bufferSize = bufferSize;
+        this.idle = new ArrayBlockingQueue<>(Math.max(1, maxPooled));
+    }
+
+    public byte[] acquire() {
+        acquired.increment();
+        byte[] buffer = idle.poll();
+        if (buffer == null) {
+            allocated.increment();
+            buffer = new byte[bufferSize];
+        }
+        return buffer;
+    }
+
+    /**
+     * Returns {@code buffer} to the pool; the caller must not touch it afterwards. Arrays of another size are
+     * ignored.
+     */
+    public void release(byte[] buffer) {
+        if (buffer != null && buffer.length == bufferSize) {
+            idle.offer(buffer);
+        }
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    @Override
+    public String getStatisticsSection() {
+        return "requestBuffers";
+    }
+
+    @Override
+    public BufferPoolStatistics getStatistics() {
+        return new BufferPoolStatistics(bufferSize, idle.size(), acquired.sum(), allocated.sum());
+    }
+
+    /**
+     * Buffer size, buffers idle in the pool now, and since startup how many were handed out and how many of those
+     * had to be allocated because the pool was empty.
+     */
+    public record BufferPoolStatistics(int bufferSize, int idle, long acquired, long allocated) {
+    }
+}
@@ -0,0 +1,85 @@
+package com.folautech.restclient.utility;
+
+import org.springframework.web.client.RestClient;
+import org.springframework.web.util.UriUtils;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * URI template parsed once, up front, into literal chunks and {@code {variable}} slots. Expanding it is a
+ * StringBuilder pass plus percent-encoding of the values, instead of the full template parse RestClient does
+ * for every {@code uri(String, Object...)} call.
+ * <p>
+ * Values are bound positionally, like {@code uri(String, Object...)}, and encoded as strictly as
+ * {@code DefaultUriBuilderFactory}'s VALUES_ONLY mode: everything outside the unreserved set is escaped, so a value
+ * cannot add path segments or query parameters. The literal parts are taken as they are and must already be valid.
+ * <p>
+ * Requests built from an expanded URI carry the template under {@link #ATTRIBUTE}, the attribute RestClient sets
+ * itself for string templates, so metrics still group calls by template rather than by concrete URI.
+ */
+public final class CompiledUriTemplate {
+
+    /**
+     * Request attribute RestClient uses for the URI template.
+     */
+    public static final String ATTRIBUTE = RestClient.class.getName() + ".uriTemplate";
+
+    private final String template;
+    private final String[] literals;
+    private final int estimatedLength;
+
+    private CompiledUriTemplate(String template) {
+        this.template = template;
+        List<String> parts = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int open = template.indexOf('{', position);
+            if (open < 0) {
+                parts.add(template.substring(position));
+                break;
+            }
+            int close = template.indexOf('}', open);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed variable in URI template " + template);
+            }
+            parts.add(template.substring(position, open));
+            position = close + 1;
+        }
+        this.literals = parts.toArray(String[]::new);
+        this.estimatedLength = template.length() + 16 * (literals.length - 1);
+    }
+
+    public static CompiledUriTemplate of(String baseUrl, String path) {
+        return new CompiledUriTemplate(baseUrl + path);
+    }
+
+    public URI expand(Object... values) {
+        int variables = literals.length - 1;
+        if (values.length != variables) {
+            throw new IllegalArgumentException(template + " has " + variables + " variables, got " + values.length);
+        }
+        StringBuilder uri = new StringBuilder(estimatedLength).append(literals[0]);
+        for (int i = 0; i < variables; i++) {
+            Object value = values[i];
+            String text = value == null ? "" : value.toString();
+            uri.append(value instanceof Number ? text : UriUtils.encode(text, StandardCharsets.UTF_8))
+                    .append(literals[i + 1]);
+        }
+        return URI.create(uri.toString());
+    }
+
+    /**
+     * The template as written, including the base URL; this is what ends up in metrics.
+     */
+    public String template() {
+        return template;
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+}
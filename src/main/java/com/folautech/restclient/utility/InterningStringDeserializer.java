@@ -0,0 +1,28 @@
+package com.folautech.restclient.utility;
+
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.deser.std.StdScalarDeserializer;
+
+/**
+ * String deserializer for low-cardinality fields ({@code @JsonDeserialize(using = ...)}): values are canonicalized
+ * through a shared {@link StringInterner}, so a result set with thousands of copies of the same website holds one
+ * String. Non-string tokens fall back to Jackson's usual coercion.
+ */
+public class InterningStringDeserializer extends StdScalarDeserializer<String> {
+
+    private static final StringInterner INTERNER = new StringInterner(4096, 64);
+
+    public InterningStringDeserializer() {
+        super(String.class);
+    }
+
+    @Override
+    public String deserialize(JsonParser parser, DeserializationContext context) {
+        if (parser.hasToken(JsonToken.VALUE_STRING)) {
+            return INTERNER.intern(parser.getStringCharacters(), parser.getStringOffset(), parser.getStringLength());
+        }
+        return context.readValue(parser, String.class);
+    }
+}
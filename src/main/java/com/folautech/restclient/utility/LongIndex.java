@@ -0,0 +1,94 @@
+package com.folautech.restclient.utility;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Immutable map from primitive {@code long} keys to values: a sorted {@code long[]} searched by bisection, next to
+ * the values in the same order. No boxed keys and no entry objects, so an index over thousands of records costs
+ * two arrays; built once per data set and then shared by readers without locking.
+ */
+public final class LongIndex<V> {
+
+    private final long[] keys;
+    private final Object[] values;
+
+    private LongIndex(long[] keys, Object[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /**
+     * One entry per distinct key; when items share a key, the last one wins.
+     */
+    public static <T> LongIndex<T> uniqueBy(Collection<T> items, ToLongFunction<? super T> key) {
+        List<T> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparingLong(key));
+        long[] keys = new long[sorted.size()];
+        Object[] values = new Object[sorted.size()];
+        int size = 0;
+        for (T item : sorted) {
+            long k = key.applyAsLong(item);
+            if (size > 0 && keys[size - 1] == k) {
+                values[size - 1] = item;
+            } else {
+                keys[size] = k;
+                values[size++] = item;
+            }
+        }
+        return new LongIndex<>(Arrays.copyOf(keys, size), Arrays.copyOf(values, size));
+    }
+
+    /**
+     * One entry per distinct key, holding the items with that key in their original order as an unmodifiable list.
+     */
+    public static <T> LongIndex<List<T>> groupBy(Collection<T> items, ToLongFunction<? super T> key) {
+        List<T> sorted = new ArrayList<>(items);
+        // stable, so each group keeps the input order
+        sorted.sort(Comparator.comparingLong(key));
+        long[] keys = new long[sorted.size()];
+        Object[] values = new Object[sorted.size()];
+        int size = 0;
+        int start = 0;
+        for (int i = 1; i <= sorted.size(); i++) {
+            if (i == sorted.size() || key.applyAsLong(sorted.get(i)) != key.applyAsLong(sorted.get(start))) {
+                keys[size] = key.applyAsLong(sorted.get(start));
+                values[size++] = List.copyOf(sorted.subList(start, i));
+                start = i;
+            }
+        }
+        return new LongIndex<>(Arrays.copyOf(keys, size), Arrays.copyOf(values, size));
+    }
+
+    /**
+     * The value for {@code key}, or null.
+     */
+    public V get(long key) {
+        int index = indexOf(key);
+        return index < 0 ? null : valueAt(index);
+    }
+
+    /**
+     * Position of {@code key}, or a negative number when it is absent.
+     */
+    public int indexOf(long key) {
+        return Arrays.binarySearch(keys, key);
+    }
+
+    public long keyAt(int index) {
+        return keys[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    public V valueAt(int index) {
+        return (V) values[index];
+    }
+
+    public int size() {
+        return keys.length;
+    }
+}
@@ -0,0 +1,114 @@
+package com.folautech.restclient.utility;
+
+import com.folautech.restclient.dto.BulkResult;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Sink that applies {@code call} to each submitted item on its own virtual thread, with at most {@code window}
+ * calls in flight. {@link #submit} blocks the producer while the window is full, so a fast producer is paced by
+ * the upstream instead of queueing without bound, and throughput grows with the window rather than being one
+ * item per round trip.
+ * <p>
+ * Every item gets a sequence number in submission order (from 0). {@code onResult} receives one
+ * {@link BulkResult} per item, keyed by that sequence number, in completion order and on the worker thread,
+ * so it must be thread-safe. {@link #close()} waits for the calls still in flight. Workers run with the MDC of
+ * the thread that created the writer.
+ */
+public class PipelinedWriter<T, R> implements AutoCloseable {
+
+    private final Function<T, R> call;
+    private final Consumer<BulkResult<R>> onResult;
+    private final int window;
+    private final Semaphore permits;
+    private final MdcTaskDecorator mdc = new MdcTaskDecorator();
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private volatile boolean closed;
+
+    public PipelinedWriter(Function<T, R> call, int window, Consumer<BulkResult<R>> onResult) {
+        if (window < 1) {
+            throw new IllegalArgumentException("window must be at least 1");
+        }
+        this.call = call;
+        this.onResult = onResult;
+        this.window = window;
+        this.permits = new Semaphore(window);
+    }
+
+    /**
+     * Starts the call for {@code item} once a slot in the window is free. Returns its sequence number.
+     */
+    public long submit(T item) {
+        if (closed) {
+            throw new IllegalStateException("Writer is closed");
+        }
+        acquire(1);
+        long id = sequence.getAndIncrement();
+        Thread.ofVirtual().name("rest-client-writer").start(mdc.decorate(() -> {
+            // released whatever happens, an Error included, or flush() and close() would wait forever
+            try {
+                BulkResult<R> result;
+                try {
+                    result = BulkResult.success(id, call.apply(item));
+                    succeeded.increment();
+                } catch (RuntimeException e) {
+                    result = BulkResult.failure(id, e);
+                    failed.increment();
+                }
+                onResult.accept(result);
+            } finally {
+                permits.release();
+            }
+        }));
+        return id;
+    }
+
+    /**
+     * Waits until every submitted call has completed and reported its result.
+     */
+    public void flush() {
+        acquire(window);
+        permits.release(window);
+    }
+
+    public long getSubmitted() {
+        return sequence.get();
+    }
+
+    public long getSucceeded() {
+        return succeeded.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public int getInFlight() {
+        return window - permits.availablePermits();
+    }
+
+    /**
+     * Stops accepting items and waits for the ones in flight.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        flush();
+    }
+
+    private void acquire(int count) {
+        try {
+            permits.acquire(count);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the in-flight window", e);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.folautech.restclient.utility;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Iterates a paged collection while a virtual thread fetches the following pages ahead of the consumer.
+ * <p>
+ * Pages are requested as {@code (start, limit)} in order until one comes back shorter than {@code pageSize}.
+ * Up to {@code readAhead} fetched pages wait in a bounded queue; when the consumer falls behind the fetcher
+ * blocks on the queue, so a slow consumer holds at most {@code readAhead + 1} pages (plus the one it is reading)
+ * and the upstream is not asked for more. The first item is available as soon as the first page arrives,
+ * however large the collection is.
+ * <p>
+ * A failed fetch ends the iteration: the consumer gets the exception from {@code next()}/{@code hasNext()}
+ * once it has drained the pages before it. {@link #close()} stops the fetcher, so an iterator that is not read to
+ * the end should be closed (try-with-resources); otherwise its fetcher stays parked on the full queue. The
+ * fetcher runs with the MDC of the thread that created the iterator.
+ */
+public class PrefetchingPageIterator<T> implements Iterator<T>, AutoCloseable {
+
+    /**
+     * Fetches {@code limit} elements starting at {@code start}.
+     */
+    @FunctionalInterface
+    public interface PageFetcher<T> {
+        List<T> fetch(int start, int limit);
+    }
+
+    private static final Page<?> END = new Page<>(Collections.emptyList(), null);
+
+    private final BlockingQueue<Page<T>> pages;
+    private final Thread fetcher;
+    private Iterator<T> current = Collections.emptyIterator();
+    private boolean finished;
+    private volatile boolean closed;
+
+    public PrefetchingPageIterator(PageFetcher<T> pageFetcher, int pageSize, int readAhead) {
+        if (pageSize < 1 || readAhead < 1) {
+            throw new IllegalArgumentException("pageSize and readAhead must be at least 1");
+        }
+        this.pages = new ArrayBlockingQueue<>(readAhead);
+        this.fetcher = Thread.ofVirtual().name("rest-client-prefetch")
+                .start(new MdcTaskDecorator().decorate(() -> fetchAll(pageFetcher, pageSize)));
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            if (finished) {
+                return false;
+            }
+            Page<T> page = take();
+            if (page.error() != null) {
+                finished = true;
+                throw page.error();
+            }
+            if (page == END) {
+                finished = true;
+                return false;
+            }
+            current = page.items().iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        finished = true;
+        current = Collections.emptyIterator();
+        fetcher.interrupt();
+        pages.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void fetchAll(PageFetcher<T> pageFetcher, int pageSize) {
+        try {
+            int start = 0;
+            while (!closed) {
+                List<T> items = pageFetcher.fetch(start, pageSize);
+                if (items != null && !items.isEmpty()) {
+                    pages.put(new Page<>(items, null));
+                }
+                if (items == null || items.size() < pageSize) {
+                    break;
+                }
+                start += items.size();
+            }
+            pages.put((Page<T>) END);
+        } catch (InterruptedException e) {
+            // closed by the consumer
+        } catch (RuntimeException e) {
+            if (!closed) {
+                try {
+                    pages.put(new Page<>(Collections.emptyList(), e));
+                } catch (InterruptedException interrupted) {
+                    // closed by the consumer
+                }
+            }
+        }
+    }
+
+    private Page<T> take() {
+        try {
+            return pages.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finished = true;
+            throw new IllegalStateException("Interrupted while waiting for the next page", e);
+        }
+    }
+
+    private record Page<T>(List<T> items, RuntimeException error) {
+    }
+}
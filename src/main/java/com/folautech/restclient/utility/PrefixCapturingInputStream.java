@@ -0,0 +1,94 @@
+package com.folautech.restclient.utility;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Tee over a response body: bytes pass through to the caller untouched while the first {@code limit}
+ * of them are copied aside. When the stream hits EOF or is closed the captured prefix is handed to
+ * {@code onComplete} exactly once. Nothing past the limit is retained.
+ */
+public class PrefixCapturingInputStream extends FilterInputStream {
+
+    private final byte[] prefix;
+    private final Consumer<Captured> onComplete;
+    private int captured;
+    private long total;
+    private boolean completed;
+
+    public PrefixCapturingInputStream(InputStream in, int limit, Consumer<Captured> onComplete) {
+        super(in);
+        this.prefix = new byte[Math.max(0, limit)];
+        this.onComplete = onComplete;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b == -1) {
+            complete();
+        } else {
+            if (captured < prefix.length) {
+                prefix[captured++] = (byte) b;
+            }
+            total++;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n == -1) {
+            complete();
+        } else if (n > 0) {
+            int room = Math.min(n, prefix.length - captured);
+            if (room > 0) {
+                System.arraycopy(b, off, prefix, captured, room);
+                captured += room;
+            }
+            total += n;
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        total += skipped;
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            complete();
+        }
+    }
+
+    private void complete() {
+        if (!completed) {
+            completed = true;
+            onComplete.accept(new Captured(prefix, captured, total));
+        }
+    }
+
+    /**
+     * The captured head of the body and how many bytes the caller read in total.
+     */
+    public record Captured(byte[] prefix, int length, long totalBytes) {
+
+        public boolean truncated() {
+            return totalBytes > length;
+        }
+    }
+}
@@ -1,74 +1,218 @@
 package com.folautech.restclient.utility;
 
+import com.folautech.restclient.config.RestClientProperties;
+import com.folautech.restclient.transport.BinaryFormat;
+import com.folautech.restclient.transport.StreamingRequestBody;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.client.ClientHttpRequestExecution;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.AntPathMatcher;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.net.URI;
 import java.nio.charset.StandardCharsets;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
+/**
+ * Request/response logging interceptor.
+ * <p>
+ * The response body is never buffered: it is wrapped in a {@link PrefixCapturingInputStream} that keeps
+ * the first {@code maxBodyBytes} as the message converter reads it. Exchanges are sampled per endpoint and
+ * all formatting happens on an {@link AsyncLogWriter} thread.
+ */
 @Slf4j
-public class RestClientLog implements ClientHttpRequestInterceptor {
+public class RestClientLog implements ClientHttpRequestInterceptor, AutoCloseable {
 
-    private boolean enabled = true;
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final boolean enabled;
+    private final int maxBodyBytes;
+    private final double defaultSampleRate;
+    private final List<Map.Entry<String, Double>> sampleRates;
+    private final AsyncLogWriter writer;
 
     public RestClientLog() {
         this(true);
     }
 
     public RestClientLog(boolean enabled) {
-        this.enabled = enabled;
+        this(loggingProperties(enabled));
+    }
+
+    public RestClientLog(RestClientProperties.Logging properties) {
+        this.enabled = properties.isEnabled();
+        this.maxBodyBytes = properties.getMaxBodyBytes();
+        this.defaultSampleRate = properties.getDefaultSampleRate();
+        this.sampleRates = new ArrayList<>(properties.getSampleRates().entrySet());
+        this.writer = enabled ? new AsyncLogWriter("rest-client-log", properties.getQueueCapacity()) : null;
     }
 
     @Override
     public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
             throws IOException {
-        if (enabled) {
-            logRequest(request, body);
+        if (!enabled || !log.isInfoEnabled() || !sampled(request.getURI())) {
+            return execution.execute(request, body);
         }
 
+        logRequest(request, body);
+
+        long start = System.nanoTime();
         ClientHttpResponse response = execution.execute(request, body);
+        long headersMillis = (System.nanoTime() - start) / 1_000_000;
 
-        if (enabled) {
-            logResponse(response);
-        }
-        return response;
+        return new LoggingResponse(response, headersMillis);
     }
 
-    private void logRequest(HttpRequest request, byte[] body) {
-        log.info("============================= REQUEST =============================");
-        log.info("URI         : {}", request.getURI());
-        log.info("Method      : {}", request.getMethod());
-        log.info("Headers     : {}", request.getHeaders());
-        if (body.length > 0) {
-            log.info("Body        : {}", new String(body, StandardCharsets.UTF_8));
-        } else {
-            log.info("Body        : {}");
+    double sampleRate(URI uri) {
+        String path = uri.getRawPath();
+        for (Map.Entry<String, Double> entry : sampleRates) {
+            if (PATH_MATCHER.match(entry.getKey(), path)) {
+                return entry.getValue();
+            }
         }
+        return defaultSampleRate;
     }
 
-    private void logResponse(ClientHttpResponse response) {
-        try {
+    private boolean sampled(URI uri) {
+        double rate = sampleRate(uri);
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private void logRequest(HttpRequest request, byte[] body) throws IOException {
+        URI uri = request.getURI();
+        HttpMethod method = request.getMethod();
+        HttpHeaders headers = request.getHeaders();
+        int length = Math.min(body.length, maxBodyBytes);
+        StreamingRequestBody streamed = body.length == 0 ? StreamingRequestBody.of(request) : null;
+        // written on the caller's thread: the body may be a file or serialized from caller-owned objects
+        byte[] preview = streamed != null ? streamed.preview(maxBodyBytes) : null;
+
+        writer.submit(() -> {
+            log.info("============================= REQUEST =============================");
+            log.info("URI         : {}", uri);
+            log.info("Method      : {}", method);
+            log.info("Headers     : {}", headers);
+            if (body.length > 0) {
+                log.info("Body        : {}", abbreviate(body, length, body.length));
+            } else if (streamed != null) {
+                String text = new String(preview, StandardCharsets.UTF_8);
+                log.info("Body        : {}", preview.length < maxBodyBytes ? text
+                        : text + "... (" + (streamed.getContentLength() >= 0
+                                ? streamed.getContentLength() + " bytes" : "streamed") + ")");
+            } else {
+                log.info("Body        : {}");
+            }
+        });
+    }
+
+    private void logResponse(HttpStatusCode status, String statusText, HttpHeaders headers, long headersMillis,
+                             PrefixCapturingInputStream.Captured body) {
+        writer.submit(() -> {
             log.info("============================= RESPONSE ============================");
-            log.info("Status Code : {}", response.getStatusCode());
-            log.info("Status Text : {}", response.getStatusText());
-            log.info("Headers     : {}", response.getHeaders());
-
-            // Read and log response body
-            String responseBody = new BufferedReader(
-                    new InputStreamReader(response.getBody(), StandardCharsets.UTF_8))
-                    .lines()
-                    .collect(Collectors.joining("\n"));
-            log.info("Body        : {}", responseBody);
+            log.info("Status Code : {}", status);
+            log.info("Status Text : {}", statusText);
+            log.info("Headers     : {}", headers);
+            log.info("Duration    : {} ms", headersMillis);
+            if (BinaryFormat.of(headers.getContentType()) != null) {
+                log.info("Body        : ({} bytes of {})", body.totalBytes(), headers.getContentType());
+            } else {
+                log.info("Body        : {}", abbreviate(body.prefix(), body.length(), body.totalBytes()));
+            }
             log.info("===================================================================");
-        } catch (Exception e) {
-            log.warn("Exception msg: {}", e.getMessage());
+        });
+    }
+
+    private static String abbreviate(byte[] bytes, int length, long total) {
+        String text = new String(bytes, 0, length, StandardCharsets.UTF_8);
+        return total > length ? text + "... (" + total + " bytes)" : text;
+    }
+
+    private static RestClientProperties.Logging loggingProperties(boolean enabled) {
+        RestClientProperties.Logging properties = new RestClientProperties.Logging();
+        properties.setEnabled(enabled);
+        return properties;
+    }
+
+    @Override
+    public void close() {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    /**
+     * Hands the body back through a tee and emits the response log entry once the caller is done with it.
+     */
+    private class LoggingResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final long headersMillis;
+        private PrefixCapturingInputStream body;
+        private boolean logged;
+
+        LoggingResponse(ClientHttpResponse delegate, long headersMillis) {
+            this.delegate = delegate;
+            this.headersMillis = headersMillis;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new PrefixCapturingInputStream(delegate.getBody(), maxBodyBytes, this::complete);
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            try {
+                if (body != null) {
+                    body.close();
+                } else {
+                    complete(new PrefixCapturingInputStream.Captured(new byte[0], 0, 0));
+                }
+            } catch (IOException e) {
+                log.warn("Exception msg: {}", e.getMessage());
+            } finally {
+                delegate.close();
+            }
+        }
+
+        private void complete(PrefixCapturingInputStream.Captured captured) {
+            if (logged) {
+                return;
+            }
+            logged = true;
+            try {
+                logResponse(delegate.getStatusCode(), delegate.getStatusText(), delegate.getHeaders(),
+                        headersMillis, captured);
+            } catch (Exception e) {
+                log.warn("Exception msg: {}", e.getMessage());
+            }
         }
     }
 }
@@ -0,0 +1,147 @@
+package com.folautech.restclient.utility;
+
+import com.folautech.restclient.metrics.ClientStatisticsContributor;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent identical calls into one. The first caller for a key runs the call, on its own thread for
+ * {@link #execute} and on a virtual thread carrying its MDC for {@link #submit}; everyone who asks for the same key
+ * while it is running waits on the same result, or the same exception.
+ * <p>
+ * Interrupting a waiting thread, or cancelling a future returned by {@link #submit}, only detaches that waiter.
+ * Interrupting the thread that runs the call fails it for everyone waiting on it. Results are shared instances and
+ * should be treated as read-only.
+ */
+public class SingleFlight implements ClientStatisticsContributor {
+
+    private final boolean enabled;
+    private final Executor executor;
+    private final MdcTaskDecorator mdc = new MdcTaskDecorator();
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public SingleFlight(boolean enabled) {
+        this(enabled, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    public SingleFlight(boolean enabled, Executor executor) {
+        this.enabled = enabled;
+        this.executor = executor;
+    }
+
+    /**
+     * Runs {@code call} or joins an identical one already in flight, blocking until the result is available.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        CompletableFuture<Object> created = new CompletableFuture<>();
+        CompletableFuture<Object> shared = inFlight.putIfAbsent(key, created);
+        if (shared != null) {
+            coalesced.increment();
+            return (T) await(key, shared.copy());
+        }
+        executions.increment();
+        try {
+            T result = call.get();
+            created.complete(result);
+            return result;
+        } catch (Throwable t) {
+            created.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    /**
+     * Non-blocking form of {@link #execute}. Each caller gets its own future, so cancelling it does not
+     * cancel the shared call.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> submit(String key, Supplier<T> call) {
+        if (!enabled) {
+            return CompletableFuture.supplyAsync(call, task -> executor.execute(mdc.decorate(task)));
+        }
+        CompletableFuture<Object> created = new CompletableFuture<>();
+        CompletableFuture<Object> shared = inFlight.putIfAbsent(key, created);
+        if (shared == null) {
+            shared = created;
+            executions.increment();
+            executor.execute(mdc.decorate(() -> {
+                try {
+                    created.complete(call.get());
+                } catch (Throwable t) {
+                    created.completeExceptionally(t);
+                } finally {
+                    inFlight.remove(key, created);
+                }
+            }));
+        } else {
+            coalesced.increment();
+        }
+        return (CompletableFuture<T>) shared.copy();
+    }
+
+    @Override
+    public String getStatisticsSection() {
+        return "coalescing";
+    }
+
+    @Override
+    public CoalescingStatistics getStatistics() {
+        return new CoalescingStatistics(getExecutions(), getCoalesced(), getInFlight());
+    }
+
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    /**
+     * Calls that actually went upstream.
+     */
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    /**
+     * Calls that piggybacked on one already in flight.
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    private static <T> T await(String key, CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrupted waiting for " + key,
+                    new InterruptedIOException(e.getMessage()));
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    public record CoalescingStatistics(long executions, long coalesced, int inFlight) {
+    }
+}
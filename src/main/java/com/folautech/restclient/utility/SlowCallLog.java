@@ -0,0 +1,64 @@
+package com.folautech.restclient.utility;
+
+import com.folautech.restclient.config.RestClientProperties;
+import com.folautech.restclient.metrics.ClientStatisticsContributor;
+import com.folautech.restclient.transport.ExchangeTiming;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Logs the phase breakdown ({@link ExchangeTiming}) of exchanges that took {@code slowCallThreshold} or longer,
+ * failed ones included; faster exchanges are only counted. Lines are written on an {@link AsyncLogWriter} thread.
+ */
+@Slf4j
+public class SlowCallLog implements Consumer<ExchangeTiming>, AutoCloseable, ClientStatisticsContributor {
+
+    private final long thresholdNanos;
+    private final AsyncLogWriter writer;
+    private final LongAdder exchanges = new LongAdder();
+    private final LongAdder slowCalls = new LongAdder();
+
+    public SlowCallLog(RestClientProperties.Timing properties) {
+        this.thresholdNanos = properties.getSlowCallThreshold().toNanos();
+        this.writer = new AsyncLogWriter("rest-client-slow-call-log", properties.getQueueCapacity());
+    }
+
+    @Override
+    public void accept(ExchangeTiming timing) {
+        exchanges.increment();
+        if (timing.getTotal().toNanos() < thresholdNanos) {
+            return;
+        }
+        slowCalls.increment();
+        if (log.isWarnEnabled()) {
+            // formatted on the calling thread; only the appender I/O is deferred
+            String line = timing.toString();
+            writer.submit(() -> log.warn("Slow call: {}", line));
+        }
+    }
+
+    @Override
+    public String getStatisticsSection() {
+        return "slowCalls";
+    }
+
+    @Override
+    public SlowCallStatistics getStatistics() {
+        return new SlowCallStatistics(thresholdNanos / 1_000_000, exchanges.sum(), slowCalls.sum(),
+                writer.getDropped());
+    }
+
+    @Override
+    public void close() {
+        writer.close();
+    }
+
+    /**
+     * Exchanges timed and how many of them were slow, since startup; {@code dropped} counts slow-call lines lost
+     * to a full log queue.
+     */
+    public record SlowCallStatistics(long thresholdMillis, long exchanges, long slowCalls, long dropped) {
+    }
+}
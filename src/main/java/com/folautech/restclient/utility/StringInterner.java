@@ -0,0 +1,76 @@
+package com.folautech.restclient.utility;
+
+/**
+ * Bounded, lossy string canonicalizer: a fixed-size table indexed by hash, where a new value simply takes over
+ * its slot. Repeated low-cardinality values (usernames, websites) come back as one shared instance; a
+ * high-cardinality value costs a slot and nothing else, so memory stays at {@code capacity} references.
+ * <p>
+ * Lookups from a char range, as Jackson exposes the current token, allocate nothing on a hit. The table is
+ * read and written without locking: a String is immutable and safely published, so a racing reader sees
+ * either the old or the new entry, and the worst case is a missed hit.
+ */
+public final class StringInterner {
+
+    private final String[] table;
+    private final int mask;
+    private final int maxLength;
+
+    /**
+     * @param capacity  slots, rounded up to a power of two
+     * @param maxLength longer strings are returned as they are, so large unique values do not churn the table
+     */
+    public StringInterner(int capacity, int maxLength) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+        this.table = new String[size];
+        this.mask = size - 1;
+        this.maxLength = maxLength;
+    }
+
+    public String intern(String value) {
+        if (value == null || value.length() > maxLength) {
+            return value;
+        }
+        int slot = slot(value.hashCode());
+        String existing = table[slot];
+        if (value.equals(existing)) {
+            return existing;
+        }
+        table[slot] = value;
+        return value;
+    }
+
+    public String intern(char[] chars, int offset, int length) {
+        if (length > maxLength) {
+            return new String(chars, offset, length);
+        }
+        // same function as String.hashCode, so both overloads agree on the slot
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        int slot = slot(hash);
+        String existing = table[slot];
+        if (existing != null && matches(existing, chars, offset, length)) {
+            return existing;
+        }
+        String value = new String(chars, offset, length);
+        table[slot] = value;
+        return value;
+    }
+
+    private int slot(int hash) {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private static boolean matches(String existing, char[] chars, int offset, int length) {
+        if (existing.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (existing.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,271 @@
+package com.folautech.restclient.balance;
+
+import com.folautech.restclient.config.RestClientProperties;
+import com.folautech.restclient.load.StubUpstreamServer;
+import com.folautech.restclient.service.JsonPlaceholderService;
+import com.folautech.restclient.transport.ConnectionUnavailableException;
+import com.folautech.restclient.transport.PerHostLimitingRequestFactory;
+import com.folautech.restclient.utility.SingleFlight;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadBalancerTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void powerOfTwoChoicesPrefersTheFasterReplica() {
+        LoadBalancer balancer = new LoadBalancer(properties("http://fast", "http://slow"), clock::get);
+
+        Map<String, Integer> picks = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            Upstream upstream = balancer.pick();
+            picks.merge(upstream.baseUrl(), 1, Integer::sum);
+            clock.addAndGet(MILLI);
+            balancer.succeeded(upstream, upstream.baseUrl().equals("http://fast") ? 5 * MILLI : 50 * MILLI);
+            balancer.release(upstream);
+        }
+
+        assertTrue(picks.get("http://fast") > 900, picks.toString());
+    }
+
+    @Test
+    void leastOutstandingSpreadsCallsInFlight() {
+        RestClientProperties.Balancer properties = properties("http://a", "http://b", "http://c");
+        properties.setStrategy(BalancingStrategy.LEAST_OUTSTANDING);
+        LoadBalancer balancer = new LoadBalancer(properties, clock::get);
+
+        for (int i = 0; i < 9; i++) {
+            balancer.pick();
+        }
+
+        balancer.getStatistics().values().forEach(statistics -> assertEquals(3, statistics.outstanding()));
+    }
+
+    @Test
+    void ejectsAfterConsecutiveFailuresAndRampsBackUp() {
+        LoadBalancer balancer = new LoadBalancer(properties("http://a", "http://b"), clock::get);
+        Upstream a = upstream(balancer, "http://a");
+
+        for (int i = 0; i < 5; i++) {
+            balancer.failed(a);
+        }
+        assertTrue(balancer.getStatistics().get("http://a").ejected());
+        for (int i = 0; i < 100; i++) {
+            Upstream upstream = balancer.pick();
+            assertEquals("http://b", upstream.baseUrl());
+            balancer.release(upstream);
+        }
+
+        // back after the 30s ejection, at 10% of its share, then ramping over the 30s slow start
+        clock.addAndGet(30 * SECOND);
+        assertEquals(0.1, balancer.getStatistics().get("http://a").weight(), 1e-9);
+        clock.addAndGet(15 * SECOND);
+        assertEquals(0.5, balancer.getStatistics().get("http://a").weight(), 1e-9);
+        clock.addAndGet(15 * SECOND);
+        assertEquals(1.0, balancer.getStatistics().get("http://a").weight(), 1e-9);
+    }
+
+    @Test
+    void repeatedEjectionsLastLonger() {
+        LoadBalancer balancer = new LoadBalancer(properties("http://a", "http://b"), clock::get);
+        Upstream a = upstream(balancer, "http://a");
+
+        for (int i = 0; i < 5; i++) {
+            balancer.failed(a);
+        }
+        clock.addAndGet(30 * SECOND);
+        for (int i = 0; i < 5; i++) {
+            balancer.failed(a);
+        }
+
+        clock.addAndGet(30 * SECOND);
+        assertTrue(balancer.getStatistics().get("http://a").ejected());
+        clock.addAndGet(30 * SECOND);
+        assertFalse(balancer.getStatistics().get("http://a").ejected());
+        assertEquals(2, balancer.getStatistics().get("http://a").ejections());
+    }
+
+    @Test
+    void neverEjectsMoreThanTheCap() {
+        LoadBalancer balancer = new LoadBalancer(properties("http://a", "http://b"), clock::get);
+
+        for (String url : List.of("http://a", "http://b")) {
+            Upstream upstream = upstream(balancer, url);
+            for (int i = 0; i < 5; i++) {
+                balancer.failed(upstream);
+            }
+        }
+
+        assertTrue(balancer.getStatistics().get("http://a").ejected());
+        assertFalse(balancer.getStatistics().get("http://b").ejected());
+    }
+
+    @Test
+    void routesServiceCallsAroundAFailingReplica() throws IOException {
+        RestClientProperties.Stub healthy = stub(0.0);
+        RestClientProperties.Stub failing = stub(1.0);
+        try (StubUpstreamServer good = new StubUpstreamServer(healthy, JsonMapper.builder().build());
+             StubUpstreamServer bad = new StubUpstreamServer(failing, JsonMapper.builder().build())) {
+            RestClientProperties properties = new RestClientProperties();
+            properties.setBaseUrl("http://posts.internal");
+            RestClientProperties.Balancer balancer = properties.getBalancer();
+            balancer.setUpstreams(List.of(good.baseUrl(), bad.baseUrl()));
+            balancer.setConsecutiveFailures(2);
+            LoadBalancingInterceptor interceptor = new LoadBalancingInterceptor(properties.getBaseUrl(),
+                    new LoadBalancer(balancer));
+            RestClient restClient = RestClient.builder()
+                    .requestFactory(new JdkClientHttpRequestFactory())
+                    .requestInterceptor(interceptor)
+                    .build();
+            JsonPlaceholderService service = new JsonPlaceholderService(restClient, new SingleFlight(false),
+                    properties, JsonMapper.builder().build());
+
+            int failures = 0;
+            for (long id = 1; id <= 50; id++) {
+                try {
+                    assertEquals(id % 10 + 1, service.getUserById(id % 10 + 1).getId());
+                } catch (RuntimeException e) {
+                    failures++;
+                }
+            }
+
+            assertTrue(failures <= 2, "failures: " + failures);
+            assertTrue(interceptor.getStatistics().get(bad.baseUrl()).ejected());
+            assertEquals(failures, bad.getInjectedErrors());
+            assertEquals(50 - failures, good.getRequests());
+        }
+    }
+
+    @Test
+    void localRejectionsAndInterruptedCallsAreNotCountedAgainstTheReplica() throws Exception {
+        RestClientProperties.Stub slow = stub(0.0);
+        slow.setLatency(Duration.ofSeconds(2));
+        try (StubUpstreamServer upstream = new StubUpstreamServer(slow, JsonMapper.builder().build())) {
+            RestClientProperties.Balancer properties = properties(upstream.baseUrl());
+            properties.setConsecutiveFailures(1);
+            LoadBalancingInterceptor interceptor = new LoadBalancingInterceptor("http://posts.internal",
+                    new LoadBalancer(properties));
+            RestClient restClient = RestClient.builder()
+                    .requestFactory(new PerHostLimitingRequestFactory(new JdkClientHttpRequestFactory(), 1,
+                            Duration.ofMillis(50)))
+                    .requestInterceptor(interceptor)
+                    .build();
+
+            Thread caller = Thread.ofPlatform().start(() -> {
+                try {
+                    restClient.get().uri("http://posts.internal/users/1").retrieve().body(String.class);
+                } catch (RuntimeException e) {
+                    // interrupted below
+                }
+            });
+            while (upstream.getRequests() == 0) {
+                Thread.sleep(5);
+            }
+            // the only connection is taken: this call times out in the client's pool
+            ResourceAccessException rejected = assertThrows(ResourceAccessException.class,
+                    () -> restClient.get().uri("http://posts.internal/users/2").retrieve().body(String.class));
+            assertInstanceOf(ConnectionUnavailableException.class, rejected.getCause());
+            caller.interrupt();
+            caller.join(5_000);
+
+            LoadBalancer.UpstreamStatistics statistics = interceptor.getStatistics().get(upstream.baseUrl());
+            assertEquals(0, statistics.failures());
+            assertFalse(statistics.ejected());
+            assertEquals(0, statistics.outstanding());
+        }
+    }
+
+    @Test
+    void unreadableStatusStillReleasesTheReplica() {
+        LoadBalancingInterceptor interceptor = new LoadBalancingInterceptor("http://posts.internal",
+                new LoadBalancer(properties("http://a")));
+        MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.GET,
+                URI.create("http://posts.internal/users/1"));
+        AtomicBoolean closed = new AtomicBoolean();
+
+        assertThrows(IOException.class, () -> interceptor.intercept(request, new byte[0],
+                (target, body) -> new ClientHttpResponse() {
+                    @Override
+                    public HttpStatusCode getStatusCode() throws IOException {
+                        throw new IOException("bad status line");
+                    }
+
+                    @Override
+                    public String getStatusText() throws IOException {
+                        throw new IOException("bad status line");
+                    }
+
+                    @Override
+                    public HttpHeaders getHeaders() {
+                        return new HttpHeaders();
+                    }
+
+                    @Override
+                    public InputStream getBody() {
+                        return InputStream.nullInputStream();
+                    }
+
+                    @Override
+                    public void close() {
+                        closed.set(true);
+                    }
+                }));
+
+        LoadBalancer.UpstreamStatistics statistics = interceptor.getStatistics().get("http://a");
+        assertEquals(0, statistics.outstanding());
+        assertEquals(1, statistics.failures());
+        assertTrue(closed.get());
+    }
+
+    private static Upstream upstream(LoadBalancer balancer, String url) {
+        // pick until the wanted replica comes up, so the test goes through the public entry point
+        while (true) {
+            Upstream upstream = balancer.pick();
+            balancer.release(upstream);
+            if (upstream.baseUrl().equals(url)) {
+                return upstream;
+            }
+        }
+    }
+
+    private static RestClientProperties.Balancer properties(String... upstreams) {
+        RestClientProperties.Balancer properties = new RestClientProperties.Balancer();
+        properties.setUpstreams(List.of(upstreams));
+        return properties;
+    }
+
+    private static RestClientProperties.Stub stub(double errorRate) {
+        RestClientProperties.Stub stub = new RestClientProperties.Stub();
+        stub.setPort(0);
+        stub.setLatency(Duration.ZERO);
+        stub.setLatencyJitter(Duration.ZERO);
+        stub.setSlowRate(0);
+        stub.setErrorRate(errorRate);
+        return stub;
+    }
+}
@@ -0,0 +1,138 @@
+package com.folautech.restclient.benchmark;
+
+import com.folautech.restclient.config.RestClientProperties;
+import com.folautech.restclient.dto.User;
+import com.folautech.restclient.transport.HttpTransportFactory;
+import com.folautech.restclient.transport.TransportType;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.client.BufferingClientHttpRequestFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Compares the previous SimpleClientHttpRequestFactory setup with the pooled JDK transport against a
+ * loopback server. Opt-in: {@code ./mvnw test -Dtest=TransportBenchmark -Dbenchmark=true}
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TransportBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(TransportBenchmark.class);
+    private static final byte[] USER_JSON = """
+            {"id":1,"name":"Leanne Graham","username":"Bret","email":"Sincere@april.biz",\
+            "phone":"1-770-736-8031 x56442","website":"hildegard.org"}""".getBytes(StandardCharsets.UTF_8);
+
+    private static final int WARMUP_CALLS = 2_000;
+    private static final int MEASURED_CALLS = 10_000;
+    private static final int THREADS = 16;
+
+    private static HttpServer server;
+    private static String baseUrl;
+
+    @BeforeAll
+    static void startServer() throws Exception {
+        // without this the loopback server's split header/body writes hit the 40ms delayed-ACK stall
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 512);
+        server.setExecutor(Executors.newFixedThreadPool(THREADS * 2));
+        server.createContext("/users/1", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, USER_JSON.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(USER_JSON);
+            }
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void compareTransports() throws Exception {
+        SimpleClientHttpRequestFactory simple = new SimpleClientHttpRequestFactory();
+        simple.setConnectTimeout(Duration.ofSeconds(5));
+        simple.setReadTimeout(Duration.ofSeconds(10));
+        RestClient baseline = RestClient.builder()
+                .requestFactory(new BufferingClientHttpRequestFactory(simple))
+                .build();
+
+        RestClientProperties.Transport transport = new RestClientProperties.Transport();
+        transport.setType(TransportType.JDK);
+        transport.setMaxConnectionsPerHost(THREADS);
+        // h2 is negotiated through TLS ALPN; the loopback server is cleartext HTTP/1.1
+        transport.setHttpVersion(HttpClient.Version.HTTP_1_1);
+        RestClient pooled = RestClient.builder()
+                .requestFactory(new HttpTransportFactory(transport).create())
+                .build();
+
+        run("simple+buffering", baseline);
+        run("jdk-pooled", pooled);
+    }
+
+    private void run(String name, RestClient client) throws Exception {
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            call(client);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_CALLS; i++) {
+            call(client);
+        }
+        report(name + " sequential", start);
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            start = System.nanoTime();
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < MEASURED_CALLS / THREADS; i++) {
+                        call(client);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            report(name + " " + THREADS + " threads", start);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void call(RestClient client) {
+        User user = client.get().uri(baseUrl + "/users/1").retrieve().body(User.class);
+        assertNotNull(user);
+    }
+
+    private void report(String name, long startNanos) {
+        double seconds = (System.nanoTime() - startNanos) / 1_000_000_000.0;
+        log.info("{}: {} calls in {} s -> {} calls/s, {} us/call", name, MEASURED_CALLS,
+                String.format("%.2f", seconds),
+                String.format("%.0f", MEASURED_CALLS / seconds),
+                String.format("%.1f", seconds * 1_000_000 / MEASURED_CALLS));
+    }
+}
@@ -0,0 +1,174 @@
+package com.folautech.restclient.bulkhead;
+
+import com.folautech.restclient.config.RestClientProperties;
+import com.folautech.restclient.transport.HttpTransportFactory;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadInterceptorTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicInteger postsInFlight = new AtomicInteger();
+    private volatile CountDownLatch postsBlocked = new CountDownLatch(0);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/users", exchange -> send(exchange, "{\"id\":1}"));
+        server.createContext("/posts", exchange -> {
+            postsInFlight.incrementAndGet();
+            try {
+                postsBlocked.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            postsInFlight.decrementAndGet();
+            send(exchange, "[]");
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        postsBlocked.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    void callsJoinTheBulkheadOfTheirAttributeOrFirstMatchingRoute() {
+        List<String> seen = new ArrayList<>();
+        ClientHttpRequestInterceptor recorder = (request, body, execution) -> {
+            seen.add(String.valueOf(BulkheadInterceptor.bulkheadOf(request)));
+            return execution.execute(request, body);
+        };
+        BulkheadInterceptor bulkheads = new BulkheadInterceptor(properties());
+        RestClient restClient = RestClient.builder().requestInterceptor(bulkheads).requestInterceptor(recorder).build();
+
+        restClient.get().uri(baseUrl + "/users/{id}", 1).retrieve().toBodilessEntity();
+        restClient.get().uri(baseUrl + "/posts?userId={userId}", 1).retrieve().toBodilessEntity();
+        restClient.post().uri(baseUrl + "/posts").body("{}").retrieve().toBodilessEntity();
+        restClient.get().uri(baseUrl + "/posts").attribute(BulkheadInterceptor.ATTRIBUTE, "lookups")
+                .retrieve().toBodilessEntity();
+
+        assertEquals(List.of("lookups", "lists", "null", "lookups"), seen);
+        Map<String, Bulkhead.BulkheadStatistics> statistics = bulkheads.getStatistics();
+        assertEquals(2, statistics.get("lookups").admitted());
+        assertEquals(1, statistics.get("lists").admitted());
+        assertEquals(0, statistics.get("lists").active());
+    }
+
+    @Test
+    void lookupsKeepTheirLatencyWhileListCallsAreSaturated() throws Exception {
+        RestClientProperties.Bulkheads properties = properties();
+        BulkheadInterceptor bulkheads = new BulkheadInterceptor(properties);
+        RestClientProperties.Transport transport = new RestClientProperties.Transport();
+        transport.setHttpVersion(HttpClient.Version.HTTP_1_1);
+        transport.setMaxConnectionsPerHost(2);
+        transport.setAcquireTimeout(Duration.ofSeconds(1));
+        HttpTransportFactory transportFactory = new HttpTransportFactory(transport);
+        Map<String, ClientHttpRequestFactory> slices = Map.of("lookups", transportFactory.create(4));
+        RestClient restClient = RestClient.builder()
+                .requestFactory(new BulkheadRoutingRequestFactory(transportFactory.create(), slices))
+                .requestInterceptor(bulkheads)
+                .build();
+
+        postsBlocked = new CountDownLatch(1);
+        List<Future<?>> lists = new ArrayList<>();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 10; i++) {
+                lists.add(callers.submit(() -> restClient.get().uri(baseUrl + "/posts")
+                        .retrieve()
+                        .body(String.class)));
+            }
+            while (postsInFlight.get() < 2) {
+                Thread.sleep(5);
+            }
+
+            // the list calls hold every slot of their bulkhead and every connection of the shared pool, so a lookup
+            // without its own would wait out the acquire timeout
+            long slowest = 0;
+            for (int i = 0; i < 20; i++) {
+                long start = System.nanoTime();
+                String user = restClient.get().uri(baseUrl + "/users/{id}", i).retrieve().body(String.class);
+                assertEquals("{\"id\":1}", user);
+                slowest = Math.max(slowest, System.nanoTime() - start);
+            }
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(slowest) < 250, "slowest lookup " + slowest + "ns");
+
+            postsBlocked.countDown();
+        }
+
+        int rejected = 0;
+        for (Future<?> list : lists) {
+            try {
+                list.get();
+            } catch (ExecutionException e) {
+                assertInstanceOf(ResourceAccessException.class, e.getCause());
+                assertInstanceOf(BulkheadFullException.class, e.getCause().getCause());
+                rejected++;
+            }
+        }
+        Bulkhead.BulkheadStatistics listStatistics = bulkheads.getStatistics().get("lists");
+        assertEquals(8, rejected);
+        assertEquals(2, listStatistics.admitted());
+        assertEquals(8, listStatistics.rejectedQueueFull() + listStatistics.rejectedTimeout());
+        assertEquals(20, bulkheads.getStatistics().get("lookups").admitted());
+        assertEquals(0, bulkheads.getStatistics().get("lookups").rejectedTimeout());
+    }
+
+    private static RestClientProperties.Bulkheads properties() {
+        RestClientProperties.Bulkheads properties = new RestClientProperties.Bulkheads();
+        RestClientProperties.Compartment lookups = new RestClientProperties.Compartment();
+        lookups.setRoutes(List.of("GET /users/*", "GET /posts/*"));
+        lookups.setMaxConcurrent(4);
+        lookups.setMaxConnections(4);
+        RestClientProperties.Compartment lists = new RestClientProperties.Compartment();
+        lists.setRoutes(List.of("GET /posts"));
+        lists.setMaxConcurrent(2);
+        lists.setMaxQueue(2);
+        lists.setMaxWait(Duration.ofMillis(50));
+        properties.getInstances().put("lookups", lookups);
+        properties.getInstances().put("lists", lists);
+        return properties;
+    }
+
+    private static void send(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.folautech.restclient.cache;
+
+import com.folautech.restclient.config.RestClientProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpCacheInterceptorTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final AtomicInteger notModified = new AtomicInteger();
+    private final AtomicInteger version = new AtomicInteger(1);
+
+    private HttpCacheInterceptor cache;
+    private RestClient restClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/fresh", exchange -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getResponseHeaders().add("Cache-Control", "max-age=60");
+            send(exchange, 200, "{\"id\":1}");
+        });
+        server.createContext("/etag", exchange -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getResponseHeaders().add("Cache-Control", "no-cache");
+            exchange.getResponseHeaders().add("ETag", "\"v1\"");
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+            } else {
+                send(exchange, 200, "{\"id\":2}");
+            }
+        });
+        server.createContext("/missing", exchange -> {
+            upstreamCalls.incrementAndGet();
+            send(exchange, 404, "{}");
+        });
+        server.createContext("/posts", exchange -> {
+            String method = exchange.getRequestMethod();
+            exchange.getRequestBody().readAllBytes();
+            if (method.equals("GET")) {
+                upstreamCalls.incrementAndGet();
+                exchange.getResponseHeaders().add("Cache-Control", "max-age=60");
+                send(exchange, 200, "{\"version\":" + version.get() + "}");
+            } else {
+                version.incrementAndGet();
+                if (method.equals("POST")) {
+                    exchange.getResponseHeaders().add("Location", "/posts/1");
+                }
+                send(exchange, method.equals("POST") ? 201 : 200, "{}");
+            }
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        cache = new HttpCacheInterceptor(new RestClientProperties.Cache());
+        restClient = RestClient.builder()
+                .requestFactory(new JdkClientHttpRequestFactory())
+                .requestInterceptor(cache)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void freshResponseIsServedFromCache() {
+        assertEquals("{\"id\":1}", get("/fresh"));
+        assertEquals("{\"id\":1}", get("/fresh"));
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(1, cache.getStatistics().hits());
+        assertEquals(1, cache.getStatistics().misses());
+    }
+
+    @Test
+    void staleResponseIsRevalidatedWithIfNoneMatch() {
+        assertEquals("{\"id\":2}", get("/etag"));
+        assertEquals("{\"id\":2}", get("/etag"));
+
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(1, notModified.get());
+        assertEquals(1, cache.getStatistics().revalidations());
+    }
+
+    @Test
+    void notFoundIsCachedForTheNegativeTtl() {
+        assertThrows(HttpClientErrorException.NotFound.class, () -> get("/missing"));
+        assertThrows(HttpClientErrorException.NotFound.class, () -> get("/missing"));
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(1, cache.getStatistics().negativeHits());
+    }
+
+    @Test
+    void restartedCacheIsWarmFromPersistentStore(@TempDir Path directory) throws IOException {
+        RestClientProperties.Store storeProperties = new RestClientProperties.Store();
+        storeProperties.setDirectory(directory);
+        try (ResponseStore store = new ResponseStore(storeProperties)) {
+            restClient = client(new HttpCacheInterceptor(new RestClientProperties.Cache(), store));
+            assertEquals("{\"id\":1}", get("/fresh"));
+        }
+
+        try (ResponseStore store = new ResponseStore(storeProperties)) {
+            cache = new HttpCacheInterceptor(new RestClientProperties.Cache(), store);
+            restClient = client(cache);
+            assertEquals("{\"id\":1}", get("/fresh"));
+            assertEquals("{\"id\":1}", get("/fresh"));
+        }
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(1, cache.getStatistics().persistentLoads());
+        assertEquals(2, cache.getStatistics().hits());
+    }
+
+    @Test
+    void successfulWriteInvalidatesTheCachedTarget(@TempDir Path directory) throws IOException {
+        RestClientProperties.Store storeProperties = new RestClientProperties.Store();
+        storeProperties.setDirectory(directory);
+        try (ResponseStore store = new ResponseStore(storeProperties)) {
+            restClient = client(new HttpCacheInterceptor(new RestClientProperties.Cache(), store));
+            assertEquals("{\"version\":1}", get("/posts/1"));
+            assertEquals("{\"version\":1}", get("/posts/1"));
+
+            restClient.put().uri(baseUrl + "/posts/1").body("{}").retrieve().toBodilessEntity();
+            assertEquals("{\"version\":2}", get("/posts/1"));
+        }
+
+        try (ResponseStore store = new ResponseStore(storeProperties)) {
+            restClient = client(new HttpCacheInterceptor(new RestClientProperties.Cache(), store));
+            assertEquals("{\"version\":2}", get("/posts/1"));
+        }
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void createdLocationIsInvalidated() {
+        assertEquals("{\"version\":1}", get("/posts/1"));
+
+        restClient.post().uri(baseUrl + "/posts").body("{}").retrieve().toBodilessEntity();
+
+        assertEquals("{\"version\":2}", get("/posts/1"));
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    private RestClient client(HttpCacheInterceptor interceptor) {
+        return RestClient.builder()
+                .requestFactory(new JdkClientHttpRequestFactory())
+                .requestInterceptor(interceptor)
+                .build();
+    }
+
+    private String get(String path) {
+        return restClient.get().uri(baseUrl + path).retrieve().body(String.class);
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
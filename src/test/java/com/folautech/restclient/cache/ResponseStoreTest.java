@@ -0,0 +1,144 @@
+package com.folautech.restclient.cache;
+
+import com.folautech.restclient.config.RestClientProperties;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void entriesSurviveReopen() throws IOException {
+        try (ResponseStore store = open()) {
+            store.put("GET /users/1", response("{\"id\":1}", System.currentTimeMillis() + 60_000));
+        }
+
+        try (ResponseStore store = open()) {
+            CachedResponse cached = store.get("GET /users/1");
+            assertNotNull(cached);
+            assertEquals("{\"id\":1}", body(cached));
+            assertEquals("\"v1\"", cached.getHeaders().getETag());
+            assertTrue(cached.isFresh(System.currentTimeMillis()));
+            assertNull(store.get("GET /users/2"));
+        }
+    }
+
+    @Test
+    void corruptRecordEndsTheLog() throws IOException {
+        try (ResponseStore store = open()) {
+            store.put("first", response("{\"id\":1}", Long.MAX_VALUE));
+            store.put("second", response("{\"id\":2}", Long.MAX_VALUE));
+        }
+        try (RandomAccessFile file = new RandomAccessFile(directory.resolve("responses.log").toFile(), "rw")) {
+            // flip the last byte of the second record's body
+            long end = 0;
+            byte[] bytes = new byte[4096];
+            file.readFully(bytes);
+            for (int i = 0; i < bytes.length - 1; i++) {
+                if (bytes[i] == '2' && bytes[i + 1] == '}') {
+                    end = i + 1;
+                }
+            }
+            file.seek(end);
+            file.write(']');
+        }
+
+        try (ResponseStore store = open()) {
+            assertEquals("{\"id\":1}", body(store.get("first")));
+            assertNull(store.get("second"));
+            assertEquals(1, store.getStatistics().entries());
+        }
+    }
+
+    @Test
+    void compactionDropsSupersededAndDeadRecords() throws IOException {
+        try (ResponseStore store = open()) {
+            for (int i = 0; i < 10; i++) {
+                store.put("GET /posts", response("[" + i + "]", Long.MAX_VALUE));
+            }
+            // expired and no validators: can never be served or revalidated again
+            store.put("GET /dead", new CachedResponse(200, "OK", new HttpHeaders(), new byte[16], 0, Map.of()));
+            long before = store.getStatistics().usedBytes();
+
+            store.compactIfWorthIt();
+
+            ResponseStore.StoreStatistics statistics = store.getStatistics();
+            assertEquals(1, statistics.compactions());
+            assertEquals(1, statistics.entries());
+            assertEquals(0, statistics.garbageBytes());
+            assertTrue(statistics.usedBytes() < before / 5);
+            assertEquals("[9]", body(store.get("GET /posts")));
+            store.put("GET /users/1", response("{}", Long.MAX_VALUE));
+        }
+
+        try (ResponseStore store = open()) {
+            assertEquals("[9]", body(store.get("GET /posts")));
+            assertEquals("{}", body(store.get("GET /users/1")));
+        }
+    }
+
+    @Test
+    void failedCompactionKeepsServingTheCurrentFile() throws IOException {
+        try (ResponseStore store = open()) {
+            store.put("GET /users/1", response("{\"id\":1}", Long.MAX_VALUE));
+            for (int i = 0; i < 10; i++) {
+                store.put("GET /posts", response("[" + i + "]", Long.MAX_VALUE));
+            }
+            // the mapping outlives the unlink; a non-empty directory in its place makes the final move fail
+            Path file = directory.resolve("responses.log");
+            Files.delete(file);
+            Files.createDirectories(file.resolve("blocked"));
+
+            store.compactIfWorthIt();
+
+            assertEquals(0, store.getStatistics().compactions());
+            assertEquals("[9]", body(store.get("GET /posts")));
+            assertEquals("{\"id\":1}", body(store.get("GET /users/1")));
+            store.put("GET /users/2", response("{}", Long.MAX_VALUE));
+            assertEquals("{}", body(store.get("GET /users/2")));
+        }
+    }
+
+    @Test
+    void skipsWritesWhenFull() throws IOException {
+        try (ResponseStore store = open()) {
+            store.put("big", response("x".repeat(8192), Long.MAX_VALUE));
+            assertNull(store.get("big"));
+            assertEquals(1, store.getStatistics().skippedWrites());
+        }
+    }
+
+    private ResponseStore open() throws IOException {
+        RestClientProperties.Store properties = new RestClientProperties.Store();
+        properties.setDirectory(directory);
+        properties.setMaxFileSize(DataSize.ofKilobytes(4));
+        properties.setCompactionInterval(Duration.ZERO);
+        return new ResponseStore(properties);
+    }
+
+    private static CachedResponse response(String body, long expiresAt) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_TYPE, "application/json");
+        headers.setETag("\"v1\"");
+        return new CachedResponse(200, "OK", headers, body.getBytes(StandardCharsets.UTF_8), expiresAt,
+                Map.of("Accept", "application/json"));
+    }
+
+    private static String body(CachedResponse cached) throws IOException {
+        return new String(cached.toResponse().getBody().readAllBytes(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,125 @@
+package com.folautech.restclient.limit;
+
+import com.folautech.restclient.config.RestClientProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveLimiterTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void growsWhileSaturatedAndLatencyIsFlat() throws InterruptedException {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(properties(4, 0, 0));
+
+        for (int round = 0; round < 50; round++) {
+            fill(limiter);
+            releaseAll(limiter, 10 * MILLI, false);
+        }
+        assertTrue(limiter.getStatistics().limit() > 4);
+    }
+
+    @Test
+    void shrinksOnLatencySpikeAndOnDrops() throws InterruptedException {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(properties(20, 0, 0));
+        assertTrue(limiter.acquire(0));
+        limiter.release(10 * MILLI, false);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.acquire(0));
+            limiter.release(50 * MILLI, false);
+        }
+        int afterSpike = limiter.getStatistics().limit();
+        assertTrue(afterSpike < 20);
+
+        assertTrue(limiter.acquire(0));
+        limiter.release(10 * MILLI, true);
+        assertTrue(limiter.getStatistics().limit() < afterSpike);
+        assertEquals(10_000, limiter.getStatistics().baselineMicros());
+    }
+
+    @Test
+    void shrinksOncePerWindowOfCallsInFlight() throws InterruptedException {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(properties(20, 0, 0));
+        fill(limiter);
+
+        // all 20 went out under the old limit: one cut for the lot, not one per call
+        releaseAll(limiter, MILLI, true);
+        assertEquals(18, limiter.getStatistics().limit());
+
+        assertTrue(limiter.acquire(0));
+        limiter.release(MILLI, true);
+        assertEquals(16, limiter.getStatistics().limit());
+    }
+
+    @Test
+    void neverDropsBelowMinLimit() throws InterruptedException {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(properties(8, 0, 0));
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.acquire(0));
+            limiter.release(MILLI, true);
+        }
+        assertEquals(4, limiter.getStatistics().limit());
+    }
+
+    @Test
+    void rejectsWhenQueueIsFullAndQueuedCallerGetsReleasedSlot() throws Exception {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(properties(4, 1, 5_000));
+        fill(limiter);
+
+        CompletableFuture<Boolean> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limiter.acquire(5_000 * MILLI);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        while (limiter.getStatistics().waiting() == 0) {
+            Thread.onSpinWait();
+        }
+        assertFalse(limiter.acquire(5_000 * MILLI), "queue of one is already taken");
+        assertEquals(1, limiter.getStatistics().rejected());
+
+        limiter.release(MILLI, false);
+        assertTrue(waiter.get(5, TimeUnit.SECONDS));
+        assertEquals(4, limiter.getStatistics().inFlight());
+    }
+
+    @Test
+    void waitIsCapped() throws InterruptedException {
+        AdaptiveLimiter limiter = new AdaptiveLimiter(properties(4, 10, 0));
+        fill(limiter);
+
+        long start = System.nanoTime();
+        assertFalse(limiter.acquire(20 * MILLI));
+        assertTrue(System.nanoTime() - start < 2_000 * MILLI);
+    }
+
+    private static void fill(AdaptiveLimiter limiter) throws InterruptedException {
+        int limit = limiter.getStatistics().limit();
+        for (int i = 0; i < limit; i++) {
+            assertTrue(limiter.acquire(0));
+        }
+    }
+
+    private static void releaseAll(AdaptiveLimiter limiter, long latencyNanos, boolean dropped) {
+        int inFlight = limiter.getStatistics().inFlight();
+        for (int i = 0; i < inFlight; i++) {
+            limiter.release(latencyNanos, dropped);
+        }
+    }
+
+    private static RestClientProperties.Limiter properties(int initialLimit, int maxQueue, long maxWaitMillis) {
+        RestClientProperties.Limiter properties = new RestClientProperties.Limiter();
+        properties.setInitialLimit(initialLimit);
+        properties.setMinLimit(4);
+        properties.setMaxQueue(maxQueue);
+        properties.setMaxWait(Duration.ofMillis(maxWaitMillis));
+        return properties;
+    }
+}
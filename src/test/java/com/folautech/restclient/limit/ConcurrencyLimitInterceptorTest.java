@@ -0,0 +1,85 @@
+package com.folautech.restclient.limit;
+
+import com.folautech.restclient.config.RestClientProperties;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitInterceptorTest {
+
+    private HttpServer server;
+    private String url;
+    private final CountDownLatch arrived = new CountDownLatch(1);
+    private final CountDownLatch blocked = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/slow", exchange -> {
+            arrived.countDown();
+            try {
+                blocked.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, 2);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write("ok".getBytes());
+            }
+        });
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/slow";
+    }
+
+    @AfterEach
+    void tearDown() {
+        blocked.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    void interruptedCallThroughTheJdkTransportLeavesTheLimitAlone() throws Exception {
+        RestClientProperties.Limiter properties = new RestClientProperties.Limiter();
+        properties.setInitialLimit(20);
+        ConcurrencyLimitInterceptor interceptor = new ConcurrencyLimitInterceptor(properties);
+        RestClient restClient = RestClient.builder()
+                .requestFactory(new JdkClientHttpRequestFactory())
+                .requestInterceptor(interceptor)
+                .build();
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread caller = Thread.ofPlatform().start(() -> {
+            try {
+                restClient.get().uri(url).retrieve().body(String.class);
+            } catch (Throwable e) {
+                failure.set(e);
+            }
+        });
+        assertTrue(arrived.await(5, TimeUnit.SECONDS));
+        caller.interrupt();
+        caller.join(5_000);
+
+        // JdkClientHttpRequest surfaces the interrupt as a plain IOException
+        assertInstanceOf(ResourceAccessException.class, failure.get());
+        AdaptiveLimiter.LimiterStatistics statistics = interceptor.getStatistics().values().iterator().next();
+        assertEquals(20, statistics.limit());
+        assertEquals(0, statistics.inFlight());
+    }
+}
@@ -0,0 +1,87 @@
+package com.folautech.restclient.load;
+
+import com.folautech.restclient.config.RestClientProperties;
+import com.folautech.restclient.service.JsonPlaceholderService;
+import com.folautech.restclient.utility.SingleFlight;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadDriverTest {
+
+    private StubUpstreamServer stub;
+    private RestClientProperties properties;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        properties = new RestClientProperties();
+        RestClientProperties.Stub stubProperties = properties.getStub();
+        stubProperties.setPort(0);
+        stubProperties.setLatency(Duration.ofMillis(2));
+        stubProperties.setLatencyJitter(Duration.ZERO);
+        stubProperties.setSlowRate(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    void openLoopHoldsTheRateAndReportsPercentiles() throws IOException {
+        LoadReport report = driver().run();
+
+        assertEquals(LoadMode.RATE, report.mode());
+        assertEquals(100, report.completed());
+        assertEquals(0, report.errorCount());
+        assertTrue(report.responseTimes().getValueAtPercentile(50) >= 2_000);
+        assertEquals(report.serviceTimes().getTotalCount(), report.responseTimes().getTotalCount());
+    }
+
+    @Test
+    void closedLoopCorrectsForCoordinatedOmission() throws IOException {
+        properties.getStub().setSlowRate(0.2);
+        properties.getStub().setSlowLatency(Duration.ofMillis(200));
+        properties.getLoad().setMode(LoadMode.CONCURRENCY);
+        properties.getLoad().setConcurrency(2);
+
+        LoadReport report = driver().run();
+
+        assertTrue(report.completed() > 0);
+        // the correction back-fills the requests a stalled caller never sent
+        assertTrue(report.responseTimes().getTotalCount() > report.serviceTimes().getTotalCount());
+    }
+
+    @Test
+    void injectedErrorsAreCountedByType() throws IOException {
+        properties.getStub().setErrorRate(1.0);
+        properties.getLoad().setMix(Map.of(LoadOperation.CREATE_POST, 1));
+
+        LoadReport report = driver().run();
+
+        assertEquals(report.completed(), report.errorCount());
+        assertEquals(Map.of("ServiceUnavailable", 100L), report.errors());
+    }
+
+    private LoadDriver driver() throws IOException {
+        stub = new StubUpstreamServer(properties.getStub(), JsonMapper.builder().build());
+        properties.setBaseUrl(stub.baseUrl());
+        RestClientProperties.Load load = properties.getLoad();
+        load.setRate(100);
+        load.setWarmup(Duration.ZERO);
+        load.setDuration(Duration.ofSeconds(1));
+        RestClient restClient = RestClient.builder().requestFactory(new JdkClientHttpRequestFactory()).build();
+        JsonPlaceholderService service = new JsonPlaceholderService(restClient, new SingleFlight(false), properties,
+                JsonMapper.builder().build());
+        return new LoadDriver(service, load);
+    }
+}
@@ -0,0 +1,82 @@
+package com.folautech.restclient.metrics;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsInterceptorTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    private ClientMetricsRegistry registry;
+    private RestClient restClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/users", exchange -> {
+            int status = exchange.getRequestURI().getPath().endsWith("/500") ? 500 : 200;
+            exchange.sendResponseHeaders(status, 8);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write("{\"id\":1}".getBytes());
+            }
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        registry = new ClientMetricsRegistry(60_000, 512);
+        restClient = RestClient.builder()
+                .requestFactory(new JdkClientHttpRequestFactory())
+                .requestInterceptor(new MetricsInterceptor(registry))
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void recordsPerTemplateAndStatus() {
+        for (int id = 1; id <= 3; id++) {
+            restClient.get().uri(baseUrl + "/users/{id}", id).retrieve().body(String.class);
+        }
+        assertThrows(HttpServerErrorException.class,
+                () -> restClient.get().uri(baseUrl + "/users/{id}", 500).retrieve().body(String.class));
+
+        List<RouteMetrics> routes = registry.getRoutes();
+        assertEquals(1, routes.size());
+        RouteMetrics route = routes.get(0);
+        assertEquals("GET", route.getMethod());
+        assertEquals("/users/{id}", route.getUriTemplate());
+        assertEquals(0, route.getInFlight());
+
+        EndpointSeries ok = route.series(200);
+        assertEquals(3, ok.cumulative().getTotalCount());
+        assertEquals(24, ok.getResponseBytes());
+        assertFalse(ok.isError());
+
+        EndpointSeries failed = route.series(500);
+        assertEquals(1, failed.cumulative().getTotalCount());
+        assertTrue(failed.isError());
+    }
+
+    @Test
+    void pathOfStripsSchemeAndHost() {
+        assertEquals("/posts?userId={userId}",
+                ClientMetricsRegistry.pathOf("https://jsonplaceholder.typicode.com/posts?userId={userId}"));
+        assertEquals("/users/1", ClientMetricsRegistry.pathOf("/users/1"));
+    }
+}
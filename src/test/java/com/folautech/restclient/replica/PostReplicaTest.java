@@ -0,0 +1,223 @@
+package com.folautech.restclient.replica;
+
+import com.folautech.restclient.cache.HttpCacheInterceptor;
+import com.folautech.restclient.config.RestClientProperties;
+import com.folautech.restclient.dto.CompactPost;
+import com.folautech.restclient.dto.Post;
+import com.folautech.restclient.load.StubUpstreamServer;
+import com.folautech.restclient.service.JsonPlaceholderService;
+import com.folautech.restclient.utility.SingleFlight;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.client.RestClient;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PostReplicaTest {
+
+    @Test
+    void answersLookupsFromTheIndexes() {
+        PostReplica replica = new PostReplica(() -> posts(3, 4), properties());
+
+        assertTrue(replica.refresh());
+
+        List<Post> posts = replica.postsByUserId(2);
+        assertEquals(4, posts.size());
+        assertEquals(List.of(5L, 6L, 7L, 8L), posts.stream().map(Post::getId).toList());
+        assertTrue(replica.postsByUserId(99).isEmpty());
+        assertEquals("title 7", replica.postById(7).getTitle());
+        assertNull(replica.postById(1000));
+        assertEquals(12, replica.getStatistics().posts());
+        assertEquals(3, replica.getStatistics().users());
+    }
+
+    @Test
+    void reloadDetectsChangedRecordsAndKeepsTheVersionWhenNothingChanged() {
+        AtomicReference<List<CompactPost>> upstream = new AtomicReference<>(posts(2, 2));
+        PostReplica replica = new PostReplica(upstream::get, properties());
+        replica.refresh();
+        assertEquals(1, replica.getStatistics().version());
+
+        replica.refresh();
+        assertEquals(1, replica.getStatistics().version());
+
+        List<CompactPost> changed = new ArrayList<>(upstream.get());
+        changed.set(1, new CompactPost(2, 1, "title 2", "edited"));
+        changed.remove(3);
+        changed.add(new CompactPost(9, 3, "title 9", "new"));
+        upstream.set(changed);
+        replica.refresh();
+
+        assertEquals(2, replica.getStatistics().version());
+        assertEquals(3, replica.getStatistics().changedRecords());
+        assertEquals("edited", replica.postById(2).getBody());
+        assertNull(replica.postById(4));
+        assertEquals(1, replica.postsByUserId(3).size());
+    }
+
+    @Test
+    void readsNeverWaitForAReload() throws Exception {
+        CountDownLatch reloading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Boolean> block = new AtomicReference<>(false);
+        PostReplica replica = new PostReplica(() -> {
+            if (block.get()) {
+                reloading.countDown();
+                await(release);
+            }
+            return posts(1, 3);
+        }, properties());
+        replica.refresh();
+
+        block.set(true);
+        CompletableFuture<Boolean> reload = CompletableFuture.supplyAsync(replica::refresh);
+        assertTrue(reloading.await(5, TimeUnit.SECONDS));
+
+        assertEquals(3, replica.postsByUserId(1).size());
+        assertFalse(replica.refresh());
+        release.countDown();
+        assertTrue(reload.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void failedReloadKeepsServingUntilTooStale() {
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        RestClientProperties.Replica properties = properties();
+        PostReplica replica = new PostReplica(() -> {
+            if (failure.get() != null) {
+                throw failure.get();
+            }
+            return posts(1, 2);
+        }, properties);
+        replica.refresh();
+
+        failure.set(new IllegalStateException("upstream down"));
+        assertFalse(replica.refresh());
+        assertEquals(2, replica.postsByUserId(1).size());
+        assertEquals(1, replica.getStatistics().failedRefreshes());
+
+        properties.setMaxStaleness(Duration.ZERO);
+        PostReplica stale = new PostReplica(() -> posts(1, 2), properties);
+        stale.refresh();
+        assertNull(stale.postsByUserId(1));
+    }
+
+    @Test
+    void staleReadsRetryAFailedReloadOncePerRetryInterval() throws InterruptedException {
+        AtomicInteger loads = new AtomicInteger();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        RestClientProperties.Replica properties = properties();
+        properties.setRefreshInterval(Duration.ofMillis(1));
+        properties.setRetryInterval(Duration.ofHours(1));
+        PostReplica replica = new PostReplica(() -> {
+            loads.incrementAndGet();
+            if (failure.get() != null) {
+                throw failure.get();
+            }
+            return posts(1, 2);
+        }, properties);
+        replica.refresh();
+        failure.set(new IllegalStateException("upstream down"));
+        assertFalse(replica.refresh());
+        Thread.sleep(5);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(2, replica.postsByUserId(1).size());
+        }
+        Thread.sleep(50);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void loaderGoesPastTheHttpCache() throws IOException {
+        RestClientProperties properties = new RestClientProperties();
+        properties.getStub().setPort(0);
+        properties.getStub().setLatency(Duration.ZERO);
+        properties.getStub().setLatencyJitter(Duration.ZERO);
+        properties.getStub().setSlowRate(0);
+        properties.getCache().setDefaultTtl(Duration.ofHours(1));
+        properties.getCache().setMaxEntrySize(DataSize.ofMegabytes(1));
+        try (StubUpstreamServer stub = new StubUpstreamServer(properties.getStub(), JsonMapper.builder().build())) {
+            RestClient restClient = RestClient.builder()
+                    .requestFactory(new JdkClientHttpRequestFactory())
+                    .requestInterceptor(new HttpCacheInterceptor(properties.getCache()))
+                    .build();
+            restClient.get().uri(stub.baseUrl() + "/posts").retrieve().toBodilessEntity();
+            restClient.get().uri(stub.baseUrl() + "/posts").retrieve().toBodilessEntity();
+            assertEquals(1, stub.getRequests(), "the cache answers a plain GET");
+
+            PostReplica replica = new PostReplica(PostReplica.loader(restClient, stub.baseUrl()),
+                    properties.getReplica());
+            assertTrue(replica.refresh());
+            assertTrue(replica.refresh());
+
+            assertEquals(3, stub.getRequests());
+            assertEquals(100, replica.getStatistics().posts());
+        }
+    }
+
+    @Test
+    void serviceAnswersFromTheReplicaWithoutUpstreamCalls() throws IOException {
+        RestClientProperties properties = new RestClientProperties();
+        properties.getStub().setPort(0);
+        properties.getStub().setLatency(Duration.ZERO);
+        properties.getStub().setLatencyJitter(Duration.ZERO);
+        properties.getStub().setSlowRate(0);
+        try (StubUpstreamServer stub = new StubUpstreamServer(properties.getStub(), JsonMapper.builder().build())) {
+            properties.setBaseUrl(stub.baseUrl());
+            RestClient restClient = RestClient.builder().requestFactory(new JdkClientHttpRequestFactory()).build();
+            JsonPlaceholderService upstream = new JsonPlaceholderService(restClient, new SingleFlight(false),
+                    properties, JsonMapper.builder().build());
+            PostReplica replica = new PostReplica(
+                    () -> upstream.getAllPosts().stream().map(CompactPost::from).toList(), properties.getReplica());
+            JsonPlaceholderService service = new JsonPlaceholderService(restClient, new SingleFlight(false),
+                    properties, JsonMapper.builder().build(), replica);
+            replica.refresh();
+            long loaded = stub.getRequests();
+
+            for (long userId = 1; userId <= 10; userId++) {
+                assertEquals(upstream.getPostsByUserId(userId), service.getPostsByUserId(userId));
+            }
+            assertEquals(upstream.getPostById(42L), service.getPostById(42L));
+
+            assertEquals(loaded + 11, stub.getRequests());
+        }
+    }
+
+    private static List<CompactPost> posts(int users, int perUser) {
+        List<CompactPost> posts = new ArrayList<>();
+        for (long userId = 1; userId <= users; userId++) {
+            for (int i = 0; i < perUser; i++) {
+                long id = (userId - 1) * perUser + i + 1;
+                posts.add(new CompactPost(id, userId, "title " + id, "body " + id));
+            }
+        }
+        return posts;
+    }
+
+    private static RestClientProperties.Replica properties() {
+        RestClientProperties.Replica properties = new RestClientProperties.Replica();
+        properties.setRefreshInterval(Duration.ofMinutes(1));
+        return properties;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
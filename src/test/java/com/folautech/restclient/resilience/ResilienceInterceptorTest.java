@@ -0,0 +1,235 @@
+package com.folautech.restclient.resilience;
+
+import com.folautech.restclient.config.RestClientProperties;
+import com.folautech.restclient.transport.ConnectionUnavailableException;
+import com.folautech.restclient.transport.PerHostLimitingRequestFactory;
+import com.folautech.restclient.utility.CompiledUriTemplate;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResilienceInterceptorTest {
+
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicInteger flakyCalls = new AtomicInteger();
+    private final AtomicInteger slowCalls = new AtomicInteger();
+    private final AtomicInteger brokenCalls = new AtomicInteger();
+
+    private RestClientProperties.Resilience properties;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/flaky", exchange -> {
+            // fails twice, then recovers
+            send(exchange, flakyCalls.incrementAndGet() <= 2 ? 503 : 200, "{\"id\":1}");
+        });
+        server.createContext("/slow", exchange -> {
+            // first call stalls, the hedge answers immediately
+            if (slowCalls.incrementAndGet() == 1) {
+                sleep(2_000);
+            }
+            send(exchange, 200, "{\"id\":2}");
+        });
+        server.createContext("/broken", exchange -> {
+            brokenCalls.incrementAndGet();
+            send(exchange, 500, "{}");
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        properties = new RestClientProperties.Resilience();
+        RestClientProperties.MethodPolicy get = properties.getMethods().get("GET");
+        get.setInitialBackoff(Duration.ofMillis(1));
+        get.setMaxBackoff(Duration.ofMillis(5));
+        get.setHedgeMinDelay(Duration.ofMillis(100));
+        properties.getCircuitBreaker().setMinimumCalls(4);
+        properties.getCircuitBreaker().setWindowSize(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void retriesRetryableStatusWithinMaxAttempts() {
+        ResilienceInterceptor resilience = new ResilienceInterceptor(properties);
+
+        assertEquals("{\"id\":1}", client(resilience).get().uri(baseUrl + "/flaky").retrieve().body(String.class));
+        assertEquals(3, flakyCalls.get());
+        assertEquals(2, resilience.getStatistics().retries());
+    }
+
+    @Test
+    void doesNotRetryUnlistedMethods() {
+        ResilienceInterceptor resilience = new ResilienceInterceptor(properties);
+
+        assertThrows(HttpServerErrorException.class,
+                () -> client(resilience).post().uri(baseUrl + "/flaky").retrieve().toBodilessEntity());
+        assertEquals(1, flakyCalls.get());
+    }
+
+    @Test
+    void hedgeWinsOverStalledAttempt() {
+        properties.getMethods().get("GET").setHedgeMinDelay(Duration.ofMillis(50));
+        ResilienceInterceptor resilience = new ResilienceInterceptor(properties);
+
+        long start = System.nanoTime();
+        assertEquals("{\"id\":2}", client(resilience).get().uri(baseUrl + "/slow").retrieve().body(String.class));
+        assertTrue(System.nanoTime() - start < 1_500_000_000L);
+        assertEquals(1, resilience.getStatistics().hedges());
+        assertEquals(1, resilience.getStatistics().hedgeWins());
+    }
+
+    @Test
+    void firstAttemptRunsOnTheCallersThreadAndTheHedgeCarriesItsMdc() {
+        properties.getMethods().get("GET").setHedgeMinDelay(Duration.ofMillis(50));
+        ResilienceInterceptor resilience = new ResilienceInterceptor(properties);
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+        List<String> requestIds = new CopyOnWriteArrayList<>();
+        RestClient restClient = RestClient.builder()
+                .requestFactory(new JdkClientHttpRequestFactory())
+                .requestInterceptor(resilience)
+                .requestInterceptor((request, body, execution) -> {
+                    threads.add(Thread.currentThread());
+                    requestIds.add(String.valueOf(MDC.get("requestId")));
+                    return execution.execute(request, body);
+                })
+                .build();
+
+        MDC.put("requestId", "abc");
+        try {
+            assertEquals("{\"id\":2}", restClient.get().uri(baseUrl + "/slow").retrieve().body(String.class));
+        } finally {
+            MDC.remove("requestId");
+        }
+
+        assertEquals(2, threads.size());
+        assertSame(Thread.currentThread(), threads.get(0));
+        assertTrue(threads.get(1).isVirtual());
+        assertEquals(List.of("abc", "abc"), requestIds);
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    void hedgeDelayIsTrackedPerUriTemplate() {
+        MockClientHttpRequest user = new MockClientHttpRequest(HttpMethod.GET, URI.create(baseUrl + "/users/1"));
+        user.getAttributes().put(CompiledUriTemplate.ATTRIBUTE, baseUrl + "/users/{id}");
+        MockClientHttpRequest posts = new MockClientHttpRequest(HttpMethod.GET, URI.create(baseUrl + "/posts"));
+        posts.getAttributes().put(CompiledUriTemplate.ATTRIBUTE, baseUrl + "/posts");
+        MockClientHttpRequest raw = new MockClientHttpRequest(HttpMethod.GET, URI.create(baseUrl + "/slow"));
+
+        assertEquals("GET " + baseUrl + "/users/{id}", ResilienceInterceptor.latencyKey(user, "host"));
+        assertEquals("GET " + baseUrl + "/posts", ResilienceInterceptor.latencyKey(posts, "host"));
+        assertEquals("GET host", ResilienceInterceptor.latencyKey(raw, "host"));
+    }
+
+    @Test
+    void breakerOpensAfterFailuresAndFailsFast() {
+        properties.getMethods().get("GET").setMaxAttempts(1);
+        properties.getMethods().get("GET").setHedge(false);
+        ResilienceInterceptor resilience = new ResilienceInterceptor(properties);
+        RestClient restClient = client(resilience);
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(HttpServerErrorException.class,
+                    () -> restClient.get().uri(baseUrl + "/broken").retrieve().body(String.class));
+        }
+        ResourceAccessException rejected = assertThrows(ResourceAccessException.class,
+                () -> restClient.get().uri(baseUrl + "/broken").retrieve().body(String.class));
+        assertInstanceOf(CircuitBreakerOpenException.class, rejected.getCause());
+        assertEquals(4, brokenCalls.get());
+        assertEquals(1, resilience.getStatistics().breakerRejections());
+    }
+
+    @Test
+    void connectionPoolTimeoutIsNeitherRetriedNorCountedByTheBreaker() {
+        properties.getMethods().get("GET").setHedge(false);
+        ResilienceInterceptor resilience = new ResilienceInterceptor(properties);
+        AtomicInteger attempts = new AtomicInteger();
+        RestClient restClient = RestClient.builder()
+                .requestFactory(new JdkClientHttpRequestFactory())
+                .requestInterceptor(resilience)
+                .requestInterceptor((request, body, execution) -> {
+                    attempts.incrementAndGet();
+                    throw new ConnectionUnavailableException("http://127.0.0.1", 10, 1);
+                })
+                .build();
+
+        for (int i = 0; i < 6; i++) {
+            ResourceAccessException rejected = assertThrows(ResourceAccessException.class,
+                    () -> restClient.get().uri(baseUrl + "/flaky").retrieve().body(String.class));
+            assertInstanceOf(ConnectionUnavailableException.class, rejected.getCause());
+        }
+
+        assertEquals(6, attempts.get());
+        assertEquals(0, resilience.getStatistics().retries());
+        assertEquals(Map.of(PerHostLimitingRequestFactory.hostKey(URI.create(baseUrl)), CircuitBreaker.State.CLOSED),
+                resilience.getStatistics().circuitBreakers());
+    }
+
+    @Test
+    void retryBudgetCapsExtraAttempts() {
+        RetryBudget budget = new RetryBudget(0.5, 2);
+        assertTrue(budget.tryWithdraw());
+        assertTrue(budget.tryWithdraw());
+        assertFalse(budget.tryWithdraw());
+        budget.deposit();
+        assertFalse(budget.tryWithdraw());
+        budget.deposit();
+        assertTrue(budget.tryWithdraw());
+    }
+
+    private RestClient client(ResilienceInterceptor resilience) {
+        return RestClient.builder()
+                .requestFactory(new JdkClientHttpRequestFactory())
+                .requestInterceptor(resilience)
+                .build();
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        } catch (IOException ignored) {
+            // client gave up on a hedged loser
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.folautech.restclient.service;
+
+import com.folautech.restclient.config.RestClientProperties;
+import com.folautech.restclient.dto.User;
+import com.folautech.restclient.utility.SingleFlight;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncJsonPlaceholderServiceTest {
+
+    private HttpServer server;
+    private final CountDownLatch arrived = new CountDownLatch(1);
+    private final CountDownLatch blocked = new CountDownLatch(1);
+    private final CountDownLatch abandoned = new CountDownLatch(1);
+    private final AtomicBoolean workerInterrupted = new AtomicBoolean();
+    private final AtomicReference<String> workerRequestId = new AtomicReference<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private AsyncJsonPlaceholderService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        // user 1 answers only once the test lets it
+        server.createContext("/users/", exchange -> {
+            if (exchange.getRequestURI().getPath().equals("/users/1")) {
+                arrived.countDown();
+                try {
+                    blocked.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            byte[] body = "{\"id\":2,\"name\":\"Ervin Howell\"}".getBytes();
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        // runs on the worker thread: records its MDC, and whether an abandoned exchange was interrupted
+        ClientHttpRequestInterceptor worker = (request, body, execution) -> {
+            workerRequestId.set(MDC.get("requestId"));
+            try {
+                return execution.execute(request, body);
+            } catch (IOException | RuntimeException e) {
+                workerInterrupted.set(Thread.currentThread().isInterrupted());
+                abandoned.countDown();
+                throw e;
+            }
+        };
+        RestClientProperties properties = new RestClientProperties();
+        properties.setBaseUrl("http://127.0.0.1:" + server.getAddress().getPort());
+        RestClient restClient = RestClient.builder()
+                .requestFactory(new JdkClientHttpRequestFactory())
+                .requestInterceptor(worker)
+                .build();
+        JsonPlaceholderService jsonPlaceholderService = new JsonPlaceholderService(restClient,
+                new SingleFlight(false), properties, JsonMapper.builder().build());
+        service = new AsyncJsonPlaceholderService(jsonPlaceholderService, executor, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        blocked.countDown();
+        server.stop(0);
+        executor.close();
+    }
+
+    @Test
+    void callerMdcReachesTheWorkerThread() throws Exception {
+        MDC.put("requestId", "req-42");
+        try {
+            User user = service.getUserById(2L).get(5, TimeUnit.SECONDS);
+            assertEquals(2L, user.getId());
+        } finally {
+            MDC.remove("requestId");
+        }
+        assertEquals("req-42", workerRequestId.get());
+    }
+
+    @Test
+    void timeoutFailsTheFutureAndInterruptsTheWorker() throws Exception {
+        CompletableFuture<User> user = service.getUserById(1L, Duration.ofMillis(100));
+
+        long start = System.nanoTime();
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> user.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, failure.getCause());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2_000);
+
+        assertTrue(abandoned.await(5, TimeUnit.SECONDS), "exchange still running");
+        assertTrue(workerInterrupted.get());
+    }
+
+    @Test
+    void cancelInterruptsTheWorker() throws Exception {
+        CompletableFuture<User> user = service.getUserById(1L);
+        assertTrue(arrived.await(5, TimeUnit.SECONDS));
+
+        assertTrue(user.cancel(true));
+
+        assertThrows(CancellationException.class, user::join);
+        assertTrue(abandoned.await(5, TimeUnit.SECONDS), "exchange still running");
+        assertTrue(workerInterrupted.get());
+    }
+}
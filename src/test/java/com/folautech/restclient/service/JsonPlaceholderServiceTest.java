@@ -0,0 +1,208 @@
+package com.folautech.restclient.service;
+
+import com.folautech.restclient.config.RestClientProperties;
+import com.folautech.restclient.dto.BulkResult;
+import com.folautech.restclient.dto.Post;
+import com.folautech.restclient.dto.User;
+import com.folautech.restclient.transport.PerHostLimitingRequestFactory;
+import com.folautech.restclient.utility.SingleFlight;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestClient;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonPlaceholderServiceTest {
+
+    private static final int POSTS = 1000;
+
+    private HttpServer server;
+    private RestClientProperties properties;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        // later ids answer sooner, so completion order is the reverse of input order
+        server.createContext("/users/", exchange -> {
+            long id = Long.parseLong(exchange.getRequestURI().getPath().substring("/users/".length()));
+            int now = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(now, Math::max);
+            sleep((20 - id) * 2);
+            inFlight.decrementAndGet();
+            if (id == 3) {
+                send(exchange, 404, "{}");
+            } else {
+                send(exchange, 200, "{\"id\":" + id + ",\"name\":\"user " + id + "\"}");
+            }
+        });
+        server.createContext("/posts", exchange -> {
+            String query = exchange.getRequestURI().getQuery();
+            if (query == null) {
+                send(exchange, 200, LongStream.rangeClosed(1, POSTS)
+                        .mapToObj(id -> "{\"id\":" + id + ",\"userId\":" + (id % 10 + 1)
+                                + ",\"title\":\"post " + id + "\"}")
+                        .collect(Collectors.joining(",", "[", "]")));
+                return;
+            }
+            long userId = Long.parseLong(query.substring("userId=".length()));
+            if (userId == 9) {
+                // the second element is cut off mid-value
+                send(exchange, 200, "[{\"id\":90,\"userId\":9},{\"id\":91,\"userId\":}]");
+            } else if (userId == 8) {
+                send(exchange, 200, "<html>not json</html>");
+            } else if (userId == 2) {
+                send(exchange, 500, "{}");
+            } else {
+                send(exchange, 200, "[{\"id\":" + userId * 10 + ",\"userId\":" + userId + "}]");
+            }
+        });
+        server.start();
+        properties = new RestClientProperties();
+        properties.setBaseUrl("http://127.0.0.1:" + server.getAddress().getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void bulkUserFetchKeepsInputOrderCapturesFailuresAndHonoursTheCap() {
+        properties.getBulk().setMaxConcurrency(3);
+        List<Long> ids = LongStream.rangeClosed(1, 12).boxed().toList();
+
+        List<BulkResult<User>> results = service().getUsersByIds(ids);
+
+        assertEquals(ids, results.stream().map(BulkResult::id).toList());
+        for (BulkResult<User> result : results) {
+            if (result.id() == 3) {
+                assertFalse(result.isSuccess());
+                assertInstanceOf(HttpClientErrorException.NotFound.class, result.error());
+            } else {
+                assertTrue(result.isSuccess());
+                assertEquals(result.id(), result.value().getId());
+            }
+        }
+        assertTrue(maxInFlight.get() <= 3, "max in flight " + maxInFlight.get());
+    }
+
+    @Test
+    void bulkPostFetchCapturesTheFailedUser() {
+        List<BulkResult<List<Post>>> results = service().getPostsByUserIds(List.of(1L, 2L, 3L));
+
+        assertEquals(List.of(1L, 2L, 3L), results.stream().map(BulkResult::id).toList());
+        assertEquals(10L, results.get(0).value().getFirst().getId());
+        assertInstanceOf(HttpServerErrorException.class, results.get(1).error());
+        assertEquals(30L, results.get(2).value().getFirst().getId());
+    }
+
+    @Test
+    void streamUnwrapsTheRootArrayIntoPosts() {
+        try (Stream<Post> posts = service().streamAllPosts()) {
+            List<Post> all = posts.toList();
+            assertEquals(POSTS, all.size());
+            assertEquals(1L, all.getFirst().getId());
+            assertEquals("post 1", all.getFirst().getTitle());
+            assertEquals(POSTS, all.getLast().getId());
+        }
+    }
+
+    @Test
+    void closingAStreamEarlyReleasesTheConnection() {
+        RestClient restClient = RestClient.builder()
+                .requestFactory(new PerHostLimitingRequestFactory(new JdkClientHttpRequestFactory(), 1,
+                        Duration.ofMillis(200)))
+                .build();
+        JsonPlaceholderService service = new JsonPlaceholderService(restClient, new SingleFlight(false), properties,
+                JsonMapper.builder().build());
+
+        // with one connection per host, a stream left open would make every later call wait it out and fail
+        for (int i = 0; i < 3; i++) {
+            try (Stream<Post> posts = service.streamAllPosts()) {
+                assertEquals(List.of(1L, 2L), posts.limit(2).map(Post::getId).toList());
+            }
+        }
+        assertEquals(1, service.getPostsByUserId(1L).size());
+    }
+
+    @Test
+    void malformedElementFailsTheStreamAfterTheGoodOnes() {
+        List<Long> read = new ArrayList<>();
+        try (Stream<Post> posts = service().streamPostsByUserId(9L)) {
+            assertThrows(JacksonException.class, () -> posts.forEach(post -> read.add(post.getId())));
+        }
+        assertEquals(List.of(90L), read);
+    }
+
+    @Test
+    void unreadableBodyReleasesTheConnection() {
+        RestClient restClient = RestClient.builder()
+                .requestFactory(new PerHostLimitingRequestFactory(new JdkClientHttpRequestFactory(), 1,
+                        Duration.ofMillis(200)))
+                .build();
+        JsonPlaceholderService service = new JsonPlaceholderService(restClient, new SingleFlight(false), properties,
+                JsonMapper.builder().build());
+
+        // the body fails before a stream exists, so only the service can close the response
+        for (int i = 0; i < 3; i++) {
+            assertThrows(JacksonException.class, () -> service.streamPostsByUserId(8L).close());
+        }
+        assertEquals(1, service.getPostsByUserId(1L).size());
+    }
+
+    @Test
+    void rejectsANonPositiveBulkConcurrency() {
+        properties.getBulk().setMaxConcurrency(0);
+
+        assertThrows(IllegalArgumentException.class, this::service);
+    }
+
+    private JsonPlaceholderService service() {
+        RestClient restClient = RestClient.builder().requestFactory(new JdkClientHttpRequestFactory()).build();
+        return new JsonPlaceholderService(restClient, new SingleFlight(false), properties,
+                JsonMapper.builder().build());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
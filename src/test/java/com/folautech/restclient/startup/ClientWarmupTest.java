@@ -0,0 +1,86 @@
+package com.folautech.restclient.startup;
+
+import com.folautech.restclient.config.RestClientProperties;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientWarmupTest {
+
+    private HttpServer server;
+    private final Queue<String> cacheControl = new ConcurrentLinkedQueue<>();
+    private RestClientProperties properties;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/users", exchange -> {
+            cacheControl.add(String.valueOf(exchange.getRequestHeaders().getFirst("Cache-Control")));
+            byte[] body = "{\"id\":1,\"name\":\"Leanne Graham\"}".getBytes();
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        properties = new RestClientProperties();
+        properties.setBaseUrl("http://127.0.0.1:" + server.getAddress().getPort());
+        properties.getWarmup().setRequests(6);
+        properties.getWarmup().setConcurrency(2);
+        properties.getWarmup().setCodecCycles(10);
+        properties.getWarmup().setTimeout(Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void sendsWarmupRequestsPastTheCache() {
+        ClientWarmup warmup = warmup();
+
+        warmup.start();
+
+        ClientWarmup.WarmupStatistics statistics = warmup.getStatistics();
+        assertEquals(1, statistics.resolvedHosts());
+        assertEquals(6, statistics.succeededRequests());
+        assertEquals(6, cacheControl.size());
+        assertTrue(cacheControl.stream().allMatch("no-cache"::equals), cacheControl.toString());
+        assertTrue(warmup.isRunning());
+    }
+
+    @Test
+    void unresolvableUpstreamDoesNotBlockStartup() {
+        properties.setBaseUrl("http://upstream.invalid");
+        ClientWarmup warmup = warmup();
+
+        warmup.start();
+
+        ClientWarmup.WarmupStatistics statistics = warmup.getStatistics();
+        assertEquals(0, statistics.resolvedHosts());
+        assertEquals(0, statistics.succeededRequests());
+        assertTrue(cacheControl.isEmpty());
+    }
+
+    private ClientWarmup warmup() {
+        RestClient restClient = RestClient.builder().requestFactory(new JdkClientHttpRequestFactory()).build();
+        return new ClientWarmup(restClient, JsonMapper.builder().build(), properties);
+    }
+}
@@ -0,0 +1,153 @@
+package com.folautech.restclient.transport;
+
+import com.folautech.restclient.config.RestClientProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.client.RestClient;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressionInterceptorTest {
+
+    private static final String POSTS = "[" + "{\"id\":1,\"title\":\"sunt aut facere\"},".repeat(200) + "{\"id\":2}]";
+
+    private HttpServer server;
+    private String baseUrl;
+    private final AtomicReference<String> acceptEncoding = new AtomicReference<>();
+    private final AtomicReference<String> requestEncoding = new AtomicReference<>();
+
+    private CompressionInterceptor compression;
+    private RestClient restClient;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/gzip", exchange -> {
+            acceptEncoding.set(exchange.getRequestHeaders().getFirst("Accept-Encoding"));
+            send(exchange, "gzip", gzip(POSTS.getBytes(StandardCharsets.UTF_8)));
+        });
+        server.createContext("/deflate", exchange -> {
+            boolean raw = exchange.getRequestURI().getPath().endsWith("/raw");
+            send(exchange, "deflate", deflate(POSTS.getBytes(StandardCharsets.UTF_8), raw));
+        });
+        server.createContext("/empty", exchange -> {
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.createContext("/echo", exchange -> {
+            String encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+            requestEncoding.set(encoding);
+            byte[] body;
+            try (InputStream in = "gzip".equals(encoding)
+                    ? new GZIPInputStream(exchange.getRequestBody()) : exchange.getRequestBody()) {
+                body = in.readAllBytes();
+            }
+            send(exchange, null, body);
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        RestClientProperties.Compression properties = new RestClientProperties.Compression();
+        properties.setRequestThreshold(DataSize.ofBytes(1024));
+        compression = new CompressionInterceptor(properties);
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory();
+        requestFactory.enableCompression(false);
+        restClient = RestClient.builder()
+                .requestFactory(requestFactory)
+                .requestInterceptor(compression)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void negotiatesAndDecodesGzip() {
+        var entity = restClient.get().uri(baseUrl + "/gzip").retrieve().toEntity(String.class);
+
+        assertEquals(POSTS, entity.getBody());
+        assertEquals("gzip, deflate", acceptEncoding.get());
+        assertFalse(entity.getHeaders().containsHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(1, compression.getDecodedResponses());
+    }
+
+    @Test
+    void decodesZlibAndRawDeflate() {
+        assertEquals(POSTS, restClient.get().uri(baseUrl + "/deflate/zlib").retrieve().body(String.class));
+        assertEquals(POSTS, restClient.get().uri(baseUrl + "/deflate/raw").retrieve().body(String.class));
+    }
+
+    @Test
+    void emptyEncodedBodyStaysEmpty() {
+        assertEquals(204, restClient.get().uri(baseUrl + "/empty").retrieve().toBodilessEntity()
+                .getStatusCode().value());
+    }
+
+    @Test
+    void leavesResponseAloneWhenCallerNegotiatesItself() {
+        byte[] raw = restClient.get().uri(baseUrl + "/gzip")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .retrieve().body(byte[].class);
+
+        assertEquals(0x1f, raw[0] & 0xff);
+        assertEquals(0, compression.getDecodedResponses());
+    }
+
+    @Test
+    void compressesRequestBodiesAboveThreshold() {
+        assertEquals("small", restClient.post().uri(baseUrl + "/echo").body("small").retrieve().body(String.class));
+        assertNull(requestEncoding.get());
+
+        assertEquals(POSTS, restClient.post().uri(baseUrl + "/echo").body(POSTS).retrieve().body(String.class));
+        assertEquals("gzip", requestEncoding.get());
+        assertEquals(1, compression.getCompressedRequests());
+    }
+
+    private static void send(HttpExchange exchange, String encoding, byte[] body) throws IOException {
+        if (encoding != null) {
+            exchange.getResponseHeaders().add("Content-Encoding", encoding);
+        }
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+            out.write(bytes);
+        }
+        return buffer.toByteArray();
+    }
+
+    private static byte[] deflate(byte[] bytes, boolean raw) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (DeflaterOutputStream out = new DeflaterOutputStream(buffer, new Deflater(Deflater.DEFAULT_COMPRESSION, raw))) {
+            out.write(bytes);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,148 @@
+package com.folautech.restclient.transport;
+
+import com.folautech.restclient.config.RestClientProperties;
+import com.folautech.restclient.dto.Post;
+import com.folautech.restclient.dto.User;
+import com.folautech.restclient.load.StubUpstreamServer;
+import com.folautech.restclient.service.JsonPlaceholderService;
+import com.folautech.restclient.utility.SingleFlight;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentNegotiationInterceptorTest {
+
+    @Test
+    void binaryResponsesDecodeToTheSamePostsAsJson() throws IOException {
+        RestClientProperties properties = stubProperties(List.of(BinaryFormat.SMILE, BinaryFormat.CBOR));
+        try (StubUpstreamServer stub = new StubUpstreamServer(properties.getStub(), JsonMapper.builder().build())) {
+            properties.setBaseUrl(stub.baseUrl());
+            ContentNegotiationInterceptor negotiation = new ContentNegotiationInterceptor(codec(BinaryFormat.SMILE));
+            JsonPlaceholderService binary = service(properties, negotiation);
+            JsonPlaceholderService json = service(properties, null);
+
+            assertEquals(json.getAllPosts(), binary.getAllPosts());
+            assertEquals(json.getUserById(3L), binary.getUserById(3L));
+            try (Stream<Post> posts = binary.streamPostsByUserId(2L)) {
+                assertEquals(json.getPostsByUserId(2L), posts.toList());
+            }
+
+            assertEquals(Map.of("smile", 3L, "cbor", 0L, "json", 0L), negotiation.getStatistics().responses());
+        }
+    }
+
+    @Test
+    void configuredOrderIsThePreferenceOrder() throws IOException {
+        RestClientProperties properties = stubProperties(List.of(BinaryFormat.SMILE, BinaryFormat.CBOR));
+        try (StubUpstreamServer stub = new StubUpstreamServer(properties.getStub(), JsonMapper.builder().build())) {
+            properties.setBaseUrl(stub.baseUrl());
+            ContentNegotiationInterceptor negotiation =
+                    new ContentNegotiationInterceptor(codec(BinaryFormat.CBOR, BinaryFormat.SMILE));
+
+            User user = service(properties, negotiation).getUserById(1L);
+
+            assertEquals("Bret", user.getUsername());
+            assertEquals("application/cbor, application/x-jackson-smile;q=0.9, application/json;q=0.5",
+                    negotiation.getStatistics().offered());
+            assertEquals(1L, negotiation.getStatistics().responses().get("cbor"));
+        }
+    }
+
+    @Test
+    void jsonOnlyUpstreamIsDecodedAsJson() throws IOException {
+        RestClientProperties properties = stubProperties(List.of());
+        try (StubUpstreamServer stub = new StubUpstreamServer(properties.getStub(), JsonMapper.builder().build())) {
+            properties.setBaseUrl(stub.baseUrl());
+            ContentNegotiationInterceptor negotiation =
+                    new ContentNegotiationInterceptor(codec(BinaryFormat.SMILE, BinaryFormat.CBOR));
+
+            assertEquals(10, service(properties, negotiation).getPostsByUserId(4L).size());
+            assertEquals(1L, negotiation.getStatistics().responses().get("json"));
+            assertEquals(0, negotiation.getStatistics().fallbacks());
+        }
+    }
+
+    @Test
+    void notAcceptableFallsBackToJsonAndRemembersTheHost() throws IOException {
+        byte[] user = "{\"id\":1,\"username\":\"Bret\"}".getBytes(StandardCharsets.UTF_8);
+        AtomicInteger requests = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/users/1", exchange -> {
+            requests.incrementAndGet();
+            boolean json = "application/json".equals(exchange.getRequestHeaders().getFirst("Accept"));
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(json ? 200 : 406, json ? user.length : -1);
+            try (OutputStream out = exchange.getResponseBody()) {
+                if (json) {
+                    out.write(user);
+                }
+            }
+        });
+        server.start();
+        try {
+            String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+            ContentNegotiationInterceptor negotiation =
+                    new ContentNegotiationInterceptor(codec(BinaryFormat.SMILE, BinaryFormat.CBOR));
+            RestClient restClient = RestClient.builder()
+                    .requestFactory(new JdkClientHttpRequestFactory())
+                    .requestInterceptor(negotiation)
+                    .build();
+
+            for (int i = 0; i < 2; i++) {
+                User fetched = restClient.get().uri(baseUrl + "/users/1")
+                        .accept(MediaType.APPLICATION_JSON)
+                        .retrieve().body(User.class);
+                assertEquals("Bret", fetched.getUsername());
+            }
+
+            assertEquals(3, requests.get());
+            assertEquals(1, negotiation.getStatistics().fallbacks());
+            assertEquals(Set.of(baseUrl), negotiation.getStatistics().jsonOnlyHosts());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static JsonPlaceholderService service(RestClientProperties properties,
+                                                  ContentNegotiationInterceptor negotiation) {
+        RestClient.Builder builder = RestClient.builder().requestFactory(new JdkClientHttpRequestFactory());
+        if (negotiation != null) {
+            builder.requestInterceptor(negotiation);
+        }
+        return new JsonPlaceholderService(builder.build(), new SingleFlight(false), properties,
+                JsonMapper.builder().build());
+    }
+
+    private static RestClientProperties.Codec codec(BinaryFormat... formats) {
+        RestClientProperties.Codec codec = new RestClientProperties.Codec();
+        codec.setFormats(List.of(formats));
+        return codec;
+    }
+
+    private static RestClientProperties stubProperties(List<BinaryFormat> formats) {
+        RestClientProperties properties = new RestClientProperties();
+        properties.getStub().setPort(0);
+        properties.getStub().setLatency(Duration.ZERO);
+        properties.getStub().setLatencyJitter(Duration.ZERO);
+        properties.getStub().setSlowRate(0);
+        properties.getStub().setFormats(formats);
+        return properties;
+    }
+}
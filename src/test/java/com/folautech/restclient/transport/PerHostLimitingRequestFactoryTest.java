@@ -0,0 +1,70 @@
+package com.folautech.restclient.transport;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PerHostLimitingRequestFactoryTest {
+
+    private HttpServer server;
+    private URI uri;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/ping", exchange -> {
+            exchange.sendResponseHeaders(200, 2);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write("ok".getBytes());
+            }
+        });
+        server.start();
+        uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/ping");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void permitIsHeldUntilResponseIsClosed() throws IOException {
+        PerHostLimitingRequestFactory factory =
+                new PerHostLimitingRequestFactory(new SimpleClientHttpRequestFactory(), 1, Duration.ofMillis(50));
+        String hostKey = PerHostLimitingRequestFactory.hostKey(uri);
+
+        ClientHttpResponse first = factory.createRequest(uri, HttpMethod.GET).execute();
+        assertEquals(1, factory.inUse(hostKey));
+
+        IOException saturated = assertThrows(IOException.class,
+                () -> factory.createRequest(uri, HttpMethod.GET).execute());
+        assertTrue(saturated.getMessage().contains("maxConnectionsPerHost=1"));
+
+        first.close();
+        first.close();
+        assertEquals(0, factory.inUse(hostKey));
+
+        try (ClientHttpResponse second = factory.createRequest(uri, HttpMethod.GET).execute()) {
+            assertEquals(200, second.getStatusCode().value());
+        }
+    }
+
+    @Test
+    void hostKeyDefaultsPortFromScheme() {
+        assertEquals("https://example.com:443", PerHostLimitingRequestFactory.hostKey(URI.create("https://example.com/a")));
+        assertEquals("http://example.com:80", PerHostLimitingRequestFactory.hostKey(URI.create("http://example.com/a")));
+    }
+}
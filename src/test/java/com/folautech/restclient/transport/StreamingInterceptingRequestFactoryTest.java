@@ -0,0 +1,227 @@
+package com.folautech.restclient.transport;
+
+import com.folautech.restclient.config.RestClientProperties;
+import com.folautech.restclient.dto.Post;
+import com.folautech.restclient.utility.BufferPool;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.client.RestClient;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingInterceptingRequestFactoryTest {
+
+    private static final JsonMapper JSON = JsonMapper.builder().build();
+
+    private final List<Received> received = new CopyOnWriteArrayList<>();
+    private HttpServer server;
+    private String url;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/upload", exchange -> {
+            try (exchange) {
+                HttpHeaders headers = new HttpHeaders();
+                exchange.getRequestHeaders().forEach(headers::addAll);
+                InputStream in = exchange.getRequestBody();
+                if ("gzip".equals(headers.getFirst(HttpHeaders.CONTENT_ENCODING))) {
+                    in = new GZIPInputStream(in);
+                }
+                received.add(new Received(headers, in.readAllBytes()));
+                exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, "application/json");
+                byte[] response = "{\"id\":101}".getBytes();
+                exchange.sendResponseHeaders(201, response.length);
+                exchange.getResponseBody().write(response);
+            }
+        });
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/upload";
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void smallJsonBodyIsSentFromOnePooledBufferWithContentLength() {
+        List<Integer> bodyLengths = new ArrayList<>();
+        List<String> previews = new ArrayList<>();
+        ClientHttpRequestInterceptor observer = (request, body, execution) -> {
+            bodyLengths.add(body.length);
+            previews.add(new String(StreamingRequestBody.of(request).preview(16)));
+            return execution.execute(request, body);
+        };
+        BufferPool pool = new BufferPool(4096, 4);
+        Post post = post(1);
+
+        Post created = restClient(pool, observer).post().uri(url)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(post)
+                .retrieve()
+                .body(Post.class);
+
+        assertEquals(101L, created.getId());
+        assertEquals(List.of(0), bodyLengths);
+        assertEquals("{\"id\":1,\"userId\"", previews.getFirst());
+        Received request = received.getFirst();
+        assertEquals(request.body().length, request.headers().getContentLength());
+        assertEquals(tree(post), JSON.readTree(request.body()));
+        assertEquals(1, pool.getStatistics().acquired());
+        assertEquals(1, pool.getStatistics().idle());
+    }
+
+    @Test
+    void largeJsonBodyIsStreamedChunkedThroughReusedBuffers() {
+        BufferPool pool = new BufferPool(1024, 4);
+        List<Post> posts = IntStream.rangeClosed(1, 200).mapToObj(StreamingInterceptingRequestFactoryTest::post).toList();
+        RestClient restClient = restClient(pool);
+
+        for (int i = 0; i < 10; i++) {
+            restClient.post().uri(url).contentType(MediaType.APPLICATION_JSON).body(posts).retrieve().toBodilessEntity();
+        }
+
+        assertEquals(10, received.size());
+        JsonNode expected = tree(posts);
+        for (Received request : received) {
+            assertEquals(-1, request.headers().getContentLength());
+            assertEquals(expected, JSON.readTree(request.body()));
+        }
+        // a buffer for the first attempt and one to stream through, each back in the pool after the call
+        BufferPool.BufferPoolStatistics statistics = pool.getStatistics();
+        assertEquals(20, statistics.acquired());
+        assertTrue(statistics.allocated() <= 2, "allocated " + statistics.allocated());
+    }
+
+    @Test
+    void largeStreamedBodyIsGzippedOnTheWay() {
+        RestClientProperties.Compression properties = new RestClientProperties.Compression();
+        properties.setRequestThreshold(DataSize.ofBytes(512));
+        CompressionInterceptor compression = new CompressionInterceptor(properties);
+        List<Post> posts = IntStream.rangeClosed(1, 50).mapToObj(StreamingInterceptingRequestFactoryTest::post).toList();
+
+        restClient(new BufferPool(1024, 4), compression).post().uri(url)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(posts)
+                .retrieve()
+                .toBodilessEntity();
+
+        Received request = received.getFirst();
+        assertEquals("gzip", request.headers().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(tree(posts), JSON.readTree(request.body()));
+        assertEquals(1, compression.getCompressedRequests());
+    }
+
+    @Test
+    void streamedBodyBelowTheThresholdIsSentPlain() {
+        CompressionInterceptor compression = new CompressionInterceptor(new RestClientProperties.Compression());
+        Post post = post(1);
+        List<Post> posts = IntStream.rangeClosed(1, 50).mapToObj(StreamingInterceptingRequestFactoryTest::post).toList();
+        RestClient restClient = restClient(new BufferPool(1024, 4), compression);
+
+        // one fits the first buffer, the other overflows it but stays under the default 8KB threshold
+        restClient.post().uri(url).contentType(MediaType.APPLICATION_JSON).body(post).retrieve().toBodilessEntity();
+        restClient.post().uri(url).contentType(MediaType.APPLICATION_JSON).body(posts).retrieve().toBodilessEntity();
+
+        Received small = received.get(0);
+        assertNull(small.headers().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(small.body().length, small.headers().getContentLength());
+        assertEquals(tree(post), JSON.readTree(small.body()));
+        Received larger = received.get(1);
+        assertTrue(larger.body().length > 1024 && larger.body().length < 8192, "length " + larger.body().length);
+        assertNull(larger.headers().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(tree(posts), JSON.readTree(larger.body()));
+        assertEquals(0, compression.getCompressedRequests());
+    }
+
+    @Test
+    void fileIsUploadedWithItsLengthAndContent() throws IOException {
+        byte[] content = new byte[300_000];
+        new Random(7).nextBytes(content);
+        Path file = Files.createTempFile("upload", ".bin");
+        try {
+            Files.write(file, content);
+            FileRequestBody body = new FileRequestBody(file);
+
+            restClient(new BufferPool(8192, 4)).post().uri(url)
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .contentLength(body.contentLength())
+                    .body(body)
+                    .retrieve()
+                    .toBodilessEntity();
+        } finally {
+            Files.delete(file);
+        }
+
+        Received request = received.getFirst();
+        assertEquals(content.length, request.headers().getContentLength());
+        assertArrayEquals(content, request.body());
+    }
+
+    @Test
+    void retriedRequestSendsTheWholeBodyAgain() {
+        ClientHttpRequestInterceptor retryOnce = (request, body, execution) -> {
+            execution.execute(request, body).close();
+            return execution.execute(request, body);
+        };
+        Post post = post(3);
+
+        restClient(new BufferPool(4096, 4), retryOnce).post().uri(url)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(post)
+                .retrieve()
+                .toBodilessEntity();
+
+        assertEquals(2, received.size());
+        assertArrayEquals(received.get(0).body(), received.get(1).body());
+        assertEquals(tree(post), JSON.readTree(received.get(1).body()));
+    }
+
+    private static RestClient restClient(BufferPool pool, ClientHttpRequestInterceptor... interceptors) {
+        HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        return RestClient.builder()
+                .requestFactory(new StreamingInterceptingRequestFactory(new JdkClientHttpRequestFactory(httpClient),
+                        List.of(interceptors), pool))
+                .build();
+    }
+
+    private static JsonNode tree(Object value) {
+        return JSON.readTree(JSON.writeValueAsBytes(value));
+    }
+
+    private static Post post(int id) {
+        Post post = new Post();
+        post.setUserId(1L);
+        post.setId((long) id);
+        post.setTitle("title " + id);
+        post.setBody("body of post " + id + " ".repeat(id % 7));
+        return post;
+    }
+
+    private record Received(HttpHeaders headers, byte[] body) {
+    }
+}
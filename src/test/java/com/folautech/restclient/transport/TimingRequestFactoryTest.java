@@ -0,0 +1,169 @@
+package com.folautech.restclient.transport;
+
+import com.folautech.restclient.config.RestClientProperties;
+import com.folautech.restclient.dto.User;
+import com.folautech.restclient.utility.SlowCallLog;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingRequestFactoryTest {
+
+    private static final byte[] USER = "{\"id\":1,\"name\":\"Leanne Graham\",\"username\":\"Bret\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer server;
+    private String baseUrl;
+    private final List<ExchangeTiming> completed = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/users/1", exchange -> {
+            sleep(50);
+            exchange.getResponseHeaders().set("Content-Type", MediaType.APPLICATION_JSON_VALUE);
+            exchange.sendResponseHeaders(200, USER.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(USER);
+            }
+        });
+        server.createContext("/slow", exchange -> {
+            sleep(300);
+            exchange.getResponseHeaders().set("Content-Type", MediaType.APPLICATION_JSON_VALUE);
+            exchange.sendResponseHeaders(200, USER.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(USER);
+            }
+        });
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void callerSeesTheBreakdownOfItsOwnCall() {
+        RestClient restClient = restClient(10);
+        ExchangeTiming timing = new ExchangeTiming();
+
+        User user = restClient.get()
+                .uri(baseUrl + "/users/1")
+                .attribute(ExchangeTiming.ATTRIBUTE, timing)
+                .retrieve()
+                .body(User.class);
+
+        assertEquals(1L, user.getId());
+        assertTrue(timing.isComplete());
+        assertEquals(200, timing.getStatus());
+        assertTrue(timing.getFirstByte().toMillis() >= 50, timing.toString());
+        assertTrue(timing.getQueue().toMillis() < 50, timing.toString());
+        assertTrue(timing.getTotal().compareTo(timing.getFirstByte()) >= 0);
+        assertEquals(1, completed.size());
+        assertEquals(timing.toString(), completed.getFirst().toString());
+    }
+
+    @Test
+    void overlappingAttemptsLeaveTheFirstAnswerInTheCallersTiming() throws Exception {
+        RestClient restClient = restClient(10);
+        ExchangeTiming timing = new ExchangeTiming();
+
+        // like a hedge: both attempts carry the caller's timing, the later one answers first
+        CompletableFuture<User> slow = CompletableFuture.supplyAsync(() -> restClient.get()
+                .uri(baseUrl + "/slow").attribute(ExchangeTiming.ATTRIBUTE, timing).retrieve().body(User.class));
+        sleep(20);
+        restClient.get().uri(baseUrl + "/users/1").attribute(ExchangeTiming.ATTRIBUTE, timing)
+                .retrieve().body(User.class);
+        slow.get(5, TimeUnit.SECONDS);
+
+        assertEquals("/users/1", timing.getUri().getPath());
+        assertTrue(timing.getFirstByte().toMillis() < 250, timing.toString());
+        assertTrue(timing.isComplete());
+        assertEquals(2, completed.size());
+
+        // a retry, started once the previous attempt is over, replaces it
+        restClient.get().uri(baseUrl + "/slow").attribute(ExchangeTiming.ATTRIBUTE, timing)
+                .retrieve().body(User.class);
+        assertEquals("/slow", timing.getUri().getPath());
+    }
+
+    @Test
+    void waitForAConnectionSlotIsItsOwnPhase() {
+        RestClient restClient = restClient(1);
+        ExchangeTiming first = new ExchangeTiming();
+        ExchangeTiming second = new ExchangeTiming();
+
+        CompletableFuture<User> one = CompletableFuture.supplyAsync(() -> restClient.get()
+                .uri(baseUrl + "/users/1").attribute(ExchangeTiming.ATTRIBUTE, first).retrieve().body(User.class));
+        CompletableFuture<User> two = CompletableFuture.supplyAsync(() -> restClient.get()
+                .uri(baseUrl + "/users/1").attribute(ExchangeTiming.ATTRIBUTE, second).retrieve().body(User.class));
+        one.join();
+        two.join();
+
+        long queued = Math.max(first.getQueue().toMillis(), second.getQueue().toMillis());
+        assertTrue(queued >= 30, first + " / " + second);
+        assertTrue(first.getFirstByte().toMillis() >= 50 && second.getFirstByte().toMillis() >= 50);
+    }
+
+    @Test
+    void slowCallLogCountsSlowAndFailedExchanges() throws IOException {
+        RestClientProperties.Timing properties = new RestClientProperties.Timing();
+        properties.setSlowCallThreshold(Duration.ofMillis(20));
+        int closedPort;
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            closedPort = socket.getLocalPort();
+        }
+        try (SlowCallLog slowCallLog = new SlowCallLog(properties)) {
+            RestClient restClient = RestClient.builder()
+                    .requestFactory(new TimingRequestFactory(new JdkClientHttpRequestFactory(), slowCallLog))
+                    .build();
+
+            restClient.get().uri(baseUrl + "/users/1").retrieve().body(User.class);
+            assertThrows(ResourceAccessException.class,
+                    () -> restClient.get().uri("http://127.0.0.1:" + closedPort + "/users/1").retrieve().body(User.class));
+
+            SlowCallLog.SlowCallStatistics statistics = slowCallLog.getStatistics();
+            assertEquals(2, statistics.exchanges());
+            assertEquals(1, statistics.slowCalls());
+        }
+    }
+
+    private RestClient restClient(int maxPerHost) {
+        PerHostLimitingRequestFactory limiting = new PerHostLimitingRequestFactory(new JdkClientHttpRequestFactory(),
+                maxPerHost, Duration.ofSeconds(2));
+        return RestClient.builder()
+                .requestFactory(new TimingRequestFactory(limiting, completed::add))
+                .build();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.folautech.restclient.utility;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledUriTemplateTest {
+
+    private static final String BASE_URL = "https://jsonplaceholder.typicode.com";
+
+    @Test
+    void expandsLikeTheUriBuilderFactory() {
+        DefaultUriBuilderFactory factory = new DefaultUriBuilderFactory();
+        CompiledUriTemplate template = CompiledUriTemplate.of(BASE_URL, "/posts?_start={start}&_limit={limit}");
+
+        assertEquals(factory.expand(BASE_URL + "/posts?_start={start}&_limit={limit}", 20, 10),
+                template.expand(20, 10));
+        assertEquals(BASE_URL + "/posts?_start={start}&_limit={limit}", template.template());
+    }
+
+    @Test
+    void valuesCannotAddSegmentsOrParameters() {
+        CompiledUriTemplate template = CompiledUriTemplate.of(BASE_URL, "/users/{id}");
+
+        URI uri = template.expand("1/posts?userId=2 &x");
+
+        assertEquals("/users/1%2Fposts%3FuserId%3D2%20%26x", uri.getRawPath());
+        assertNull(uri.getRawQuery());
+    }
+
+    @Test
+    void rejectsTheWrongNumberOfValues() {
+        CompiledUriTemplate template = CompiledUriTemplate.of(BASE_URL, "/posts/{id}");
+
+        assertThrows(IllegalArgumentException.class, template::expand);
+        assertThrows(IllegalArgumentException.class, () -> CompiledUriTemplate.of(BASE_URL, "/posts/{id"));
+    }
+}
@@ -0,0 +1,117 @@
+package com.folautech.restclient.utility;
+
+import com.folautech.restclient.config.RestClientProperties;
+import com.folautech.restclient.dto.BulkResult;
+import com.folautech.restclient.dto.Post;
+import com.folautech.restclient.load.StubUpstreamServer;
+import com.folautech.restclient.service.JsonPlaceholderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelinedWriterTest {
+
+    @Test
+    void keepsTheWindowFullAndNoFuller() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        Map<Long, BulkResult<Integer>> results = new ConcurrentHashMap<>();
+
+        try (PipelinedWriter<Integer, Integer> writer = new PipelinedWriter<>(item -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            return item * 2;
+        }, 4, result -> results.put(result.id(), result))) {
+            for (int i = 0; i < 40; i++) {
+                assertEquals(i, writer.submit(i));
+                assertTrue(writer.getInFlight() <= 4);
+            }
+        }
+
+        assertEquals(4, maxInFlight.get());
+        assertEquals(40, results.size());
+        results.forEach((id, result) -> assertEquals(id * 2, result.value().longValue()));
+    }
+
+    @Test
+    void failuresAreReportedPerItem() {
+        Map<Long, BulkResult<Integer>> results = new ConcurrentHashMap<>();
+        PipelinedWriter<Integer, Integer> writer = new PipelinedWriter<>(item -> {
+            if (item % 2 == 1) {
+                throw new IllegalStateException("odd " + item);
+            }
+            return item;
+        }, 3, result -> results.put(result.id(), result));
+
+        for (int i = 0; i < 10; i++) {
+            writer.submit(i);
+        }
+        writer.close();
+
+        assertEquals(5, writer.getSucceeded());
+        assertEquals(5, writer.getFailed());
+        assertEquals("odd 3", results.get(3L).error().getMessage());
+        assertTrue(results.get(4L).isSuccess());
+        assertThrows(IllegalStateException.class, () -> writer.submit(10));
+    }
+
+    @Test
+    void anErrorInACallStillFreesItsSlot() {
+        PipelinedWriter<Integer, Integer> writer = new PipelinedWriter<>(item -> {
+            throw new AssertionError("broken " + item);
+        }, 2, result -> { });
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (int i = 0; i < 4; i++) {
+                writer.submit(i);
+            }
+            writer.close();
+        });
+        assertEquals(0, writer.getInFlight());
+    }
+
+    @Test
+    void createPostsReturnsResultsInInputOrder() throws IOException {
+        RestClientProperties properties = new RestClientProperties();
+        properties.getStub().setPort(0);
+        properties.getStub().setLatency(Duration.ofMillis(5));
+        properties.getStub().setLatencyJitter(Duration.ofMillis(10));
+        properties.getStub().setSlowRate(0);
+        properties.getBulk().setWriteWindow(8);
+        try (StubUpstreamServer stub = new StubUpstreamServer(properties.getStub(), JsonMapper.builder().build())) {
+            properties.setBaseUrl(stub.baseUrl());
+            RestClient restClient = RestClient.builder().requestFactory(new JdkClientHttpRequestFactory()).build();
+            JsonPlaceholderService service = new JsonPlaceholderService(restClient, new SingleFlight(false),
+                    properties, JsonMapper.builder().build());
+            List<Post> posts = new ArrayList<>();
+            for (long i = 0; i < 50; i++) {
+                posts.add(Post.builder().userId(1L).title("post " + i).body("bulk").build());
+            }
+
+            List<BulkResult<Post>> results = service.createPosts(posts);
+
+            assertEquals(50, results.size());
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(i, results.get(i).id());
+                assertEquals("post " + i, results.get(i).value().getTitle());
+            }
+            assertEquals(50, stub.getRequests());
+        }
+    }
+}
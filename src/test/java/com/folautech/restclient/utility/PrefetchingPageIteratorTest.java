@@ -0,0 +1,119 @@
+package com.folautech.restclient.utility;
+
+import com.folautech.restclient.config.RestClientProperties;
+import com.folautech.restclient.dto.Post;
+import com.folautech.restclient.load.StubUpstreamServer;
+import com.folautech.restclient.service.JsonPlaceholderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrefetchingPageIteratorTest {
+
+    @Test
+    void readsEveryPageInOrderUntilAShortPage() {
+        List<Integer> starts = new CopyOnWriteArrayList<>();
+        List<Integer> seen = new ArrayList<>();
+
+        try (PrefetchingPageIterator<Integer> iterator = new PrefetchingPageIterator<>((start, limit) -> {
+            starts.add(start);
+            return range(start, Math.min(start + limit, 25));
+        }, 10, 2)) {
+            iterator.forEachRemaining(seen::add);
+        }
+
+        assertEquals(range(0, 25), seen);
+        assertEquals(List.of(0, 10, 20), starts);
+    }
+
+    @Test
+    void exactMultipleOfThePageSizeEndsOnAnEmptyPage() {
+        List<Integer> seen = new ArrayList<>();
+
+        try (PrefetchingPageIterator<Integer> iterator = new PrefetchingPageIterator<>(
+                (start, limit) -> range(start, Math.min(start + limit, 20)), 10, 1)) {
+            iterator.forEachRemaining(seen::add);
+        }
+
+        assertEquals(range(0, 20), seen);
+    }
+
+    @Test
+    void slowConsumerHoldsBackTheFetcher() throws InterruptedException {
+        List<Integer> starts = new CopyOnWriteArrayList<>();
+
+        try (PrefetchingPageIterator<Integer> iterator = new PrefetchingPageIterator<>((start, limit) -> {
+            starts.add(start);
+            return range(start, start + limit);
+        }, 10, 2)) {
+            assertEquals(0, iterator.next());
+            TimeUnit.MILLISECONDS.sleep(200);
+
+            // the page being read, two queued, and one waiting to be queued
+            assertEquals(4, starts.size());
+            for (int i = 1; i < 15; i++) {
+                assertEquals(i, iterator.next());
+            }
+            TimeUnit.MILLISECONDS.sleep(200);
+            assertEquals(5, starts.size());
+        }
+    }
+
+    @Test
+    void fetchFailureSurfacesAfterTheEarlierPages() {
+        List<Integer> seen = new ArrayList<>();
+
+        try (PrefetchingPageIterator<Integer> iterator = new PrefetchingPageIterator<>((start, limit) -> {
+            if (start == 20) {
+                throw new IllegalStateException("upstream down");
+            }
+            return range(start, start + limit);
+        }, 10, 2)) {
+            IllegalStateException error = assertThrows(IllegalStateException.class,
+                    () -> iterator.forEachRemaining(seen::add));
+            assertEquals("upstream down", error.getMessage());
+            assertFalse(iterator.hasNext());
+        }
+
+        assertEquals(range(0, 20), seen);
+    }
+
+    @Test
+    void iteratesPostsFromTheStubUpstream() throws IOException {
+        RestClientProperties properties = new RestClientProperties();
+        properties.getStub().setPort(0);
+        properties.getStub().setLatency(Duration.ZERO);
+        properties.getStub().setLatencyJitter(Duration.ZERO);
+        properties.getStub().setSlowRate(0);
+        try (StubUpstreamServer stub = new StubUpstreamServer(properties.getStub(), JsonMapper.builder().build())) {
+            properties.setBaseUrl(stub.baseUrl());
+            RestClient restClient = RestClient.builder().requestFactory(new JdkClientHttpRequestFactory()).build();
+            JsonPlaceholderService service = new JsonPlaceholderService(restClient, new SingleFlight(false),
+                    properties, JsonMapper.builder().build());
+
+            List<Long> ids = new ArrayList<>();
+            try (PrefetchingPageIterator<Post> posts = service.iterateAllPosts(15, 2)) {
+                posts.forEachRemaining(post -> ids.add(post.getId()));
+            }
+
+            assertEquals(LongStream.rangeClosed(1, 100).boxed().toList(), ids);
+            assertEquals(7, stub.getRequests());
+        }
+    }
+
+    private static List<Integer> range(int from, int to) {
+        return IntStream.range(from, to).boxed().toList();
+    }
+}
@@ -0,0 +1,89 @@
+package com.folautech.restclient.utility;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import com.folautech.restclient.config.RestClientProperties;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RestClientLogTest {
+
+    @Test
+    void teePassesBodyThroughAndKeepsOnlyThePrefix() throws IOException {
+        byte[] payload = "{\"id\":1,\"title\":\"a fairly long title\"}".getBytes(StandardCharsets.UTF_8);
+        AtomicReference<PrefixCapturingInputStream.Captured> result = new AtomicReference<>();
+
+        try (InputStream in = new PrefixCapturingInputStream(new ByteArrayInputStream(payload), 8, result::set)) {
+            assertArrayEquals(payload, in.readAllBytes());
+        }
+
+        PrefixCapturingInputStream.Captured captured = result.get();
+        assertEquals("{\"id\":1,", new String(captured.prefix(), 0, captured.length(), StandardCharsets.UTF_8));
+        assertEquals(payload.length, captured.totalBytes());
+        assertTrue(captured.truncated());
+    }
+
+    @Test
+    void logLinesCarryTheCallersMdc() throws IOException {
+        List<String> requestIds = new CopyOnWriteArrayList<>();
+        AppenderBase<ILoggingEvent> appender = new AppenderBase<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                // runs on the writer thread, so this is the MDC the line was written with
+                requestIds.add(String.valueOf(MDC.get("requestId")));
+            }
+        };
+        Logger logger = (Logger) LoggerFactory.getLogger(RestClientLog.class);
+        appender.setContext(logger.getLoggerContext());
+        appender.start();
+        logger.addAppender(appender);
+        MDC.put("requestId", "req-7");
+        try (RestClientLog restClientLog = new RestClientLog(true)) {
+            ClientHttpResponse response = restClientLog.intercept(
+                    new MockClientHttpRequest(HttpMethod.GET, URI.create("https://host/users/1")), new byte[0],
+                    (request, body) -> new MockClientHttpResponse("{\"id\":1}".getBytes(), HttpStatus.OK));
+            try (response) {
+                response.getBody().readAllBytes();
+            }
+        } finally {
+            MDC.remove("requestId");
+            logger.detachAppender(appender);
+        }
+
+        assertFalse(requestIds.isEmpty());
+        assertTrue(requestIds.stream().allMatch("req-7"::equals), requestIds.toString());
+    }
+
+    @Test
+    void firstMatchingEndpointPatternSetsTheSampleRate() {
+        RestClientProperties.Logging properties = new RestClientProperties.Logging();
+        properties.setEnabled(false);
+        properties.setDefaultSampleRate(0.5);
+        properties.getSampleRates().put("/posts/**", 0.01);
+        properties.getSampleRates().put("/users/*", 1.0);
+
+        try (RestClientLog restClientLog = new RestClientLog(properties)) {
+            assertEquals(0.01, restClientLog.sampleRate(URI.create("https://host/posts")));
+            assertEquals(1.0, restClientLog.sampleRate(URI.create("https://host/users/42")));
+            assertEquals(0.5, restClientLog.sampleRate(URI.create("https://host/comments")));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.folautech.restclient.utility;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight singleFlight = new SingleFlight(true);
+
+    @Test
+    void concurrentCallersShareOneExecution() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+
+        List<CompletableFuture<String>> waiters = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            waiters.add(singleFlight.submit("GET /users/42", () -> {
+                calls.incrementAndGet();
+                await(release);
+                return "user-42";
+            }));
+        }
+        release.countDown();
+
+        for (CompletableFuture<String> waiter : waiters) {
+            assertEquals("user-42", waiter.get());
+        }
+        assertEquals(1, calls.get());
+        assertEquals(19, singleFlight.getCoalesced());
+        assertEquals(0, singleFlight.getInFlight());
+    }
+
+    @Test
+    void failureFansOutToEveryWaiter() {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = singleFlight.submit("GET /users/7", () -> {
+            await(release);
+            throw new IllegalStateException("upstream down");
+        });
+        CompletableFuture<String> second = singleFlight.submit("GET /users/7", () -> "not used");
+        release.countDown();
+
+        ExecutionException firstError = assertThrows(ExecutionException.class, first::get);
+        ExecutionException secondError = assertThrows(ExecutionException.class, second::get);
+        assertEquals("upstream down", firstError.getCause().getMessage());
+        assertSame(firstError.getCause(), secondError.getCause());
+        assertEquals(1, singleFlight.getExecutions());
+    }
+
+    @Test
+    void cancellingOneWaiterDoesNotCancelTheSharedCall() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> cancelled = singleFlight.submit("GET /posts", () -> {
+            await(release);
+            return "posts";
+        });
+        CompletableFuture<String> other = singleFlight.submit("GET /posts", () -> "not used");
+
+        cancelled.cancel(true);
+        release.countDown();
+
+        assertTrue(cancelled.isCancelled());
+        assertEquals("posts", other.get());
+    }
+
+    @Test
+    void blockingLeaderRunsOnTheCallersThreadAndJoinersWaitForIt() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Thread> runner = new AtomicReference<>();
+        CompletableFuture<String> leader = new CompletableFuture<>();
+        Thread caller = Thread.ofVirtual().start(() -> leader.complete(singleFlight.execute("GET /users/1", () -> {
+            runner.set(Thread.currentThread());
+            started.countDown();
+            await(release);
+            return "user-1";
+        })));
+        started.await();
+        CompletableFuture<String> joiner = CompletableFuture.supplyAsync(
+                () -> singleFlight.execute("GET /users/1", () -> "not used"));
+        while (singleFlight.getCoalesced() == 0) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        assertEquals("user-1", leader.get());
+        assertEquals("user-1", joiner.get());
+        assertSame(caller, runner.get());
+        assertEquals(1, singleFlight.getExecutions());
+        assertEquals(0, singleFlight.getInFlight());
+    }
+
+    @Test
+    void submittedCallCarriesTheCallersMdc() throws Exception {
+        MDC.put("requestId", "abc");
+        try {
+            CompletableFuture<String> result = singleFlight.submit("GET /users/2", () -> MDC.get("requestId"));
+            assertEquals("abc", result.get());
+        } finally {
+            MDC.remove("requestId");
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
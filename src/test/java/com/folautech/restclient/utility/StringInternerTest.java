@@ -0,0 +1,70 @@
+package com.folautech.restclient.utility;
+
+import com.folautech.restclient.dto.CompactPost;
+import com.folautech.restclient.dto.CompactUser;
+import org.junit.jupiter.api.Test;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StringInternerTest {
+
+    @Test
+    void repeatedValuesShareOneInstance() {
+        StringInterner interner = new StringInterner(16, 64);
+        String first = interner.intern(new String("hildegard.org"));
+
+        assertSame(first, interner.intern(new String("hildegard.org")));
+        char[] chars = "xxhildegard.orgxx".toCharArray();
+        assertSame(first, interner.intern(chars, 2, "hildegard.org".length()));
+    }
+
+    @Test
+    void longValuesAreNotKept() {
+        StringInterner interner = new StringInterner(16, 4);
+        String first = interner.intern(new String("hildegard.org"));
+
+        assertNotSame(first, interner.intern(new String("hildegard.org")));
+        assertEquals("hildegard.org", interner.intern("hildegard.org".toCharArray(), 0, 13));
+    }
+
+    @Test
+    void tableIsBoundedAndLossy() {
+        StringInterner interner = new StringInterner(4, 64);
+        for (int i = 0; i < 1_000; i++) {
+            assertEquals("value-" + i, interner.intern("value-" + i));
+        }
+    }
+
+    @Test
+    void compactUserInternsUsernameAndWebsite() {
+        JsonMapper jsonMapper = JsonMapper.builder().build();
+        String json = "{\"id\":1,\"name\":\"Leanne Graham\",\"username\":\"Bret\",\"email\":\"Sincere@april.biz\","
+                + "\"phone\":\"1-770-736-8031 x56442\",\"website\":\"hildegard.org\"}";
+
+        CompactUser first = jsonMapper.readValue(json, CompactUser.class);
+        CompactUser second = jsonMapper.readValue(json, CompactUser.class);
+
+        assertEquals(first, second);
+        assertEquals(1L, first.id());
+        assertSame(first.website(), second.website());
+        assertSame(first.username(), second.username());
+        assertNotSame(first.name(), second.name());
+        assertEquals(first, CompactUser.from(first.toUser()));
+    }
+
+    @Test
+    void compactPostDecodesWithPrimitiveIds() {
+        JsonMapper jsonMapper = JsonMapper.builder().build();
+        List<CompactPost> posts = jsonMapper.readValue(
+                "[{\"userId\":1,\"id\":7,\"title\":\"t\",\"body\":\"b\"},{\"title\":\"no ids\"}]",
+                new TypeReference<>() {});
+
+        assertEquals(new CompactPost(7, 1, "t", "b"), posts.get(0));
+        assertEquals(0, posts.get(1).id());
+        assertEquals(posts.get(0), CompactPost.from(posts.get(0).toPost()));
+    }
+}